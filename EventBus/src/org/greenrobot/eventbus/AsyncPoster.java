@@ -32,7 +32,8 @@ class AsyncPoster implements Runnable, Poster {
     }
 
     public void enqueue(Subscription subscription, Object event) {
-        PendingPost pendingPost = PendingPost.obtainPendingPost(subscription, event);
+        PendingPost pendingPost = PendingPost.obtainPendingPost(subscription, event,
+                eventBus.recordEnqueue(subscription, event));
         queue.enqueue(pendingPost);
         eventBus.getExecutorService().execute(this);
     }
@@ -46,4 +47,8 @@ class AsyncPoster implements Runnable, Poster {
         eventBus.invokeSubscriber(pendingPost);
     }
 
+    @Override
+    public int getQueueSize() {
+        return queue.size();
+    }
 }
@@ -32,7 +32,8 @@ class AsyncThrower implements Runnable, Thrower {
     }
 
     public void enqueue(Handlement handlement, Object exceptionalEvent) {
-        PendingThrow pendingThrow = PendingThrow.obtainPendingThrow(handlement, exceptionalEvent);
+        PendingThrow pendingThrow = PendingThrow.obtainPendingThrow(handlement, exceptionalEvent,
+                eventBus.recordEnqueue(handlement, exceptionalEvent));
         queue.enqueue(pendingThrow);
         eventBus.getExecutorService().execute(this);
     }
@@ -46,4 +47,8 @@ class AsyncThrower implements Runnable, Thrower {
         eventBus.invokeHandler(pendingThrow);
     }
 
+    @Override
+    public int getQueueSize() {
+        return queue.size();
+    }
 }
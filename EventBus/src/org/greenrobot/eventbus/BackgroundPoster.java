@@ -35,7 +35,8 @@ final class BackgroundPoster implements Runnable, Poster {
     }
 
     public void enqueue(Subscription subscription, Object event) {
-        PendingPost pendingPost = PendingPost.obtainPendingPost(subscription, event);
+        PendingPost pendingPost = PendingPost.obtainPendingPost(subscription, event,
+                eventBus.recordEnqueue(subscription, event));
         synchronized (this) {
             queue.enqueue(pendingPost);
             if (!executorRunning) {
@@ -71,4 +72,8 @@ final class BackgroundPoster implements Runnable, Poster {
         }
     }
 
+    @Override
+    public int getQueueSize() {
+        return queue.size();
+    }
 }
@@ -35,7 +35,8 @@ final class BackgroundThrower implements Runnable, Thrower {
     }
 
     public void enqueue(Handlement handlement, Object exceptionalEvent) {
-        PendingThrow pendingThrow = PendingThrow.obtainPendingThrow(handlement, exceptionalEvent);
+        PendingThrow pendingThrow = PendingThrow.obtainPendingThrow(handlement, exceptionalEvent,
+                eventBus.recordEnqueue(handlement, exceptionalEvent));
         synchronized (this) {
             queue.enqueue(pendingThrow);
             if (!executorRunning) {
@@ -71,4 +72,8 @@ final class BackgroundThrower implements Runnable, Thrower {
         }
     }
 
+    @Override
+    public int getQueueSize() {
+        return queue.size();
+    }
 }
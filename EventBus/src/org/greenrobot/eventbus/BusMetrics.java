@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+/**
+ * Receives metrics of an EventBus, see {@link EventBusBuilder#metrics(BusMetrics)}. {@link DefaultBusMetrics}
+ * aggregates them per event type and thread mode.
+ * <p/>
+ * Methods are called on the posting and delivering threads, possibly concurrently, so implementations must be
+ * thread-safe and should return quickly. Event types are the classes of the posted (or thrown) objects, not the
+ * parameter types of the receiving methods. Of the events a generated static bus delivers by calling subscriber
+ * methods directly, only subscriber exceptions are recorded.
+ */
+public interface BusMetrics {
+
+    /** Records nothing; an EventBus built with it skips recording entirely (including taking the time). */
+    BusMetrics NONE = new None();
+
+    /** Called once per {@link EventBus#post(Object)}, before delivery. */
+    void onPost(Class<?> eventClass);
+
+    /** Called if no subscriber received a posted event. */
+    void onNoSubscriber(Class<?> eventClass);
+
+    /**
+     * Called after a subscriber method returned or threw.
+     *
+     * @param eventClass
+     * @param threadMode thread mode of the subscriber method
+     * @param nanos      time spent in the subscriber method
+     */
+    void onSubscriberInvoked(Class<?> eventClass, ThreadMode threadMode, long nanos);
+
+    /** Called if a subscriber method threw, before the exception is processed. */
+    void onSubscriberException(Class<?> eventClass, ThreadMode threadMode);
+
+    /**
+     * Called when a poster takes a queued event off its queue to deliver it, i.e. for the thread modes
+     * {@link ThreadMode#MAIN} and {@link ThreadMode#BACKGROUND} if not posted on the main thread respectively a
+     * background thread, and for {@link ThreadMode#MAIN_ORDERED} and {@link ThreadMode#ASYNC}.
+     *
+     * @param eventClass
+     * @param threadMode thread mode of the subscriber method, which determines the poster
+     * @param nanos      time the event waited in the queue
+     */
+    void onSubscriberDequeued(Class<?> eventClass, ThreadMode threadMode, long nanos);
+
+    /** Called once per {@link EventBus#throwException(Object)}, before delivery. */
+    void onThrow(Class<?> exceptionalEventClass);
+
+    /** Called if no handler received a thrown exceptional event. */
+    void onNoHandler(Class<?> exceptionalEventClass);
+
+    /**
+     * Called after a handler method returned or threw.
+     *
+     * @param exceptionalEventClass
+     * @param threadMode            thread mode of the handler method
+     * @param nanos                 time spent in the handler method
+     */
+    void onHandlerInvoked(Class<?> exceptionalEventClass, ExceptionalThreadMode threadMode, long nanos);
+
+    /** Called if a handler method threw, before the exception is processed. */
+    void onHandlerException(Class<?> exceptionalEventClass, ExceptionalThreadMode threadMode);
+
+    /**
+     * Called when a thrower takes a queued exceptional event off its queue to deliver it, like
+     * {@link #onSubscriberDequeued(Class, ThreadMode, long)}.
+     *
+     * @param exceptionalEventClass
+     * @param threadMode            thread mode of the handler method, which determines the thrower
+     * @param nanos                 time the exceptional event waited in the queue
+     */
+    void onHandlerDequeued(Class<?> exceptionalEventClass, ExceptionalThreadMode threadMode, long nanos);
+
+    final class None implements BusMetrics {
+        private None() {
+        }
+
+        @Override
+        public void onPost(Class<?> eventClass) {
+        }
+
+        @Override
+        public void onNoSubscriber(Class<?> eventClass) {
+        }
+
+        @Override
+        public void onSubscriberInvoked(Class<?> eventClass, ThreadMode threadMode, long nanos) {
+        }
+
+        @Override
+        public void onSubscriberException(Class<?> eventClass, ThreadMode threadMode) {
+        }
+
+        @Override
+        public void onSubscriberDequeued(Class<?> eventClass, ThreadMode threadMode, long nanos) {
+        }
+
+        @Override
+        public void onThrow(Class<?> exceptionalEventClass) {
+        }
+
+        @Override
+        public void onNoHandler(Class<?> exceptionalEventClass) {
+        }
+
+        @Override
+        public void onHandlerInvoked(Class<?> exceptionalEventClass, ExceptionalThreadMode threadMode, long nanos) {
+        }
+
+        @Override
+        public void onHandlerException(Class<?> exceptionalEventClass, ExceptionalThreadMode threadMode) {
+        }
+
+        @Override
+        public void onHandlerDequeued(Class<?> exceptionalEventClass, ExceptionalThreadMode threadMode, long nanos) {
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+/**
+ * Snapshot of the state of an EventBus, see {@link EventBus#getStatistics()}. It's taken without locks used for
+ * dispatching or registration, so values may miss concurrent changes and not be consistent with each other.
+ */
+public final class BusStatistics {
+    int subscriberCount;
+    int subscriptionCount;
+    int eventTypeCount;
+    int stickyEventCount;
+    int handlerCount;
+    int handlementCount;
+    int exceptionalEventTypeCount;
+    int stickyExceptionalEventCount;
+
+    int mainThreadQueueSize;
+    int backgroundQueueSize;
+    int asyncQueueSize;
+    int mainThreadThrowQueueSize;
+    int backgroundThrowQueueSize;
+    int asyncThrowQueueSize;
+
+    long pendingPostPoolHitCount;
+    long pendingPostPoolMissCount;
+    long pendingThrowPoolHitCount;
+    long pendingThrowPoolMissCount;
+
+    int executorActiveCount;
+    int executorPoolSize;
+    int executorQueueSize;
+
+    BusStatistics() {
+    }
+
+    /** Number of registered subscriber objects. */
+    public int getSubscriberCount() {
+        return subscriberCount;
+    }
+
+    /** Number of subscriptions, i.e. registered subscriber methods. */
+    public int getSubscriptionCount() {
+        return subscriptionCount;
+    }
+
+    /** Number of event types with subscriptions. */
+    public int getEventTypeCount() {
+        return eventTypeCount;
+    }
+
+    public int getStickyEventCount() {
+        return stickyEventCount;
+    }
+
+    /** Number of registered handler objects. */
+    public int getHandlerCount() {
+        return handlerCount;
+    }
+
+    /** Number of handlements, i.e. registered handler methods. */
+    public int getHandlementCount() {
+        return handlementCount;
+    }
+
+    /** Number of exceptional event types with handlements. */
+    public int getExceptionalEventTypeCount() {
+        return exceptionalEventTypeCount;
+    }
+
+    public int getStickyExceptionalEventCount() {
+        return stickyExceptionalEventCount;
+    }
+
+    /** Events queued for the main thread (modes MAIN and MAIN_ORDERED), or -1 if there's no main thread. */
+    public int getMainThreadQueueSize() {
+        return mainThreadQueueSize;
+    }
+
+    public int getBackgroundQueueSize() {
+        return backgroundQueueSize;
+    }
+
+    /** Events queued for ASYNC subscribers, which aren't run by the executor yet. */
+    public int getAsyncQueueSize() {
+        return asyncQueueSize;
+    }
+
+    /** Exceptional events queued for the main thread, or -1 if there's no main thread. */
+    public int getMainThreadThrowQueueSize() {
+        return mainThreadThrowQueueSize;
+    }
+
+    public int getBackgroundThrowQueueSize() {
+        return backgroundThrowQueueSize;
+    }
+
+    public int getAsyncThrowQueueSize() {
+        return asyncThrowQueueSize;
+    }
+
+    /** Number of queued posts which reused a pooled object; the pool is shared by all EventBus instances. */
+    public long getPendingPostPoolHitCount() {
+        return pendingPostPoolHitCount;
+    }
+
+    public long getPendingPostPoolMissCount() {
+        return pendingPostPoolMissCount;
+    }
+
+    /** Share of queued posts which reused a pooled object, or 0 if there were none. */
+    public double getPendingPostPoolHitRate() {
+        long total = pendingPostPoolHitCount + pendingPostPoolMissCount;
+        return total > 0 ? (double) pendingPostPoolHitCount / total : 0;
+    }
+
+    /** Number of queued throws which reused a pooled object; the pool is shared by all EventBus instances. */
+    public long getPendingThrowPoolHitCount() {
+        return pendingThrowPoolHitCount;
+    }
+
+    public long getPendingThrowPoolMissCount() {
+        return pendingThrowPoolMissCount;
+    }
+
+    /** Share of queued throws which reused a pooled object, or 0 if there were none. */
+    public double getPendingThrowPoolHitRate() {
+        long total = pendingThrowPoolHitCount + pendingThrowPoolMissCount;
+        return total > 0 ? (double) pendingThrowPoolHitCount / total : 0;
+    }
+
+    /** Threads of the executor running tasks, or -1 if the executor is not a ThreadPoolExecutor. */
+    public int getExecutorActiveCount() {
+        return executorActiveCount;
+    }
+
+    /** Threads of the executor, or -1 if the executor is not a ThreadPoolExecutor. */
+    public int getExecutorPoolSize() {
+        return executorPoolSize;
+    }
+
+    /** Tasks waiting for a thread of the executor, or -1 if the executor is not a ThreadPoolExecutor. */
+    public int getExecutorQueueSize() {
+        return executorQueueSize;
+    }
+
+    @Override
+    public String toString() {
+        return "BusStatistics[subscribers=" + subscriberCount + ", subscriptions=" + subscriptionCount +
+                ", eventTypes=" + eventTypeCount + ", stickyEvents=" + stickyEventCount + ", handlers=" +
+                handlerCount + ", handlements=" + handlementCount + ", exceptionalEventTypes=" +
+                exceptionalEventTypeCount + ", stickyExceptionalEvents=" + stickyExceptionalEventCount +
+                ", queues(main/background/async)=" + mainThreadQueueSize + "/" + backgroundQueueSize + "/" +
+                asyncQueueSize + ", throwQueues(main/background/async)=" + mainThreadThrowQueueSize + "/" +
+                backgroundThrowQueueSize + "/" + asyncThrowQueueSize + ", executor(active/threads/queued)=" +
+                executorActiveCount + "/" + executorPoolSize + "/" + executorQueueSize + "]";
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only snapshot of how an EventBus is wired, see {@link EventBus#getTopology()}: the subscriptions and
+ * handlements per (exceptional) event type in dispatch order, the classes mapped for the start mechanism, sticky
+ * events, late queues and queue sizes. Maps and lists are unmodifiable copies, so the snapshot doesn't change with the
+ * bus.
+ * <p/>
+ * Like {@link BusStatistics}, it's taken without blocking dispatching or registration for longer than copying a list;
+ * (exceptional) event types may thus miss concurrent changes and not be consistent with each other.
+ */
+public final class BusTopology {
+    private final boolean frozen;
+    private final Map<Class<?>, List<SubscriptionInfo>> subscriptionsByEventType;
+    private final Map<Class<?>, List<HandlementInfo>> handlementsByExceptionalEventType;
+    private final Map<Class<?>, List<SubscriptionInfo>> mappedSubscriberClassesByEventType;
+    private final Map<Class<?>, List<HandlementInfo>> mappedHandlerClassesByExceptionalEventType;
+    private final Map<Class<?>, Object> stickyEvents;
+    private final Map<Class<?>, Object> stickyExceptionalEvents;
+    private final Map<Class<?>, Integer> lateEventCounts;
+    private final Map<Class<?>, Integer> lateExceptionalEventCounts;
+    private final BusStatistics statistics;
+
+    BusTopology(boolean frozen, Map<Class<?>, List<SubscriptionInfo>> subscriptionsByEventType,
+                Map<Class<?>, List<HandlementInfo>> handlementsByExceptionalEventType,
+                Map<Class<?>, List<SubscriptionInfo>> mappedSubscriberClassesByEventType,
+                Map<Class<?>, List<HandlementInfo>> mappedHandlerClassesByExceptionalEventType,
+                Map<Class<?>, Object> stickyEvents, Map<Class<?>, Object> stickyExceptionalEvents,
+                Map<Class<?>, Integer> lateEventCounts, Map<Class<?>, Integer> lateExceptionalEventCounts,
+                BusStatistics statistics) {
+        this.frozen = frozen;
+        this.subscriptionsByEventType = subscriptionsByEventType;
+        this.handlementsByExceptionalEventType = handlementsByExceptionalEventType;
+        this.mappedSubscriberClassesByEventType = mappedSubscriberClassesByEventType;
+        this.mappedHandlerClassesByExceptionalEventType = mappedHandlerClassesByExceptionalEventType;
+        this.stickyEvents = stickyEvents;
+        this.stickyExceptionalEvents = stickyExceptionalEvents;
+        this.lateEventCounts = lateEventCounts;
+        this.lateExceptionalEventCounts = lateExceptionalEventCounts;
+        this.statistics = statistics;
+    }
+
+    /** See {@link EventBus#freeze()}. */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /** Subscriptions by event type, each list in dispatch order (descending priority, then registration order). */
+    public Map<Class<?>, List<SubscriptionInfo>> getSubscriptionsByEventType() {
+        return subscriptionsByEventType;
+    }
+
+    /** Like {@link #getSubscriptionsByEventType()}, for handlements. */
+    public Map<Class<?>, List<HandlementInfo>> getHandlementsByExceptionalEventType() {
+        return handlementsByExceptionalEventType;
+    }
+
+    /**
+     * Subscriber methods of the classes mapped for the start mechanism by event type, whether or not an instance is
+     * registered. Those with {@link ActionMode#LAZY_SUBSCRIBE} get events through the late queue.
+     */
+    public Map<Class<?>, List<SubscriptionInfo>> getMappedSubscriberClassesByEventType() {
+        return mappedSubscriberClassesByEventType;
+    }
+
+    /** Like {@link #getMappedSubscriberClassesByEventType()}, for handler classes. */
+    public Map<Class<?>, List<HandlementInfo>> getMappedHandlerClassesByExceptionalEventType() {
+        return mappedHandlerClassesByExceptionalEventType;
+    }
+
+    /** The current sticky events by type. */
+    public Map<Class<?>, Object> getStickyEvents() {
+        return stickyEvents;
+    }
+
+    /** The current sticky exceptional events by type. */
+    public Map<Class<?>, Object> getStickyExceptionalEvents() {
+        return stickyExceptionalEvents;
+    }
+
+    /**
+     * Number of events waiting in the late queue for a subscriber class to be registered. Late queues are kept per
+     * thread and delivered by registrations on that thread, so these are the ones of the thread that took the
+     * snapshot.
+     */
+    public Map<Class<?>, Integer> getLateEventCounts() {
+        return lateEventCounts;
+    }
+
+    /** Like {@link #getLateEventCounts()}, for exceptional events waiting for a handler class. */
+    public Map<Class<?>, Integer> getLateExceptionalEventCounts() {
+        return lateExceptionalEventCounts;
+    }
+
+    /** Counts and queue sizes of the posters, throwers and executor taken with the snapshot. */
+    public BusStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("BusTopology");
+        if (frozen) {
+            builder.append(" (frozen)");
+        }
+        appendEntries(builder, "Subscriptions", subscriptionsByEventType);
+        appendEntries(builder, "Handlements", handlementsByExceptionalEventType);
+        appendEntries(builder, "Mapped subscriber classes", mappedSubscriberClassesByEventType);
+        appendEntries(builder, "Mapped handler classes", mappedHandlerClassesByExceptionalEventType);
+        builder.append("\nSticky event types: ").append(stickyEvents.keySet());
+        builder.append("\nSticky exceptional event types: ").append(stickyExceptionalEvents.keySet());
+        builder.append("\nLate events: ").append(lateEventCounts);
+        builder.append("\nLate exceptional events: ").append(lateExceptionalEventCounts);
+        builder.append("\n").append(statistics);
+        return builder.toString();
+    }
+
+    private static void appendEntries(StringBuilder builder, String title, Map<Class<?>, ? extends List<?>> entries) {
+        builder.append('\n').append(title).append(':');
+        for (Map.Entry<Class<?>, ? extends List<?>> entry : entries.entrySet()) {
+            builder.append("\n  ").append(entry.getKey().getName());
+            for (Object info : entry.getValue()) {
+                builder.append("\n    ").append(info);
+            }
+        }
+    }
+}
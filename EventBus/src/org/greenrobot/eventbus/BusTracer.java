@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+/**
+ * Traces the activity of an EventBus as spans, e.g. to emit profiler events, see
+ * {@link EventBusBuilder#tracer(BusTracer)}. Each begin method returns a token, e.g. the started profiler event,
+ * which is passed to the matching end method; it may be null if nothing is traced.
+ * <p/>
+ * Methods are called on the posting, delivering and scanning threads, possibly concurrently, so implementations must
+ * be thread-safe and should return quickly. Subscriber methods a generated static bus calls directly are not traced.
+ */
+public interface BusTracer {
+
+    /** Traces nothing; an EventBus built with it skips tracing entirely. */
+    BusTracer NONE = new None();
+
+    /** Called when {@link EventBus#post(Object)} starts; the span includes delivery on the posting thread. */
+    Object beginPost(Class<?> eventClass);
+
+    void endPost(Object token);
+
+    /**
+     * Called when {@link EventBus#throwException(Object)} starts; the span includes delivery on the throwing thread.
+     */
+    Object beginThrow(Class<?> exceptionalEventClass);
+
+    void endThrow(Object token);
+
+    /** Called before a subscriber method is invoked. */
+    Object beginSubscriberInvocation(Class<?> eventClass, Class<?> subscriberClass, ThreadMode threadMode);
+
+    void endSubscriberInvocation(Object token);
+
+    /** Called before a handler method is invoked. */
+    Object beginHandlerInvocation(Class<?> exceptionalEventClass, Class<?> handlerClass,
+                                  ExceptionalThreadMode threadMode);
+
+    void endHandlerInvocation(Object token);
+
+    /**
+     * Called when an event is queued for a subscriber whose thread mode requires a poster.
+     *
+     * @param eventClass
+     * @param subscriberClass
+     * @param threadMode
+     * @return whether to time the queuing for {@link #onSubscriberDequeued(Class, Class, ThreadMode, long)}, which
+     * is skipped for this event unless the tracer or the metrics need it
+     */
+    boolean onSubscriberEnqueued(Class<?> eventClass, Class<?> subscriberClass, ThreadMode threadMode);
+
+    /**
+     * Called when a poster takes a queued event off its queue to deliver it, if the queuing was timed (see
+     * {@link #onSubscriberEnqueued(Class, Class, ThreadMode)}).
+     *
+     * @param eventClass
+     * @param subscriberClass
+     * @param threadMode
+     * @param queuedNanos     time the event waited in the queue
+     */
+    void onSubscriberDequeued(Class<?> eventClass, Class<?> subscriberClass, ThreadMode threadMode, long queuedNanos);
+
+    /**
+     * Called when an exceptional event is queued for a handler whose thread mode requires a thrower.
+     *
+     * @param exceptionalEventClass
+     * @param handlerClass
+     * @param threadMode
+     * @return whether to time the queuing for
+     * {@link #onHandlerDequeued(Class, Class, ExceptionalThreadMode, long)}, which is skipped for this exceptional
+     * event unless the tracer or the metrics need it
+     */
+    boolean onHandlerEnqueued(Class<?> exceptionalEventClass, Class<?> handlerClass, ExceptionalThreadMode threadMode);
+
+    /**
+     * Called when a thrower takes a queued exceptional event off its queue to deliver it, if the queuing was timed
+     * (see {@link #onHandlerEnqueued(Class, Class, ExceptionalThreadMode)}).
+     *
+     * @param exceptionalEventClass
+     * @param handlerClass
+     * @param threadMode
+     * @param queuedNanos           time the exceptional event waited in the queue
+     */
+    void onHandlerDequeued(Class<?> exceptionalEventClass, Class<?> handlerClass, ExceptionalThreadMode threadMode,
+                           long queuedNanos);
+
+    /** Called when the background scan for mapped classes (see {@link EventBus#registerMappedClasses()}) starts. */
+    Object beginMappedClassScan();
+
+    /**
+     * @param token
+     * @param classCount number of classes inspected
+     */
+    void endMappedClassScan(Object token, int classCount);
+
+    /**
+     * Called before the declared methods of a class are inspected by reflection for subscriber methods, which happens
+     * once per class of a subscriber's hierarchy without generated index info.
+     */
+    Object beginSubscriberReflection(Class<?> inspectedClass);
+
+    /**
+     * Called before the declared methods of a class are inspected by reflection for handler methods, which happens
+     * once per class of a handler's hierarchy without generated index info.
+     */
+    Object beginHandlerReflection(Class<?> inspectedClass);
+
+    /**
+     * @param token       returned by {@link #beginSubscriberReflection(Class)} or
+     *                    {@link #beginHandlerReflection(Class)}
+     * @param methodCount number of subscriber or handler methods found in the inspected class
+     */
+    void endReflection(Object token, int methodCount);
+
+    final class None implements BusTracer {
+        private None() {
+        }
+
+        @Override
+        public Object beginPost(Class<?> eventClass) {
+            return null;
+        }
+
+        @Override
+        public void endPost(Object token) {
+        }
+
+        @Override
+        public Object beginThrow(Class<?> exceptionalEventClass) {
+            return null;
+        }
+
+        @Override
+        public void endThrow(Object token) {
+        }
+
+        @Override
+        public Object beginSubscriberInvocation(Class<?> eventClass, Class<?> subscriberClass, ThreadMode threadMode) {
+            return null;
+        }
+
+        @Override
+        public void endSubscriberInvocation(Object token) {
+        }
+
+        @Override
+        public Object beginHandlerInvocation(Class<?> exceptionalEventClass, Class<?> handlerClass,
+                                             ExceptionalThreadMode threadMode) {
+            return null;
+        }
+
+        @Override
+        public void endHandlerInvocation(Object token) {
+        }
+
+        @Override
+        public boolean onSubscriberEnqueued(Class<?> eventClass, Class<?> subscriberClass, ThreadMode threadMode) {
+            return false;
+        }
+
+        @Override
+        public void onSubscriberDequeued(Class<?> eventClass, Class<?> subscriberClass, ThreadMode threadMode,
+                                         long queuedNanos) {
+        }
+
+        @Override
+        public boolean onHandlerEnqueued(Class<?> exceptionalEventClass, Class<?> handlerClass,
+                                         ExceptionalThreadMode threadMode) {
+            return false;
+        }
+
+        @Override
+        public void onHandlerDequeued(Class<?> exceptionalEventClass, Class<?> handlerClass,
+                                      ExceptionalThreadMode threadMode, long queuedNanos) {
+        }
+
+        @Override
+        public Object beginMappedClassScan() {
+            return null;
+        }
+
+        @Override
+        public void endMappedClassScan(Object token, int classCount) {
+        }
+
+        @Override
+        public Object beginSubscriberReflection(Class<?> inspectedClass) {
+            return null;
+        }
+
+        @Override
+        public Object beginHandlerReflection(Class<?> inspectedClass) {
+            return null;
+        }
+
+        @Override
+        public void endReflection(Object token, int methodCount) {
+        }
+    }
+}
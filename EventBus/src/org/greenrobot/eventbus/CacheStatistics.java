@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+/**
+ * Snapshot of the statistics of one of the per-class caches shared by all EventBus instances, see
+ * {@link EventBus#getClassCacheStatistics()}. Counts are only recorded if enabled with
+ * {@link EventBus#configureClassCaches(int, boolean)}.
+ */
+public final class CacheStatistics {
+    private final String name;
+    private final boolean recorded;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int size;
+
+    CacheStatistics(String name, boolean recorded, long hitCount, long missCount, long evictionCount, int size) {
+        this.name = name;
+        this.recorded = recorded;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Whether hits, misses and evictions were counted. */
+    public boolean isRecorded() {
+        return recorded;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /** Number of cached classes, or -1 if unknown. */
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return name + " [size=" + size + ", hits=" + hitCount + ", misses=" + missCount + ", evictions=" +
+                evictionCount + (recorded ? "" : ", not recorded") + "]";
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free cache of values computed per class, which doesn't keep classes (and thus their class loaders) from being
+ * unloaded.
+ * <p/>
+ * Unbounded caches use {@link ClassValue} where available, which ties each value to the lifetime of its class.
+ * Otherwise (e.g. on Android before API 34) or if a size bound is configured, classes are held weakly and values
+ * softly, as values usually reference their class; the bound is enforced by evicting arbitrary entries.
+ * <p/>
+ * Indexes in {@link org.greenrobot.eventbus.meta} create caches via {@link ClassCacheFactory}.
+ *
+ * @param <V> type of the cached values
+ */
+abstract class ClassCache<V> implements ClassCacheFactory.Cache<V> {
+
+    private static final boolean CLASS_VALUE_AVAILABLE = isClassValueAvailable();
+
+    /** Caches shared by all EventBus instances, which are reconfigured by {@link #configureShared(int, boolean)}. */
+    private static final List<Shared<?>> SHARED = new CopyOnWriteArrayList<>();
+    private static volatile int sharedMaxSize;
+    private static volatile boolean sharedRecordStatistics;
+
+    final String name;
+    private final boolean recordStatistics;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    ClassCache(String name, boolean recordStatistics) {
+        this.name = name;
+        this.recordStatistics = recordStatistics;
+    }
+
+    /** Creates a cache with the current settings of the shared caches. */
+    static <V> ClassCache<V> create(String name) {
+        return create(name, sharedMaxSize, sharedRecordStatistics);
+    }
+
+    static <V> ClassCache<V> create(String name, int maxSize, boolean recordStatistics) {
+        if (maxSize <= 0 && CLASS_VALUE_AVAILABLE) {
+            return new ClassValueCache<>(name, recordStatistics);
+        } else {
+            return new WeakClassCache<>(name, maxSize, recordStatistics);
+        }
+    }
+
+    /** Creates a cache shared by all EventBus instances; to be used for static fields only. */
+    static <V> ClassCache<V> createShared(String name) {
+        Shared<V> cache = new Shared<>(name);
+        SHARED.add(cache);
+        return cache;
+    }
+
+    /** Replaces all shared caches by empty ones with the given settings. */
+    static void configureShared(int maxSize, boolean recordStatistics) {
+        sharedMaxSize = maxSize;
+        sharedRecordStatistics = recordStatistics;
+        for (Shared<?> cache : SHARED) {
+            cache.reset();
+        }
+    }
+
+    static List<CacheStatistics> getSharedStatistics() {
+        List<CacheStatistics> statistics = new ArrayList<>(SHARED.size());
+        for (Shared<?> cache : SHARED) {
+            statistics.add(cache.getStatistics());
+        }
+        return statistics;
+    }
+
+    private static boolean isClassValueAvailable() {
+        try {
+            Class.forName("java.lang.ClassValue");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public abstract V get(Class<?> type);
+
+    @Override
+    public abstract void put(Class<?> type, V value);
+
+    abstract void clear();
+
+    /** Returns the number of entries, or -1 if unknown. */
+    abstract int size();
+
+    CacheStatistics getStatistics() {
+        return new CacheStatistics(name, recordStatistics, hitCount.get(), missCount.get(), evictionCount.get(),
+                size());
+    }
+
+    final V recordLookup(V value) {
+        if (recordStatistics) {
+            (value != null ? hitCount : missCount).incrementAndGet();
+        }
+        return value;
+    }
+
+    final void recordEviction() {
+        if (recordStatistics) {
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    /** Delegates to a cache which is replaced on reconfiguration. */
+    private static final class Shared<V> extends ClassCache<V> {
+        private volatile ClassCache<V> delegate;
+
+        Shared(String name) {
+            super(name, false);
+            reset();
+        }
+
+        void reset() {
+            delegate = create(name, sharedMaxSize, sharedRecordStatistics);
+        }
+
+        @Override
+        public V get(Class<?> type) {
+            return delegate.get(type);
+        }
+
+        @Override
+        public void put(Class<?> type, V value) {
+            delegate.put(type, value);
+        }
+
+        @Override
+        void clear() {
+            delegate.clear();
+        }
+
+        @Override
+        int size() {
+            return delegate.size();
+        }
+
+        @Override
+        CacheStatistics getStatistics() {
+            return delegate.getStatistics();
+        }
+    }
+
+    /** Weak class keys and soft values in a {@link ConcurrentHashMap}, optionally bounded. */
+    private static final class WeakClassCache<V> extends ClassCache<V> {
+        private final ConcurrentHashMap<ClassKey, SoftReference<V>> map = new ConcurrentHashMap<>();
+        private final ReferenceQueue<Class<?>> queue = new ReferenceQueue<>();
+        private final int maxSize;
+
+        WeakClassCache(String name, int maxSize, boolean recordStatistics) {
+            super(name, recordStatistics);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public V get(Class<?> type) {
+            SoftReference<V> reference = map.get(new ClassKey(type, null));
+            return recordLookup(reference != null ? reference.get() : null);
+        }
+
+        @Override
+        public void put(Class<?> type, V value) {
+            expungeStaleEntries();
+            map.put(new ClassKey(type, queue), new SoftReference<>(value));
+            if (maxSize > 0 && map.size() > maxSize) {
+                Iterator<ClassKey> keys = map.keySet().iterator();
+                while (map.size() > maxSize && keys.hasNext()) {
+                    ClassKey key = keys.next();
+                    if (key.get() != type) {
+                        keys.remove();
+                        recordEviction();
+                    }
+                }
+            }
+        }
+
+        @Override
+        void clear() {
+            map.clear();
+        }
+
+        @Override
+        int size() {
+            return map.size();
+        }
+
+        private void expungeStaleEntries() {
+            Reference<? extends Class<?>> reference;
+            while ((reference = queue.poll()) != null) {
+                map.remove(reference);
+            }
+        }
+    }
+
+    /** Weak reference to a class, equal to other keys referencing the same class. */
+    private static final class ClassKey extends WeakReference<Class<?>> {
+        private final int hash;
+
+        ClassKey(Class<?> type, ReferenceQueue<Class<?>> queue) {
+            super(type, queue);
+            hash = System.identityHashCode(type);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (other instanceof ClassKey) {
+                Class<?> type = get();
+                return type != null && type == ((ClassKey) other).get();
+            }
+            return false;
+        }
+    }
+}
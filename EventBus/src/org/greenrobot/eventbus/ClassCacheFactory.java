@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+/**
+ * Creates per-class caches for the indexes in {@link org.greenrobot.eventbus.meta}, which can't access the package
+ * private cache implementation. For internal use only.
+ */
+public final class ClassCacheFactory {
+
+    /** Values cached per class, without keeping the classes from being unloaded. */
+    public interface Cache<V> {
+        /** Returns the cached value, or null. */
+        V get(Class<?> type);
+
+        void put(Class<?> type, V value);
+    }
+
+    private ClassCacheFactory() {
+    }
+
+    /** Creates a cache with the current settings of the shared caches. */
+    public static <V> Cache<V> create(String name) {
+        return ClassCache.create(name);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link ClassCache} storing values with their class via {@link ClassValue}. Kept in its own class so it's only
+ * loaded where ClassValue exists.
+ */
+final class ClassValueCache<V> extends ClassCache<V> {
+    private volatile ClassValue<AtomicReference<V>> values = newClassValue();
+    private final AtomicInteger size = new AtomicInteger();
+
+    ClassValueCache(String name, boolean recordStatistics) {
+        super(name, recordStatistics);
+    }
+
+    private static <V> ClassValue<AtomicReference<V>> newClassValue() {
+        return new ClassValue<AtomicReference<V>>() {
+            @Override
+            protected AtomicReference<V> computeValue(Class<?> type) {
+                return new AtomicReference<>();
+            }
+        };
+    }
+
+    @Override
+    public V get(Class<?> type) {
+        return recordLookup(values.get(type).get());
+    }
+
+    @Override
+    public void put(Class<?> type, V value) {
+        if (values.get(type).getAndSet(value) == null) {
+            size.incrementAndGet();
+        }
+    }
+
+    @Override
+    void clear() {
+        // Entries of the old ClassValue are dropped with it
+        values = newClassValue();
+        size.set(0);
+    }
+
+    /** Entries of unloaded classes are not noticed, so this is an upper bound. */
+    @Override
+    int size() {
+        return size.get();
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Handler method of a handlement created by {@link EventBus#handle(Class, EventConsumer, ExceptionalThreadMode, int)},
+ * which calls the {@link EventConsumer} handler directly instead of a reflective {@link Method}.
+ */
+final class ConsumerHandlerMethod extends HandlerMethod {
+
+    ConsumerHandlerMethod(Class<?> consumerClass, Class<?> exceptionalEventType, ExceptionalThreadMode threadMode,
+                          int priority) {
+        // Described as the accept method of the consumer class, which is what is called
+        super(consumerClass, "accept", exceptionalEventType, threadMode, ExceptionalActionMode.EAGER_HANDLE, priority,
+                false);
+    }
+
+    /** There's no reflective method to resolve; see {@link #invoke}. */
+    @Override
+    Method getMethod() {
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    void invoke(Object handler, Object exceptionalEvent) throws InvocationTargetException {
+        try {
+            ((EventConsumer<Object>) handler).accept(exceptionalEvent);
+        } catch (Throwable e) {
+            // Same as a reflective invocation, so exceptions are handled the same way
+            throw new InvocationTargetException(e);
+        }
+    }
+}
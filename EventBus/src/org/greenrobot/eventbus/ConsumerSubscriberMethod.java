@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Subscriber method of a subscription created by {@link EventBus#subscribe(Class, EventConsumer, ThreadMode, int)},
+ * which calls the {@link EventConsumer} subscriber directly instead of a reflective {@link Method}.
+ */
+final class ConsumerSubscriberMethod extends SubscriberMethod {
+
+    ConsumerSubscriberMethod(Class<?> consumerClass, Class<?> eventType, ThreadMode threadMode, int priority) {
+        // Described as the accept method of the consumer class, which is what is called
+        super(consumerClass, "accept", eventType, threadMode, ActionMode.EAGER_SUBSCRIBE, priority, false);
+    }
+
+    /** There's no reflective method to resolve; see {@link #invoke}. */
+    @Override
+    Method getMethod() {
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    void invoke(Object subscriber, Object event) throws InvocationTargetException {
+        try {
+            ((EventConsumer<Object>) subscriber).accept(event);
+        } catch (Throwable e) {
+            // Same as a reflective invocation, so exceptions are handled the same way
+            throw new InvocationTargetException(e);
+        }
+    }
+}
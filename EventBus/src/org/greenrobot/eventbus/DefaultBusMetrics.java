@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * {@link BusMetrics} counting posts, deliveries, events without receivers and receiver exceptions, and recording
+ * invocation time histograms, per event type and thread mode. Recording takes a map lookup and a few increments of
+ * striped counters, which threads rarely contend on.
+ * <p/>
+ * The time queued events wait for their poster (or thrower) is recorded separately per thread mode, which tells a
+ * backlog in a poster apart from slow receivers.
+ * <p/>
+ * Event types are referenced strongly until {@link #reset()}, as the counts would be lost otherwise.
+ */
+public class DefaultBusMetrics implements BusMetrics {
+    private final ConcurrentHashMap<Class<?>, TypeMetrics> eventTypes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, TypeMetrics> exceptionalEventTypes = new ConcurrentHashMap<>();
+    private final LatencyHistogram[] subscriberQueueDelays = newHistograms(ThreadMode.values().length);
+    private final LatencyHistogram[] handlerQueueDelays = newHistograms(ExceptionalThreadMode.values().length);
+
+    private static LatencyHistogram[] newHistograms(int count) {
+        LatencyHistogram[] histograms = new LatencyHistogram[count];
+        for (int i = 0; i < count; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+
+    @Override
+    public void onPost(Class<?> eventClass) {
+        getTypeMetrics(eventTypes, eventClass).posts.increment();
+    }
+
+    @Override
+    public void onNoSubscriber(Class<?> eventClass) {
+        getTypeMetrics(eventTypes, eventClass).noReceivers.increment();
+    }
+
+    @Override
+    public void onSubscriberInvoked(Class<?> eventClass, ThreadMode threadMode, long nanos) {
+        getTypeMetrics(eventTypes, eventClass).getModeMetrics(threadMode.ordinal()).histogram.record(nanos);
+    }
+
+    @Override
+    public void onSubscriberException(Class<?> eventClass, ThreadMode threadMode) {
+        getTypeMetrics(eventTypes, eventClass).getModeMetrics(threadMode.ordinal()).exceptions.increment();
+    }
+
+    @Override
+    public void onSubscriberDequeued(Class<?> eventClass, ThreadMode threadMode, long nanos) {
+        subscriberQueueDelays[threadMode.ordinal()].record(nanos);
+    }
+
+    @Override
+    public void onThrow(Class<?> exceptionalEventClass) {
+        getTypeMetrics(exceptionalEventTypes, exceptionalEventClass).posts.increment();
+    }
+
+    @Override
+    public void onNoHandler(Class<?> exceptionalEventClass) {
+        getTypeMetrics(exceptionalEventTypes, exceptionalEventClass).noReceivers.increment();
+    }
+
+    @Override
+    public void onHandlerInvoked(Class<?> exceptionalEventClass, ExceptionalThreadMode threadMode, long nanos) {
+        getTypeMetrics(exceptionalEventTypes, exceptionalEventClass).getModeMetrics(threadMode.ordinal())
+                .histogram.record(nanos);
+    }
+
+    @Override
+    public void onHandlerException(Class<?> exceptionalEventClass, ExceptionalThreadMode threadMode) {
+        getTypeMetrics(exceptionalEventTypes, exceptionalEventClass).getModeMetrics(threadMode.ordinal())
+                .exceptions.increment();
+    }
+
+    @Override
+    public void onHandlerDequeued(Class<?> exceptionalEventClass, ExceptionalThreadMode threadMode, long nanos) {
+        handlerQueueDelays[threadMode.ordinal()].record(nanos);
+    }
+
+    /** Number of posts per event type. */
+    public Map<Class<?>, Long> getPostCounts() {
+        return getCounts(eventTypes, false);
+    }
+
+    /** Number of posted events without subscribers per event type. */
+    public Map<Class<?>, Long> getNoSubscriberCounts() {
+        return getCounts(eventTypes, true);
+    }
+
+    /** Subscriber invocations per event type and thread mode; thread modes without invocations are omitted. */
+    public Map<Class<?>, Map<ThreadMode, InvocationStatistics>> getSubscriberStatistics() {
+        Map<Class<?>, Map<ThreadMode, InvocationStatistics>> statistics = new HashMap<>();
+        for (Map.Entry<Class<?>, TypeMetrics> entry : eventTypes.entrySet()) {
+            Map<ThreadMode, InvocationStatistics> byMode = new EnumMap<>(ThreadMode.class);
+            for (ThreadMode threadMode : ThreadMode.values()) {
+                InvocationStatistics modeStatistics = entry.getValue().getStatistics(threadMode.ordinal());
+                if (modeStatistics != null) {
+                    byMode.put(threadMode, modeStatistics);
+                }
+            }
+            if (!byMode.isEmpty()) {
+                statistics.put(entry.getKey(), byMode);
+            }
+        }
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    /**
+     * Time events waited in the queue of their poster per thread mode; thread modes without queued events are
+     * omitted. {@link ThreadMode#MAIN} and {@link ThreadMode#MAIN_ORDERED} share the main thread poster.
+     */
+    public Map<ThreadMode, LatencyStatistics> getSubscriberQueueStatistics() {
+        Map<ThreadMode, LatencyStatistics> statistics = new EnumMap<>(ThreadMode.class);
+        for (ThreadMode threadMode : ThreadMode.values()) {
+            LatencyStatistics modeStatistics = new LatencyStatistics(subscriberQueueDelays[threadMode.ordinal()]);
+            if (modeStatistics.getCount() != 0) {
+                statistics.put(threadMode, modeStatistics);
+            }
+        }
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    /** Number of thrown exceptional events per type. */
+    public Map<Class<?>, Long> getThrowCounts() {
+        return getCounts(exceptionalEventTypes, false);
+    }
+
+    /** Number of thrown exceptional events without handlers per type. */
+    public Map<Class<?>, Long> getNoHandlerCounts() {
+        return getCounts(exceptionalEventTypes, true);
+    }
+
+    /** Handler invocations per exceptional event type and thread mode; thread modes without invocations are omitted. */
+    public Map<Class<?>, Map<ExceptionalThreadMode, InvocationStatistics>> getHandlerStatistics() {
+        Map<Class<?>, Map<ExceptionalThreadMode, InvocationStatistics>> statistics = new HashMap<>();
+        for (Map.Entry<Class<?>, TypeMetrics> entry : exceptionalEventTypes.entrySet()) {
+            Map<ExceptionalThreadMode, InvocationStatistics> byMode = new EnumMap<>(ExceptionalThreadMode.class);
+            for (ExceptionalThreadMode threadMode : ExceptionalThreadMode.values()) {
+                InvocationStatistics modeStatistics = entry.getValue().getStatistics(threadMode.ordinal());
+                if (modeStatistics != null) {
+                    byMode.put(threadMode, modeStatistics);
+                }
+            }
+            if (!byMode.isEmpty()) {
+                statistics.put(entry.getKey(), byMode);
+            }
+        }
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    /**
+     * Time exceptional events waited in the queue of their thrower per thread mode; thread modes without queued
+     * exceptional events are omitted.
+     */
+    public Map<ExceptionalThreadMode, LatencyStatistics> getHandlerQueueStatistics() {
+        Map<ExceptionalThreadMode, LatencyStatistics> statistics = new EnumMap<>(ExceptionalThreadMode.class);
+        for (ExceptionalThreadMode threadMode : ExceptionalThreadMode.values()) {
+            LatencyStatistics modeStatistics = new LatencyStatistics(handlerQueueDelays[threadMode.ordinal()]);
+            if (modeStatistics.getCount() != 0) {
+                statistics.put(threadMode, modeStatistics);
+            }
+        }
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    /** Drops all recorded metrics and the references to event types. */
+    public void reset() {
+        eventTypes.clear();
+        exceptionalEventTypes.clear();
+        resetHistograms(subscriberQueueDelays);
+        resetHistograms(handlerQueueDelays);
+    }
+
+    private static void resetHistograms(LatencyHistogram[] histograms) {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    private static TypeMetrics getTypeMetrics(ConcurrentHashMap<Class<?>, TypeMetrics> types, Class<?> type) {
+        TypeMetrics metrics = types.get(type);
+        if (metrics == null) {
+            TypeMetrics newMetrics = new TypeMetrics();
+            metrics = types.putIfAbsent(type, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+            }
+        }
+        return metrics;
+    }
+
+    private static Map<Class<?>, Long> getCounts(ConcurrentHashMap<Class<?>, TypeMetrics> types,
+                                                 boolean noReceivers) {
+        Map<Class<?>, Long> counts = new HashMap<>();
+        for (Map.Entry<Class<?>, TypeMetrics> entry : types.entrySet()) {
+            long count = (noReceivers ? entry.getValue().noReceivers : entry.getValue().posts).sum();
+            if (count != 0) {
+                counts.put(entry.getKey(), count);
+            }
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    private static final class TypeMetrics {
+        /** Covers the thread modes of subscribers and handlers. */
+        private static final int MODES = Math.max(ThreadMode.values().length, ExceptionalThreadMode.values().length);
+
+        final StripedCounter posts = new StripedCounter();
+        final StripedCounter noReceivers = new StripedCounter();
+        /** Created on first use, as most types are only received in one or two thread modes. */
+        private final AtomicReferenceArray<ModeMetrics> modes = new AtomicReferenceArray<>(MODES);
+
+        ModeMetrics getModeMetrics(int mode) {
+            ModeMetrics metrics = modes.get(mode);
+            if (metrics == null) {
+                modes.compareAndSet(mode, null, new ModeMetrics());
+                metrics = modes.get(mode);
+            }
+            return metrics;
+        }
+
+        // @Nullable
+        InvocationStatistics getStatistics(int mode) {
+            ModeMetrics metrics = modes.get(mode);
+            return metrics != null ? new InvocationStatistics(metrics.exceptions.sum(), metrics.histogram) : null;
+        }
+    }
+
+    private static final class ModeMetrics {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final StripedCounter exceptions = new StripedCounter();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.util.List;
+
+/**
+ * Describes which receivers an event would be delivered to if posted now from the calling thread, and how, see
+ * {@link EventBus#explain(Object)} and {@link EventBus#explainException(Object)}. Nothing is delivered to build it.
+ * <p/>
+ * Deliveries are in dispatch order: by event type (the event class first, then its super types if inheritance is
+ * enabled), then by descending priority. A receiver canceling the delivery would stop the remaining deliveries of its
+ * event type; this can't be predicted and is not reflected.
+ *
+ * @param <T> {@link SubscriptionInfo} or {@link HandlementInfo}
+ */
+public final class DeliveryPlan<T> {
+    private final Class<?> eventClass;
+    private final boolean mainThread;
+    private final List<Class<?>> eventTypes;
+    private final List<Delivery<T>> deliveries;
+    private final List<T> lateReceivers;
+
+    DeliveryPlan(Class<?> eventClass, boolean mainThread, List<Class<?>> eventTypes, List<Delivery<T>> deliveries,
+                 List<T> lateReceivers) {
+        this.eventClass = eventClass;
+        this.mainThread = mainThread;
+        this.eventTypes = eventTypes;
+        this.deliveries = deliveries;
+        this.lateReceivers = lateReceivers;
+    }
+
+    public Class<?> getEventClass() {
+        return eventClass;
+    }
+
+    /** Whether the plan was made for the main thread, which decides the route of some thread modes. */
+    public boolean isMainThread() {
+        return mainThread;
+    }
+
+    /** The types the event is dispatched to, in dispatch order. */
+    public List<Class<?>> getEventTypes() {
+        return eventTypes;
+    }
+
+    /** The deliveries to registered receivers, in dispatch order. */
+    public List<Delivery<T>> getDeliveries() {
+        return deliveries;
+    }
+
+    /**
+     * Mapped receiver classes without a registered instance that would get the event through the late queue once
+     * registered, see {@link EventBusBuilder#startMechanismEnabled(boolean)}.
+     */
+    public List<T> getLateReceivers() {
+        return lateReceivers;
+    }
+
+    /** Whether the event would be reported as having no receivers, e.g. by a {@link NoSubscriberEvent}. */
+    public boolean isUndelivered() {
+        return deliveries.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("DeliveryPlan for ").append(eventClass.getName())
+                .append(mainThread ? " from the main thread" : " from a background thread");
+        if (deliveries.isEmpty()) {
+            builder.append("\n  no receivers");
+        }
+        for (Delivery<T> delivery : deliveries) {
+            builder.append("\n  ").append(delivery);
+        }
+        for (T lateReceiver : lateReceivers) {
+            builder.append("\n  late: ").append(lateReceiver);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * A receiver and the route the event would take to it.
+     *
+     * @param <T> {@link SubscriptionInfo} or {@link HandlementInfo}
+     */
+    public static final class Delivery<T> {
+        private final T receiver;
+        private final DeliveryRoute route;
+
+        Delivery(T receiver, DeliveryRoute route) {
+            this.receiver = receiver;
+            this.route = route;
+        }
+
+        public T getReceiver() {
+            return receiver;
+        }
+
+        public DeliveryRoute getRoute() {
+            return route;
+        }
+
+        @Override
+        public String toString() {
+            return route + ": " + receiver;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+/**
+ * How an event reaches a subscriber (or an exceptional event a handler), as reported by
+ * {@link EventBus#explain(Object)} and {@link EventBus#explainException(Object)}. It depends on the thread mode and on
+ * whether the event is posted from the main thread.
+ */
+public enum DeliveryRoute {
+    /** Invoked directly in the posting (throwing) thread. */
+    POSTING_THREAD,
+
+    /** Queued to the main thread poster (thrower). */
+    MAIN_THREAD_QUEUE,
+
+    /** Queued to the background poster (thrower), which delivers the queue in a single executor thread. */
+    BACKGROUND_QUEUE,
+
+    /** Queued to the async poster (thrower), which delivers each event in its own executor task. */
+    ASYNC_QUEUE
+}
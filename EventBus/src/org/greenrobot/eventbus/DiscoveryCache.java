@@ -0,0 +1,340 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+/**
+ * Persists what was discovered by reflection (subscriber and handler methods, mapped classes) to a file, so the next
+ * process start can skip the reflection. The file is only used if it was written for the same key, which identifies
+ * the application code (see {@link #fingerprint(String)}).
+ * <p/>
+ * Restored methods are resolved lazily: classes are loaded (without initialization) when their subscriber or handler
+ * methods are first looked up, and the reflective {@link java.lang.reflect.Method} on first invocation.
+ */
+final class DiscoveryCache {
+    private static final int MAGIC = 0x45424443;
+    private static final int FORMAT_VERSION = 1;
+
+    private final File file;
+    private final String key;
+    private final ExecutorService executorService;
+    private final FormattingLogger logger;
+
+    /** Known methods by subscriber/handler class name, restored from the file or learned at runtime. */
+    private final Map<String, MethodDescriptor[]> subscriberMethods = new ConcurrentHashMap<>();
+    private final Map<String, MethodDescriptor[]> handlerMethods = new ConcurrentHashMap<>();
+    private final Set<String> mappedClassNames = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private volatile boolean mappedClassesComplete;
+
+    private volatile boolean loaded;
+    private volatile boolean scanning;
+    private final AtomicBoolean saveScheduled = new AtomicBoolean();
+    private final Runnable saveTask = new Runnable() {
+        @Override
+        public void run() {
+            saveScheduled.set(false);
+            save();
+        }
+    };
+
+    DiscoveryCache(File file, String key, ExecutorService executorService, FormattingLogger logger) {
+        this.file = file;
+        this.key = key;
+        this.executorService = executorService;
+        this.logger = logger;
+    }
+
+    /**
+     * Cheap fingerprint of the application code: name, size and modification time of each code path element
+     * (APK or class path entries). Changes whenever the application is updated.
+     */
+    static String fingerprint(String codePath) {
+        CRC32 crc = new CRC32();
+        if (codePath != null) {
+            for (String path : codePath.split(File.pathSeparator)) {
+                File codeFile = new File(path);
+                String entry = path + ':' + codeFile.length() + ':' + codeFile.lastModified() + ';';
+                crc.update(entry.getBytes());
+            }
+        }
+        return Long.toHexString(crc.getValue());
+    }
+
+    /** Saves are deferred while the mapped classes scan is running; see {@link #scanFinished(boolean)}. */
+    void scanStarted() {
+        scanning = true;
+    }
+
+    /** Returns the names of all mapped classes, or null if no complete scan was persisted. */
+    List<String> getMappedClassNames() {
+        ensureLoaded();
+        return mappedClassesComplete ? new ArrayList<>(mappedClassNames) : null;
+    }
+
+    void learnMappedClass(Class<?> mappedClass) {
+        ensureLoaded();
+        mappedClassNames.add(mappedClass.getName());
+    }
+
+    /**
+     * Ends the deferral of saves started by {@link #scanStarted()}, also if the scan failed, so methods learned later
+     * are still persisted.
+     *
+     * @param complete whether all mapped classes were scanned, so their names can replace the next scan
+     */
+    void scanFinished(boolean complete) {
+        if (complete) {
+            mappedClassesComplete = true;
+        }
+        scanning = false;
+        scheduleSave();
+    }
+
+    List<SubscriberMethod> restoreSubscriberMethods(Class<?> subscriberClass) {
+        ensureLoaded();
+        MethodDescriptor[] descriptors = subscriberMethods.get(subscriberClass.getName());
+        if (descriptors == null) {
+            return null;
+        }
+        ClassLoader classLoader = subscriberClass.getClassLoader();
+        try {
+            List<SubscriberMethod> methods = new ArrayList<>(descriptors.length);
+            for (MethodDescriptor descriptor : descriptors) {
+                methods.add(new SubscriberMethod(loadClass(descriptor.declaringClassName, classLoader),
+                        descriptor.methodName, loadClass(descriptor.eventTypeName, classLoader),
+                        ThreadMode.valueOf(descriptor.threadMode), ActionMode.valueOf(descriptor.actionMode),
+                        descriptor.priority, descriptor.sticky));
+            }
+            return methods;
+        } catch (ClassNotFoundException | IllegalArgumentException e) {
+            logger.log(Level.WARNING, "Ignoring stale discovery cache entry for {}", subscriberClass, e);
+            subscriberMethods.remove(subscriberClass.getName());
+            return null;
+        }
+    }
+
+    List<HandlerMethod> restoreHandlerMethods(Class<?> handlerClass) {
+        ensureLoaded();
+        MethodDescriptor[] descriptors = handlerMethods.get(handlerClass.getName());
+        if (descriptors == null) {
+            return null;
+        }
+        ClassLoader classLoader = handlerClass.getClassLoader();
+        try {
+            List<HandlerMethod> methods = new ArrayList<>(descriptors.length);
+            for (MethodDescriptor descriptor : descriptors) {
+                methods.add(new HandlerMethod(loadClass(descriptor.declaringClassName, classLoader),
+                        descriptor.methodName, loadClass(descriptor.eventTypeName, classLoader),
+                        ExceptionalThreadMode.valueOf(descriptor.threadMode),
+                        ExceptionalActionMode.valueOf(descriptor.actionMode), descriptor.priority, descriptor.sticky));
+            }
+            return methods;
+        } catch (ClassNotFoundException | IllegalArgumentException e) {
+            logger.log(Level.WARNING, "Ignoring stale discovery cache entry for {}", handlerClass, e);
+            handlerMethods.remove(handlerClass.getName());
+            return null;
+        }
+    }
+
+    void learnSubscriberMethods(Class<?> subscriberClass, List<SubscriberMethod> methods) {
+        ensureLoaded();
+        MethodDescriptor[] descriptors = new MethodDescriptor[methods.size()];
+        for (int i = 0; i < descriptors.length; i++) {
+            SubscriberMethod method = methods.get(i);
+            descriptors[i] = new MethodDescriptor(method.declaringClass.getName(), method.methodName,
+                    method.eventType.getName(), method.threadMode.name(), method.actionMode.name(),
+                    method.priority, method.sticky);
+        }
+        subscriberMethods.put(subscriberClass.getName(), descriptors);
+        scheduleSave();
+    }
+
+    void learnHandlerMethods(Class<?> handlerClass, List<HandlerMethod> methods) {
+        ensureLoaded();
+        MethodDescriptor[] descriptors = new MethodDescriptor[methods.size()];
+        for (int i = 0; i < descriptors.length; i++) {
+            HandlerMethod method = methods.get(i);
+            descriptors[i] = new MethodDescriptor(method.declaringClass.getName(), method.methodName,
+                    method.exceptionalEventType.getName(), method.threadMode.name(), method.actionMode.name(),
+                    method.priority, method.sticky);
+        }
+        handlerMethods.put(handlerClass.getName(), descriptors);
+        scheduleSave();
+    }
+
+    private static Class<?> loadClass(String className, ClassLoader classLoader) throws ClassNotFoundException {
+        return Class.forName(className, false, classLoader);
+    }
+
+    private void scheduleSave() {
+        if (!scanning && saveScheduled.compareAndSet(false, true)) {
+            executorService.execute(saveTask);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    load();
+                    loaded = true;
+                }
+            }
+        }
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !key.equals(in.readUTF())) {
+                logger.log(Level.FINE, "Discarding discovery cache written for other code: {}", file);
+                return;
+            }
+            boolean complete = in.readBoolean();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                mappedClassNames.add(in.readUTF());
+            }
+            readMethods(in, subscriberMethods);
+            readMethods(in, handlerMethods);
+            mappedClassesComplete = complete;
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not read discovery cache {}", file, e);
+            mappedClassNames.clear();
+            subscriberMethods.clear();
+            handlerMethods.clear();
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    private synchronized void save() {
+        File tempFile = new File(file.getPath() + ".tmp");
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(key);
+            out.writeBoolean(mappedClassesComplete);
+            List<String> classNames = new ArrayList<>(mappedClassNames);
+            out.writeInt(classNames.size());
+            for (String className : classNames) {
+                out.writeUTF(className);
+            }
+            writeMethods(out, subscriberMethods);
+            writeMethods(out, handlerMethods);
+            out.close();
+            out = null;
+            if (!tempFile.renameTo(file)) {
+                throw new IOException("Could not rename " + tempFile + " to " + file);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not write discovery cache {}", file, e);
+            tempFile.delete();
+        } finally {
+            closeQuietly(out);
+        }
+    }
+
+    private static void readMethods(DataInputStream in, Map<String, MethodDescriptor[]> methodsByClassName)
+            throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String className = in.readUTF();
+            MethodDescriptor[] descriptors = new MethodDescriptor[in.readInt()];
+            for (int j = 0; j < descriptors.length; j++) {
+                descriptors[j] = new MethodDescriptor(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(),
+                        in.readUTF(), in.readInt(), in.readBoolean());
+            }
+            methodsByClassName.put(className, descriptors);
+        }
+    }
+
+    private static void writeMethods(DataOutputStream out, Map<String, MethodDescriptor[]> methodsByClassName)
+            throws IOException {
+        List<Map.Entry<String, MethodDescriptor[]>> entries = new ArrayList<>(methodsByClassName.entrySet());
+        out.writeInt(entries.size());
+        for (Map.Entry<String, MethodDescriptor[]> entry : entries) {
+            out.writeUTF(entry.getKey());
+            MethodDescriptor[] descriptors = entry.getValue();
+            out.writeInt(descriptors.length);
+            for (MethodDescriptor descriptor : descriptors) {
+                out.writeUTF(descriptor.declaringClassName);
+                out.writeUTF(descriptor.methodName);
+                out.writeUTF(descriptor.eventTypeName);
+                out.writeUTF(descriptor.threadMode);
+                out.writeUTF(descriptor.actionMode);
+                out.writeInt(descriptor.priority);
+                out.writeBoolean(descriptor.sticky);
+            }
+        }
+    }
+
+    private static void closeQuietly(java.io.Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                //Silent
+            }
+        }
+    }
+
+    /** Persisted form of a subscriber or handler method, which doesn't require any class to be loaded. */
+    static final class MethodDescriptor {
+        final String declaringClassName;
+        final String methodName;
+        final String eventTypeName;
+        final String threadMode;
+        final String actionMode;
+        final int priority;
+        final boolean sticky;
+
+        MethodDescriptor(String declaringClassName, String methodName, String eventTypeName, String threadMode,
+                         String actionMode, int priority, boolean sticky) {
+            this.declaringClassName = declaringClassName;
+            this.methodName = methodName;
+            this.eventTypeName = eventTypeName;
+            this.threadMode = threadMode;
+            this.actionMode = actionMode;
+            this.priority = priority;
+            this.sticky = sticky;
+        }
+    }
+}
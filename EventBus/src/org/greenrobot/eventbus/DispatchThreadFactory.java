@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates threads which hold the dispatch state of an {@link EventBus} in a field, so posting from them skips the
+ * thread local lookup. Use it for the executor passed to {@link EventBusBuilder#executorService}, for example
+ * {@code Executors.newCachedThreadPool(new DispatchThreadFactory())}. A thread is bound to the first bus posting from
+ * it; other buses fall back to their thread local.
+ */
+public class DispatchThreadFactory implements ThreadFactory {
+    private static final AtomicInteger factoryNumber = new AtomicInteger(1);
+
+    private final String namePrefix;
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    public DispatchThreadFactory() {
+        namePrefix = "eventbus-" + factoryNumber.getAndIncrement() + "-thread-";
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        Thread thread = new DispatchThread(runnable, namePrefix + threadNumber.getAndIncrement());
+        if (thread.isDaemon()) {
+            thread.setDaemon(false);
+        }
+        if (thread.getPriority() != Thread.NORM_PRIORITY) {
+            thread.setPriority(Thread.NORM_PRIORITY);
+        }
+        return thread;
+    }
+
+    static final class DispatchThread extends Thread {
+        /** Bus owning {@link #dispatchState}; both only accessed by this thread. */
+        EventBus eventBus;
+        EventBus.DispatchState dispatchState;
+
+        DispatchThread(Runnable runnable, String name) {
+            super(runnable, name);
+        }
+    }
+}
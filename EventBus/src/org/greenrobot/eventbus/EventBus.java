@@ -15,29 +15,39 @@
  */
 package org.greenrobot.eventbus;
 
-import android.annotation.SuppressLint;
 import android.app.Activity;
 import android.app.Service;
 import android.content.Context;
 import android.content.Intent;
 
-import java.io.IOException;
+import org.greenrobot.eventbus.meta.EventTypeHierarchyIndex;
+
+import java.lang.ref.ReferenceQueue;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Enumeration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
-import dalvik.system.DexFile;
-
 /**
  * EventBus is a central publish/subscribe event system for Java and Android.
  * Events are posted ({@link #post(Object)}) to the bus, which delivers it to subscribers that have a matching handler
@@ -58,62 +68,85 @@ public class EventBus {
     static volatile EventBus defaultInstance;
 
     private static final EventBusBuilder DEFAULT_BUILDER = new EventBusBuilder();
-    private static final Map<Class<?>, List<Class<?>>> eventTypesCache = new HashMap<>();
-    private static final Map<Class<?>, List<Class<?>>> exceptionalEventTypesCache = new HashMap<>();
+    /** Maximum number of collected registrations removed by one purge call. */
+    private static final int PURGE_BATCH_SIZE = 64;
+    /** Number of registration locks and of type locks, see {@link #registrationLocks}. */
+    private static final int LOCK_STRIPES = 32;
+    /** Enqueue timestamp of queued events whose queuing is timed by neither metrics nor the tracer. */
+    static final long NOT_TIMED = Long.MIN_VALUE;
+
+    /** Descending priority; stable sorting keeps the registration order within a priority. */
+    private static final Comparator<Subscription> SUBSCRIPTION_PRIORITY_ORDER = new Comparator<Subscription>() {
+        @Override
+        public int compare(Subscription lhs, Subscription rhs) {
+            return Integer.compare(rhs.subscriberMethod.priority, lhs.subscriberMethod.priority);
+        }
+    };
+    private static final Comparator<Handlement> HANDLEMENT_PRIORITY_ORDER = new Comparator<Handlement>() {
+        @Override
+        public int compare(Handlement lhs, Handlement rhs) {
+            return Integer.compare(rhs.handlerMethod.priority, lhs.handlerMethod.priority);
+        }
+    };
+    private static final ClassCache<List<Class<?>>> eventTypesCache = ClassCache.createShared("eventTypes");
+    private static final ClassCache<List<Class<?>>> exceptionalEventTypesCache =
+            ClassCache.createShared("exceptionalEventTypes");
 
     private final Map<Class<?>, CopyOnWriteArrayList<SubscriberClass>> mappedSubscriberClassesByEventType;
-    private final Map<Class<?>, CopyOnWriteArrayList<Subscription>> subscriptionsByEventType;
+    private final EventTypeTable<Subscription> subscriptionsByEventType;
+    /**
+     * Posted event classes known to have no subscriptions for any of their types, with the
+     * {@link #subscriptionGeneration} read before looking for them. Entries of older generations are stale.
+     */
+    private final ClassCache<Integer> noSubscriberEventClasses = ClassCache.create("noSubscriberEventClasses");
+    /** Incremented whenever subscriptions were added, which invalidates all {@link #noSubscriberEventClasses}. */
+    private final AtomicInteger subscriptionGeneration = new AtomicInteger();
+    /**
+     * Keyed by the subscriber, or by its {@link RegistrationKey} with weak registration. Values are only accessed
+     * holding the registration lock of the key.
+     */
     private final Map<Object, List<Class<?>>> typesBySubscriber;
     private final Map<Class<?>, Object> stickyEvents;
+    /**
+     * Subscriptions added after {@link #freeze()}, dispatched after those of the frozen registry. Only consulted
+     * while {@link #dynamicSubscriptionCount} isn't 0, so frozen dispatch doesn't pay for them otherwise.
+     */
+    private final EventTypeTable<Subscription> dynamicSubscriptionsByEventType;
+    private final AtomicInteger dynamicSubscriptionCount = new AtomicInteger();
 
     private final Map<Class<?>, CopyOnWriteArrayList<HandlerClass>> mappedHandlerClassesByExceptionalEventType;
-    private final Map<Class<?>, CopyOnWriteArrayList<Handlement>> handlementsByExceptionalEventType;
+    private final EventTypeTable<Handlement> handlementsByExceptionalEventType;
+    /** Like {@link #noSubscriberEventClasses}, for exceptional events without handlements. */
+    private final ClassCache<Integer> noHandlerExceptionalEventClasses =
+            ClassCache.create("noHandlerExceptionalEventClasses");
+    /** Like {@link #subscriptionGeneration}, for handlements. */
+    private final AtomicInteger handlementGeneration = new AtomicInteger();
+    /** Like {@link #typesBySubscriber}, for handlers. */
     private final Map<Object, List<Class<?>>> typesByHandler;
     private final Map<Class<?>, Object> stickyExceptionalEvents;
+    /** Like {@link #dynamicSubscriptionsByEventType}, for handlements. */
+    private final EventTypeTable<Handlement> dynamicHandlementsByExceptionalEventType;
+    private final AtomicInteger dynamicHandlementCount = new AtomicInteger();
 
-    private Context context;
-
-    /**
-     * Current Immediate Thread State.
-     * For events sent immediately to objects already instantiated.
-     */
-    private final ThreadLocal<PostingThreadState> currentImmediatePostingThreadState = new ThreadLocal<PostingThreadState>() {
-        @Override
-        protected PostingThreadState initialValue() {
-            return new PostingThreadState(false);
-        }
-    };
-
-    /**
-     * Current Immediate Thread State.
-     * For exceptional events sent immediately to objects already instantiated.
-     */
-    private final ThreadLocal<ThrowingThreadState> currentImmediateThrowingThreadState = new ThreadLocal<ThrowingThreadState>() {
-        @Override
-        protected ThrowingThreadState initialValue() {
-            return new ThrowingThreadState(false);
-        }
-    };
+    private final Context context;
 
     /**
-     * Current Late Thread State.
-     * For events sent late for objects that are yet to be instantiated.
+     * Instead of the bus lock, (un)registering an object holds its registration lock (by registry key) and, while
+     * changing the entry list of one (exceptional) event type, that type's lock. Registrations of different objects
+     * for different types thus run in parallel. Type locks are acquired one at a time inside a registration lock;
+     * bulk operations and {@link #freeze()} hold all registration locks. Nothing is delivered while holding them.
      */
-    private final ThreadLocal<PostingThreadState> currentLatePostingThreadState = new ThreadLocal<PostingThreadState>() {
-        @Override
-        protected PostingThreadState initialValue() {
-            return new PostingThreadState(true);
-        }
-    };
+    private final StripedLocks registrationLocks = new StripedLocks(LOCK_STRIPES);
+    private final StripedLocks typeLocks = new StripedLocks(LOCK_STRIPES);
 
     /**
-     * Current Late Thread State.
-     * For exceptional events sent late for objects that are yet to be instantiated.
+     * Posting and throwing states of the current thread, immediate and late, in a single thread local. Threads created
+     * by a {@link DispatchThreadFactory} carry it in a field instead, see {@link #getDispatchState()}.
      */
-    private final ThreadLocal<ThrowingThreadState> currentLateThrowingThreadState = new ThreadLocal<ThrowingThreadState>() {
+    private final ThreadLocal<DispatchState> currentDispatchState = new ThreadLocal<DispatchState>() {
         @Override
-        protected ThrowingThreadState initialValue() {
-            return new ThrowingThreadState(true);
+        protected DispatchState initialValue() {
+            return new DispatchState();
         }
     };
 
@@ -131,26 +164,62 @@ public class EventBus {
     private final ExecutorService executorService;
 
     private final boolean throwSubscriberException;
-    private final boolean logSubscriberExceptions;
-    private final boolean logNoSubscriberMessages;
+    /** Adjustable at runtime, see {@link EventBusManagement}. */
+    private volatile boolean logSubscriberExceptions;
+    private volatile boolean logNoSubscriberMessages;
     private final boolean sendSubscriberExceptionEvent;
     private final boolean sendNoSubscriberEvent;
+    // @Nullable
+    private final NoReceiverCounter noSubscriberCounter;
     private final boolean eventInheritance;
 
     private final boolean throwHandlerException;
-    private final boolean logHandlerExceptions;
-    private final boolean logNoHandlerMessages;
+    private volatile boolean logHandlerExceptions;
+    private volatile boolean logNoHandlerMessages;
     private final boolean sendHandlerExceptionExceptionalEvent;
     private final boolean sendNoHandlerExceptionalEvent;
+    // @Nullable
+    private final NoReceiverCounter noHandlerCounter;
     private final boolean exceptionalEventInheritance;
 
-    private boolean mappedClassesRegistrationPerformed;
+    /** Null unless metrics are configured, which keeps the cost of disabled metrics to a field check. */
+    // @Nullable
+    private final BusMetrics metrics;
+    /** Null unless a tracer is configured, like {@link #metrics}. */
+    // @Nullable
+    private final BusTracer tracer;
+    // @Nullable
+    private final SlowSubscriberWatchdog slowSubscriberWatchdog;
+
     private boolean startMechanismEnabled;
 
+    /**
+     * Set once by {@link #freeze()} holding all registration locks; read without synchronization when posting, which
+     * is safe as all fields of the registry are final. Threads not seeing it yet use the (unchanged) dynamic registry.
+     */
+    // @Nullable
+    private FrozenRegistry frozenRegistry;
+    /** Classes whose objects can't be registered once frozen, see {@link EventBusBuilder#rejectRegistrationWhenFrozen}. */
+    // @Nullable
+    private final List<Class<?>> rejectWhenFrozenClasses;
+
+    private final boolean weakRegistration;
+    // @Nullable; receives the keys of weakly registered objects which were garbage collected
+    private final ReferenceQueue<Object> collectedRegistrations;
+    private final AtomicBoolean purgeScheduled = new AtomicBoolean();
+    private final AtomicLong purgedRegistrationCount = new AtomicLong();
+    // @Nullable
+    private final MappedClassScanner mappedClassScanner;
+    // @Nullable
+    private final DiscoveryCache discoveryCache;
+
+    // @Nullable
+    private final List<EventTypeHierarchyIndex> eventTypeHierarchyIndexes;
+
     private final int indexCount;
     private final int indexCountSubscriber;
     private final int indexCountHandler;
-    private final Logger logger;
+    private final FormattingLogger logger;
 
     /**
      * Convenience singleton for apps using a process-wide EventBus instance.
@@ -188,6 +257,30 @@ public class EventBus {
         return new EventBusBuilder();
     }
 
+    /**
+     * Configures the per-class caches shared by all EventBus instances (subscriber and handler methods, event type
+     * hierarchies), and clears them. By default they are unbounded and don't record statistics.
+     * <p/>
+     * Cached classes never keep their class loaders from being unloaded. Unbounded caches store values with their
+     * class via {@link ClassValue} where available; otherwise, or if bounded, classes are held weakly and values
+     * softly.
+     *
+     * @param maxSize          maximum number of classes per cache, or 0 for unbounded caches
+     * @param recordStatistics whether to count hits, misses and evictions (see {@link #getClassCacheStatistics()})
+     */
+    public static void configureClassCaches(int maxSize, boolean recordStatistics) {
+        ClassCache.configureShared(maxSize, recordStatistics);
+    }
+
+    /**
+     * Returns the statistics of the per-class caches shared by all EventBus instances.
+     *
+     * @return List
+     */
+    public static List<CacheStatistics> getClassCacheStatistics() {
+        return ClassCache.getSharedStatistics();
+    }
+
     /**
      * For unit test primarily.
      */
@@ -215,26 +308,41 @@ public class EventBus {
      * @param context
      */
     public EventBus(Context context) {
-        this(DEFAULT_BUILDER);
-        this.context = context;
+        this(DEFAULT_BUILDER, context);
+    }
+
+    /**
+     * Also used by the static buses generated with the processor option eventBusStaticBus.
+     *
+     * @param builder
+     */
+    protected EventBus(EventBusBuilder builder) {
+        this(builder, builder.context);
     }
 
     /**
+     * Scanning of mapped classes starts in background right away if a context is given and the start mechanism is
+     * enabled.
      *
      * @param builder
+     * @param context
      */
-    EventBus(EventBusBuilder builder) {
+    private EventBus(EventBusBuilder builder, Context context) {
+        this.context = context;
         logger = builder.getLogger();
+        tracer = builder.tracer != BusTracer.NONE ? builder.tracer : null;
 
         /** Post/Subcribers */
         mappedSubscriberClassesByEventType = new HashMap<>();
-        subscriptionsByEventType = new HashMap<>();
-        typesBySubscriber = new HashMap<>();
+        subscriptionsByEventType = new EventTypeTable<>("subscriptionTypeIds");
+        dynamicSubscriptionsByEventType = new EventTypeTable<>("dynamicSubscriptionTypeIds");
+        typesBySubscriber = new ConcurrentHashMap<>();
         stickyEvents = new ConcurrentHashMap<>();
         /** Throwers/Handlers */
         mappedHandlerClassesByExceptionalEventType = new HashMap<>();
-        handlementsByExceptionalEventType = new HashMap<>();
-        typesByHandler = new HashMap<>();
+        handlementsByExceptionalEventType = new EventTypeTable<>("handlementTypeIds");
+        dynamicHandlementsByExceptionalEventType = new EventTypeTable<>("dynamicHandlementTypeIds");
+        typesByHandler = new ConcurrentHashMap<>();
         stickyExceptionalEvents = new ConcurrentHashMap<>();
 
         mainThreadSupport = builder.getMainThreadSupport();
@@ -251,18 +359,23 @@ public class EventBus {
         indexCountSubscriber = builder.subscriberInfoIndexes != null ? builder.subscriberInfoIndexes.size() : 0;
         indexCountHandler = builder.handlerInfoIndexes != null ? builder.handlerInfoIndexes.size() : 0;
         indexCount = indexCountSubscriber + indexCountHandler;
+        eventTypeHierarchyIndexes = builder.ignoreGeneratedIndex ? null : builder.eventTypeHierarchyIndexes;
+
+        executorService = builder.executorService;
+        discoveryCache = builder.createDiscoveryCache(context);
 
         subscriberMethodFinder = new SubscriberMethodFinder(builder.subscriberInfoIndexes,
-                builder.strictMethodVerification, builder.ignoreGeneratedIndex);
+                builder.strictMethodVerification, builder.ignoreGeneratedIndex, discoveryCache, tracer);
         handlerMethodFinder = new HandlerMethodFinder(builder.handlerInfoIndexes,
-                builder.strictMethodVerification, builder.ignoreGeneratedIndex);
+                builder.strictMethodVerification, builder.ignoreGeneratedIndex, discoveryCache, tracer);
 
-        executorService = builder.executorService;
         /** Post/Subcribers */
         logSubscriberExceptions = builder.logSubscriberExceptions;
         logNoSubscriberMessages = builder.logNoSubscriberMessages;
         sendSubscriberExceptionEvent = builder.sendSubscriberExceptionEvent;
         sendNoSubscriberEvent = builder.sendNoSubscriberEvent;
+        noSubscriberCounter = builder.noSubscriberSummaryInterval > 0 ?
+                new NoReceiverCounter(builder.noSubscriberSummaryInterval) : null;
         throwSubscriberException = builder.throwSubscriberException;
         eventInheritance = builder.eventInheritance;
 
@@ -271,283 +384,759 @@ public class EventBus {
         logNoHandlerMessages = builder.logNoHandlerMessages;
         sendHandlerExceptionExceptionalEvent = builder.sendHandlerExceptionExceptionalEvent;
         sendNoHandlerExceptionalEvent = builder.sendNoHandlerExceptionalEvent;
+        noHandlerCounter = builder.noHandlerSummaryInterval > 0 ?
+                new NoReceiverCounter(builder.noHandlerSummaryInterval) : null;
         throwHandlerException = builder.throwHandlerException;
         exceptionalEventInheritance = builder.exceptionalEventInheritance;
 
-        mappedClassesRegistrationPerformed = builder.mappedClassesRegistrationPerformed;
+        metrics = builder.metrics != BusMetrics.NONE ? builder.metrics : null;
+
+        slowSubscriberWatchdog = builder.slowSubscriberThreshold > 0 ? new SlowSubscriberWatchdog(this, logger,
+                builder.slowSubscriberThreshold, builder.slowSubscriberReportInterval, builder.logSlowSubscribers,
+                builder.sendSlowSubscriberEvent) : null;
+
+        rejectWhenFrozenClasses = builder.rejectWhenFrozenClasses != null ?
+                new ArrayList<>(builder.rejectWhenFrozenClasses) : null;
+        weakRegistration = builder.weakRegistration;
+        collectedRegistrations = weakRegistration ? new ReferenceQueue<>() : null;
+
         startMechanismEnabled = builder.startMechanismEnabled;
+        if (context != null && startMechanismEnabled && !builder.mappedClassesRegistrationPerformed) {
+            mappedClassScanner = new MappedClassScanner(this, context, executorService, logger, discoveryCache,
+                    tracer);
+            mappedClassScanner.start();
+        } else {
+            mappedClassScanner = null;
+        }
     }
 
     /**
      * Registers the given object to receive both events and exceptional events. Registered objects must call {@link #unregister(Object)} once they
-     * are no longer interested in receiving events and exceptional events.
+     * are no longer interested in receiving events and exceptional events, or close the returned registration.
      *
      * @param object
+     * @return the registration of the object, which can be closed to unregister it
      */
-    public void register(Object object) {
-        registerSubscriber(object);
-        registerHandler(object);
+    public Registration register(Object object) {
+        Registration subscriberRegistration = registerSubscriber(object);
+        Registration handlerRegistration = registerHandler(object);
+        return new Registration(this, subscriberRegistration.subscriptions, handlerRegistration.handlements);
     }
 
     /**
      * Registers the given subscriber to receive events. Subscribers must call {@link #unregisterSubscriber(Object)} once they
-     * are no longer interested in receiving events.
+     * are no longer interested in receiving events, or close the returned registration.
+     * <p/>
+     * Registering a subscriber again adds another, independent registration: its methods receive events once per
+     * registration, and each can be closed on its own. {@link #unregisterSubscriber(Object)} removes all of them.
      * <p/>
      * Subscribers have event handling methods that must be annotated by {@link Subscribe}.
      * The {@link Subscribe} annotation also allows configuration like {@link
      * ThreadMode} and priority.
      *
      * @param subscriber
+     * @return the registration of the subscriber, which can be closed to unregister it
      */
-    public void registerSubscriber(Object subscriber) {
+    public Registration registerSubscriber(Object subscriber) {
         Class<?> subscriberClass = subscriber.getClass();
         List<SubscriberMethod> subscriberMethods = subscriberMethodFinder.findSubscriberMethods(subscriberClass);
-        synchronized (this) {
+        List<Subscription> newSubscriptions = new ArrayList<>(subscriberMethods.size());
+        purgeCollectedRegistrations();
+        Object registryKey = getRegistryKey(subscriber, false);
+        ReentrantLock lock = registrationLocks.get(registryKey);
+        lock.lock();
+        try {
+            checkRegistrableWhenFrozen(subscriber);
+            RegistrationKey subscriberKey = weakRegistration ? getSubscriberKey(subscriber, registryKey) : null;
             for (SubscriberMethod subscriberMethod : subscriberMethods) {
-                subscribe(subscriber, subscriberMethod);
+                newSubscriptions.add(subscribe(subscriber, subscriberKey, subscriberMethod));
             }
+        } finally {
+            lock.unlock();
+        }
+        for (Subscription newSubscription : newSubscriptions) {
+            postStickyEvents(newSubscription);
         }
 
         if(startMechanismEnabled && isSubscriberMappedForActionMode(
                 subscriberClass, ActionMode.LAZY_SUBSCRIBE)) {
             //Processes the thread that sends the messages that are in the late queue.
-            PostingThreadState latePostingState = currentLatePostingThreadState.get();
+            PostingThreadState latePostingState = getDispatchState().latePosting;
             processPostingThread(subscriber, latePostingState);
         }
+        return new Registration(this, newSubscriptions, null);
     }
 
     /**
      * Registers the given handler to receive exceptional events. Handlers must call {@link #unregisterHandler(Object)} once they
-     * are no longer interested in receiving exceptional events.
+     * are no longer interested in receiving exceptional events, or close the returned registration.
+     * <p/>
+     * Like subscribers (see {@link #registerSubscriber(Object)}), a handler can hold several independent
+     * registrations.
      * <p/>
      * Handlers have exceptional event handling methods that must be annotated by {@link Handle}.
      * The {@link Handle} annotation also allows configuration like {@link
      * ExceptionalThreadMode} and priority.
      *
      * @param handler
+     * @return the registration of the handler, which can be closed to unregister it
      */
-    public void registerHandler(Object handler) {
+    public Registration registerHandler(Object handler) {
         Class<?> handlerClass = handler.getClass();
         List<HandlerMethod> handlerMethods = handlerMethodFinder.findHandlerMethods(handlerClass);
-        synchronized (this) {
+        List<Handlement> newHandlements = new ArrayList<>(handlerMethods.size());
+        purgeCollectedRegistrations();
+        Object registryKey = getRegistryKey(handler, true);
+        ReentrantLock lock = registrationLocks.get(registryKey);
+        lock.lock();
+        try {
+            checkRegistrableWhenFrozen(handler);
+            RegistrationKey handlerKey = weakRegistration ? getHandlerKey(handler, registryKey) : null;
             for (HandlerMethod handlerMethod : handlerMethods) {
-                handle(handler, handlerMethod);
+                newHandlements.add(handle(handler, handlerKey, handlerMethod));
             }
+        } finally {
+            lock.unlock();
+        }
+        for (Handlement newHandlement : newHandlements) {
+            throwsStickyExceptionalEvents(newHandlement);
         }
 
         if(startMechanismEnabled && isHandlerMappedForExceptionalActionMode(
                 handlerClass, ExceptionalActionMode.LAZY_HANDLE)) {
             //Processes the thread that sends the messages that are in the late queue.
-            ThrowingThreadState lateThrowingState = currentLateThrowingThreadState.get();
+            ThrowingThreadState lateThrowingState = getDispatchState().lateThrowing;
             processThrowingThread(handler, lateThrowingState);
         }
+        return new Registration(this, null, newHandlements);
     }
 
     /**
-     * Registers a subscription, which consists of an association between a subscriber object and a subscriber method,
-     * which will be invoked to handle a given event.
-     *
-     * Important: Must be called in synchronized block.
+     * Subscribes the consumer to events of the given type (and its sub types if event inheritance is enabled), without
+     * annotations and reflection. The consumer is referenced strongly, also with weak registration, until the returned
+     * registration is closed; {@link #unregisterSubscriber(Object)} does not apply to it.
+     * <p/>
+     * This also works after {@link #freeze()}: like subscribers registered then, the consumer is delivered to after the
+     * frozen subscriptions.
      *
-     * @param subscriber
-     * @param subscriberMethod
+     * @param eventType
+     * @param consumer
+     * @param threadMode
+     * @param priority
+     * @return the registration of the consumer, which must be closed to unsubscribe it
      */
-    private void subscribe(Object subscriber, SubscriberMethod subscriberMethod) {
-        Class<?> eventType = subscriberMethod.eventType;
-        Subscription newSubscription = new Subscription(subscriber, subscriberMethod);
-        CopyOnWriteArrayList<Subscription> subscriptions = subscriptionsByEventType.get(eventType);
-        if (subscriptions == null) {
-            subscriptions = new CopyOnWriteArrayList<>();
-            subscriptionsByEventType.put(eventType, subscriptions);
-        } else {
-            if (subscriptions.contains(newSubscription)) {
-                throw new EventBusException("Subscriber " + subscriber.getClass() + " already registered to event "
-                        + eventType);
-            }
-        }
-
-        int size = subscriptions.size();
-        for (int i = 0; i <= size; i++) {
-            if (i == size || subscriberMethod.priority > subscriptions.get(i).subscriberMethod.priority) {
-                subscriptions.add(i, newSubscription);
-                break;
-            }
-        }
-
-        List<Class<?>> subscribedEvents = typesBySubscriber.get(subscriber);
-        if (subscribedEvents == null) {
-            subscribedEvents = new ArrayList<>();
-            typesBySubscriber.put(subscriber, subscribedEvents);
+    public <T> Registration subscribe(Class<T> eventType, EventConsumer<? super T> consumer, ThreadMode threadMode,
+                                      int priority) {
+        Subscription newSubscription = new Subscription(consumer,
+                new ConsumerSubscriberMethod(consumer.getClass(), eventType, threadMode, priority));
+        ReentrantLock lock = registrationLocks.get(consumer);
+        lock.lock();
+        try {
+            addSubscription(newSubscription);
+        } finally {
+            lock.unlock();
         }
-        subscribedEvents.add(eventType);
+        return new Registration(this, Collections.singletonList(newSubscription), null);
+    }
 
-        if (subscriberMethod.sticky) {
-            if (eventInheritance) {
-                // Existing sticky events of all subclasses of eventType have to be considered.
-                // Note: Iterating over all events may be inefficient with lots of sticky events,
-                // thus data structure should be changed to allow a more efficient lookup
-                // (e.g. an additional map storing sub classes of super classes: Class -> List<Class>).
-                Set<Map.Entry<Class<?>, Object>> entries = stickyEvents.entrySet();
-                for (Map.Entry<Class<?>, Object> entry : entries) {
-                    Class<?> candidateEventType = entry.getKey();
-                    if (eventType.isAssignableFrom(candidateEventType)) {
-                        Object stickyEvent = entry.getValue();
-                        checkPostStickyEventToSubscription(newSubscription, stickyEvent);
-                    }
-                }
-            } else {
-                Object stickyEvent = stickyEvents.get(eventType);
-                checkPostStickyEventToSubscription(newSubscription, stickyEvent);
-            }
+    /**
+     * Subscribes the consumer to exceptional events of the given type (and its sub types if exceptional event
+     * inheritance is enabled), without annotations and reflection. The consumer is referenced strongly, also with weak
+     * registration, until the returned registration is closed; {@link #unregisterHandler(Object)} does not apply to it.
+     * <p/>
+     * This also works after {@link #freeze()}: like handlers registered then, the consumer is delivered to after the
+     * frozen handlements.
+     *
+     * @param exceptionalEventType
+     * @param consumer
+     * @param threadMode
+     * @param priority
+     * @return the registration of the consumer, which must be closed to unsubscribe it
+     */
+    public <T> Registration handle(Class<T> exceptionalEventType, EventConsumer<? super T> consumer,
+                                   ExceptionalThreadMode threadMode, int priority) {
+        Handlement newHandlement = new Handlement(consumer,
+                new ConsumerHandlerMethod(consumer.getClass(), exceptionalEventType, threadMode, priority));
+        ReentrantLock lock = registrationLocks.get(consumer);
+        lock.lock();
+        try {
+            addHandlement(newHandlement);
+        } finally {
+            lock.unlock();
         }
+        return new Registration(this, null, Collections.singletonList(newHandlement));
     }
 
     /**
-     * Registers a handlement, which consists of an association between a handler object and a handler method,
-     * which will be invoked to handle a given exceptional event.
+     * Registers all given objects to receive both events and exceptional events, see {@link #register(Object)}.
      *
-     * Important: Must be called in synchronized block.
+     * @param objects
+     * @return the registration of all objects, which can be closed to unregister them
+     */
+    public Registration registerAll(Collection<?> objects) {
+        Registration subscriberRegistration = registerAllSubscribers(objects);
+        Registration handlerRegistration = registerAllHandlers(objects);
+        return new Registration(this, subscriberRegistration.subscriptions, handlerRegistration.handlements);
+    }
+
+    /**
+     * Registers all given subscribers like {@link #registerSubscriber(Object)}, but builds the new subscription list of
+     * each affected event type only once instead of copying it for every single subscriber method. Subscribers
+     * registered already, or passed more than once, get additional registrations.
      *
-     * @param handler
-     * @param handlerMethod
+     * @param subscribers
+     * @return the registration of all subscribers, which can be closed to unregister them
      */
-    private void handle(Object handler, HandlerMethod handlerMethod) {
-        Class<?> exceptionalEventType = handlerMethod.exceptionalEventType;
-        Handlement newHandlement = new Handlement(handler, handlerMethod);
-        CopyOnWriteArrayList<Handlement> handlements = handlementsByExceptionalEventType.get(exceptionalEventType);
-        if (handlements == null) {
-            handlements = new CopyOnWriteArrayList<>();
-            handlementsByExceptionalEventType.put(exceptionalEventType, handlements);
-        } else {
-            if (handlements.contains(newHandlement)) {
-                throw new EventBusException("Handler " + handler.getClass() + " already registered to exceptional event "
-                        + exceptionalEventType);
-            }
+    public Registration registerAllSubscribers(Collection<?> subscribers) {
+        List<List<SubscriberMethod>> subscriberMethodsList = new ArrayList<>(subscribers.size());
+        for (Object subscriber : subscribers) {
+            subscriberMethodsList.add(subscriberMethodFinder.findSubscriberMethods(subscriber.getClass()));
         }
+        List<Subscription> newSubscriptions = new ArrayList<>();
+        purgeCollectedRegistrations();
+        registrationLocks.lockAll();
+        try {
+            for (Object subscriber : subscribers) {
+                checkRegistrableWhenFrozen(subscriber);
+            }
+            boolean frozen = frozenRegistry != null;
+            EventTypeTable<Subscription> subscriptionTable = frozen ? dynamicSubscriptionsByEventType :
+                    subscriptionsByEventType;
+
+            Map<Class<?>, List<Subscription>> newSubscriptionsByEventType = new HashMap<>();
+            Iterator<List<SubscriberMethod>> subscriberMethodsIterator = subscriberMethodsList.iterator();
+            // Subscribers passed more than once aren't in the tables yet, so their keys can't be looked up there
+            Map<Object, RegistrationKey> subscriberKeys = weakRegistration ?
+                    new IdentityHashMap<Object, RegistrationKey>() : null;
+            for (Object subscriber : subscribers) {
+                Object registryKey = getRegistryKey(subscriber, false);
+                RegistrationKey subscriberKey = null;
+                if (weakRegistration) {
+                    subscriberKey = subscriberKeys.get(subscriber);
+                    if (subscriberKey == null) {
+                        subscriberKey = getSubscriberKey(subscriber, registryKey);
+                        subscriberKeys.put(subscriber, subscriberKey);
+                    }
+                }
+                List<Class<?>> subscribedEvents = typesBySubscriber.get(registryKey);
+                if (subscribedEvents == null) {
+                    subscribedEvents = new ArrayList<>();
+                    typesBySubscriber.put(subscriberKey != null ? subscriberKey : subscriber, subscribedEvents);
+                }
+                for (SubscriberMethod subscriberMethod : subscriberMethodsIterator.next()) {
+                    Subscription newSubscription = new Subscription(subscriber, subscriberKey, subscriberMethod);
+                    newSubscription.dynamic = frozen;
+                    List<Subscription> subscriptions = newSubscriptionsByEventType.get(subscriberMethod.eventType);
+                    if (subscriptions == null) {
+                        subscriptions = new ArrayList<>();
+                        newSubscriptionsByEventType.put(subscriberMethod.eventType, subscriptions);
+                    }
+                    subscriptions.add(newSubscription);
+                    newSubscriptions.add(newSubscription);
+                    subscribedEvents.add(subscriberMethod.eventType);
+                }
+            }
 
-        int size = handlements.size();
-        for (int i = 0; i <= size; i++) {
-            if (i == size || handlerMethod.priority > handlements.get(i).handlerMethod.priority) {
-                handlements.add(i, newHandlement);
-                break;
+            for (Map.Entry<Class<?>, List<Subscription>> entry : newSubscriptionsByEventType.entrySet()) {
+                List<Subscription> subscriptions = entry.getValue();
+                Collections.sort(subscriptions, SUBSCRIPTION_PRIORITY_ORDER);
+                ReentrantLock typeLock = typeLocks.get(entry.getKey());
+                typeLock.lock();
+                try {
+                    subscriptionTable.put(entry.getKey(), new CopyOnWriteArrayList<>(
+                            mergeSubscriptions(subscriptionTable.get(entry.getKey()), subscriptions)));
+                } finally {
+                    typeLock.unlock();
+                }
             }
+            if (frozen) {
+                dynamicSubscriptionCount.addAndGet(newSubscriptions.size());
+            }
+            invalidateNoSubscriberEventClasses();
+        } finally {
+            registrationLocks.unlockAll();
         }
-
-        List<Class<?>> handledExceptionalEvents = typesByHandler.get(handler);
-        if (handledExceptionalEvents == null) {
-            handledExceptionalEvents = new ArrayList<>();
-            typesByHandler.put(handler, handledExceptionalEvents);
+        for (Subscription newSubscription : newSubscriptions) {
+            postStickyEvents(newSubscription);
         }
-        handledExceptionalEvents.add(exceptionalEventType);
 
-        if (handlerMethod.sticky) {
-            if (exceptionalEventInheritance) {
-                // Existing sticky exceptional events of all subclasses of exceptionalEventType have to be considered.
-                // Note: Iterating over all exceptional events may be inefficient with lots of sticky exceptional events,
-                // thus data structure should be changed to allow a more efficient lookup
-                // (e.g. an additional map storing sub classes of super classes: Class -> List<Class>).
-                Set<Map.Entry<Class<?>, Object>> entries = stickyExceptionalEvents.entrySet();
-                for (Map.Entry<Class<?>, Object> entry : entries) {
-                    Class<?> candidateExceptionalEventType = entry.getKey();
-                    if (exceptionalEventType.isAssignableFrom(candidateExceptionalEventType)) {
-                        Object stickyExceptionalEvent = entry.getValue();
-                        checkThrowsExceptionalStickyEventToHandlement(newHandlement, stickyExceptionalEvent);
-                    }
+        if (startMechanismEnabled) {
+            for (Object subscriber : subscribers) {
+                if (isSubscriberMappedForActionMode(subscriber.getClass(), ActionMode.LAZY_SUBSCRIBE)) {
+                    //Processes the thread that sends the messages that are in the late queue.
+                    PostingThreadState latePostingState = getDispatchState().latePosting;
+                    processPostingThread(subscriber, latePostingState);
                 }
-            } else {
-                Object stickyExceptionalEvent = stickyExceptionalEvents.get(exceptionalEventType);
-                checkThrowsExceptionalStickyEventToHandlement(newHandlement, stickyExceptionalEvent);
             }
         }
+        return new Registration(this, newSubscriptions, null);
     }
 
     /**
-     * Registers a class subscription, which consists of an association between a class,
-     * which has subscriber methods mapped, and one of these subscriber methods.
-     *
-     * Important: Must be called in synchronized block.
+     * Registers all given handlers like {@link #registerHandler(Object)}, but builds the new handlement list of each
+     * affected exceptional event type only once instead of copying it for every single handler method. Handlers
+     * registered already, or passed more than once, get additional registrations.
      *
-     * @param subscriberClassType
-     * @param subscriberMethod
+     * @param handlers
+     * @return the registration of all handlers, which can be closed to unregister them
      */
-    private void subscribeClass(Class<?> subscriberClassType, SubscriberMethod subscriberMethod) {
-        if(!ActionMode.isTypeEnableFor(subscriberClassType, subscriberMethod.actionMode)) {
-            throw new EventBusException("Type " + subscriberClassType
-                    + " is not an eligible type to use the actionMode "
-                    + subscriberMethod.actionMode + " in one of its subscriber methods.");
+    public Registration registerAllHandlers(Collection<?> handlers) {
+        List<List<HandlerMethod>> handlerMethodsList = new ArrayList<>(handlers.size());
+        for (Object handler : handlers) {
+            handlerMethodsList.add(handlerMethodFinder.findHandlerMethods(handler.getClass()));
         }
+        List<Handlement> newHandlements = new ArrayList<>();
+        purgeCollectedRegistrations();
+        registrationLocks.lockAll();
+        try {
+            for (Object handler : handlers) {
+                checkRegistrableWhenFrozen(handler);
+            }
+            boolean frozen = frozenRegistry != null;
+            EventTypeTable<Handlement> handlementTable = frozen ? dynamicHandlementsByExceptionalEventType :
+                    handlementsByExceptionalEventType;
+
+            Map<Class<?>, List<Handlement>> newHandlementsByExceptionalEventType = new HashMap<>();
+            Iterator<List<HandlerMethod>> handlerMethodsIterator = handlerMethodsList.iterator();
+            // Like in registerAllSubscribers, handlers passed more than once aren't in the tables yet
+            Map<Object, RegistrationKey> handlerKeys = weakRegistration ?
+                    new IdentityHashMap<Object, RegistrationKey>() : null;
+            for (Object handler : handlers) {
+                Object registryKey = getRegistryKey(handler, true);
+                RegistrationKey handlerKey = null;
+                if (weakRegistration) {
+                    handlerKey = handlerKeys.get(handler);
+                    if (handlerKey == null) {
+                        handlerKey = getHandlerKey(handler, registryKey);
+                        handlerKeys.put(handler, handlerKey);
+                    }
+                }
+                List<Class<?>> handledExceptionalEvents = typesByHandler.get(registryKey);
+                if (handledExceptionalEvents == null) {
+                    handledExceptionalEvents = new ArrayList<>();
+                    typesByHandler.put(handlerKey != null ? handlerKey : handler, handledExceptionalEvents);
+                }
+                for (HandlerMethod handlerMethod : handlerMethodsIterator.next()) {
+                    Handlement newHandlement = new Handlement(handler, handlerKey, handlerMethod);
+                    newHandlement.dynamic = frozen;
+                    List<Handlement> handlements =
+                            newHandlementsByExceptionalEventType.get(handlerMethod.exceptionalEventType);
+                    if (handlements == null) {
+                        handlements = new ArrayList<>();
+                        newHandlementsByExceptionalEventType.put(handlerMethod.exceptionalEventType, handlements);
+                    }
+                    handlements.add(newHandlement);
+                    newHandlements.add(newHandlement);
+                    handledExceptionalEvents.add(handlerMethod.exceptionalEventType);
+                }
+            }
 
-        Class<?> eventType = subscriberMethod.eventType;
-        SubscriberClass newSubscriberClass = new SubscriberClass(subscriberClassType, subscriberMethod);
-        CopyOnWriteArrayList<SubscriberClass> subscriberClasses = mappedSubscriberClassesByEventType.get(eventType);
-        if (subscriberClasses == null) {
-            subscriberClasses = new CopyOnWriteArrayList<>();
-            mappedSubscriberClassesByEventType.put(eventType, subscriberClasses);
-        } else {
-            if (subscriberClasses.contains(newSubscriberClass)) {
-                throw new EventBusException("Subscriber " + subscriberClassType + " already registered as 'Subscriber Class' to event "
-                        + eventType);
+            for (Map.Entry<Class<?>, List<Handlement>> entry : newHandlementsByExceptionalEventType.entrySet()) {
+                List<Handlement> handlements = entry.getValue();
+                Collections.sort(handlements, HANDLEMENT_PRIORITY_ORDER);
+                ReentrantLock typeLock = typeLocks.get(entry.getKey());
+                typeLock.lock();
+                try {
+                    handlementTable.put(entry.getKey(), new CopyOnWriteArrayList<>(
+                            mergeHandlements(handlementTable.get(entry.getKey()), handlements)));
+                } finally {
+                    typeLock.unlock();
+                }
             }
+            if (frozen) {
+                dynamicHandlementCount.addAndGet(newHandlements.size());
+            }
+            invalidateNoHandlerExceptionalEventClasses();
+        } finally {
+            registrationLocks.unlockAll();
+        }
+        for (Handlement newHandlement : newHandlements) {
+            throwsStickyExceptionalEvents(newHandlement);
         }
 
-        int size = subscriberClasses.size();
-        for (int i = 0; i <= size; i++) {
-            if (i == size || subscriberMethod.priority > subscriberClasses.get(i).subscriberMethod.priority) {
-                subscriberClasses.add(i, newSubscriberClass);
-                break;
+        if (startMechanismEnabled) {
+            for (Object handler : handlers) {
+                if (isHandlerMappedForExceptionalActionMode(handler.getClass(), ExceptionalActionMode.LAZY_HANDLE)) {
+                    //Processes the thread that sends the messages that are in the late queue.
+                    ThrowingThreadState lateThrowingState = getDispatchState().lateThrowing;
+                    processThrowingThread(handler, lateThrowingState);
+                }
             }
         }
+        return new Registration(this, null, newHandlements);
     }
 
     /**
-     * Registers a class handlement, which consists of an association between a class,
-     * which has handler methods mapped, and one of these handler methods.
-     *
-     * Important: Must be called in synchronized block.
+     * Merges new subscriptions, sorted by priority, into existing ones. Like {@link #subscribe}, new subscriptions
+     * are placed after existing ones of the same priority.
      *
-     * @param handlerClassType
-     * @param handlerMethod
+     * @param subscriptions existing subscriptions, or null
+     * @param newSubscriptions
+     * @return
      */
-    private void handleClass(Class<?> handlerClassType, HandlerMethod handlerMethod) {
-        if(!ExceptionalActionMode.isTypeEnableFor(handlerClassType, handlerMethod.actionMode)) {
-            throw new EventBusException("Type " + handlerClassType
-                    + " is not an eligible type to use the actionMode "
-                    + handlerMethod.actionMode + " in one of its handler methods.");
+    private static List<Subscription> mergeSubscriptions(List<Subscription> subscriptions,
+                                                         List<Subscription> newSubscriptions) {
+        if (subscriptions == null || subscriptions.isEmpty()) {
+            return newSubscriptions;
         }
-
-        Class<?> exceptionalEventType = handlerMethod.exceptionalEventType;
-        HandlerClass newHandlerClass = new HandlerClass(handlerClassType, handlerMethod);
-        CopyOnWriteArrayList<HandlerClass> handlerClasses = mappedHandlerClassesByExceptionalEventType.get(exceptionalEventType);
-        if (handlerClasses == null) {
-            handlerClasses = new CopyOnWriteArrayList<>();
-            mappedHandlerClassesByExceptionalEventType.put(exceptionalEventType, handlerClasses);
-        } else {
-            if (handlerClasses.contains(newHandlerClass)) {
-                throw new EventBusException("Handler " + handlerClassType + " already registered as 'Hendler Class' to exceptional event "
-                        + exceptionalEventType);
-            }
-        }
-
-        int size = handlerClasses.size();
-        for (int i = 0; i <= size; i++) {
-            if (i == size || handlerMethod.priority > handlerClasses.get(i).handlerMethod.priority) {
-                handlerClasses.add(i, newHandlerClass);
-                break;
+        List<Subscription> merged = new ArrayList<>(subscriptions.size() + newSubscriptions.size());
+        int i = 0;
+        int j = 0;
+        while (i < subscriptions.size() && j < newSubscriptions.size()) {
+            Subscription newSubscription = newSubscriptions.get(j);
+            if (newSubscription.subscriberMethod.priority > subscriptions.get(i).subscriberMethod.priority) {
+                merged.add(newSubscription);
+                j++;
+            } else {
+                merged.add(subscriptions.get(i++));
             }
         }
+        merged.addAll(subscriptions.subList(i, subscriptions.size()));
+        merged.addAll(newSubscriptions.subList(j, newSubscriptions.size()));
+        return merged;
     }
 
     /**
-     * Checks if there is a stick event to be posted.
+     * Merges new handlements, sorted by priority, into existing ones. Like {@link #handle}, new handlements are
+     * placed after existing ones of the same priority.
      *
-     * @param newSubscription
-     * @param stickyEvent
+     * @param handlements existing handlements, or null
+     * @param newHandlements
+     * @return
      */
-    private void checkPostStickyEventToSubscription(Subscription newSubscription, Object stickyEvent) {
-        if (stickyEvent != null) {
-            // If the subscriber is trying to abort the event, it will fail (event is not tracked in posting state)
-            // --> Strange corner case, which we don't take care of here.
-            postToSubscription(newSubscription, stickyEvent, isMainThread());
+    private static List<Handlement> mergeHandlements(List<Handlement> handlements, List<Handlement> newHandlements) {
+        if (handlements == null || handlements.isEmpty()) {
+            return newHandlements;
+        }
+        List<Handlement> merged = new ArrayList<>(handlements.size() + newHandlements.size());
+        int i = 0;
+        int j = 0;
+        while (i < handlements.size() && j < newHandlements.size()) {
+            Handlement newHandlement = newHandlements.get(j);
+            if (newHandlement.handlerMethod.priority > handlements.get(i).handlerMethod.priority) {
+                merged.add(newHandlement);
+                j++;
+            } else {
+                merged.add(handlements.get(i++));
+            }
+        }
+        merged.addAll(handlements.subList(i, handlements.size()));
+        merged.addAll(newHandlements.subList(j, newHandlements.size()));
+        return merged;
+    }
+
+    /**
+     * Registers a subscription, which consists of an association between a subscriber object and a subscriber method,
+     * which will be invoked to handle a given event. Sticky events are not posted to it yet.
+     *
+     * Important: Must be called holding the registration lock of the subscriber.
+     *
+     * @param subscriber
+     * @param subscriberKey weak reference to the subscriber if registered weakly, otherwise null
+     * @param subscriberMethod
+     * @return the new subscription
+     */
+    private Subscription subscribe(Object subscriber, RegistrationKey subscriberKey, SubscriberMethod subscriberMethod) {
+        Class<?> eventType = subscriberMethod.eventType;
+        Subscription newSubscription = new Subscription(subscriber, subscriberKey, subscriberMethod);
+        addSubscription(newSubscription);
+
+        Object registryKey = subscriberKey != null ? subscriberKey : subscriber;
+        List<Class<?>> subscribedEvents = typesBySubscriber.get(registryKey);
+        if (subscribedEvents == null) {
+            subscribedEvents = new ArrayList<>();
+            typesBySubscriber.put(registryKey, subscribedEvents);
+        }
+        subscribedEvents.add(eventType);
+        return newSubscription;
+    }
+
+    /**
+     * Registers a handlement, which consists of an association between a handler object and a handler method,
+     * which will be invoked to handle a given exceptional event. Sticky exceptional events are not thrown to it yet.
+     *
+     * Important: Must be called holding the registration lock of the handler.
+     *
+     * @param handler
+     * @param handlerKey weak reference to the handler if registered weakly, otherwise null
+     * @param handlerMethod
+     * @return the new handlement
+     */
+    private Handlement handle(Object handler, RegistrationKey handlerKey, HandlerMethod handlerMethod) {
+        Class<?> exceptionalEventType = handlerMethod.exceptionalEventType;
+        Handlement newHandlement = new Handlement(handler, handlerKey, handlerMethod);
+        addHandlement(newHandlement);
+
+        Object registryKey = handlerKey != null ? handlerKey : handler;
+        List<Class<?>> handledExceptionalEvents = typesByHandler.get(registryKey);
+        if (handledExceptionalEvents == null) {
+            handledExceptionalEvents = new ArrayList<>();
+            typesByHandler.put(registryKey, handledExceptionalEvents);
+        }
+        handledExceptionalEvents.add(exceptionalEventType);
+        return newHandlement;
+    }
+
+    /**
+     * Adds the subscription to the registry, or once frozen to {@link #dynamicSubscriptionsByEventType}.
+     *
+     * Important: Must be called holding the registration lock of the subscriber.
+     *
+     * @param newSubscription
+     */
+    private void addSubscription(Subscription newSubscription) {
+        if (frozenRegistry != null) {
+            newSubscription.dynamic = true;
+            addSubscription(dynamicSubscriptionsByEventType, newSubscription);
+            dynamicSubscriptionCount.incrementAndGet();
+        } else {
+            addSubscription(subscriptionsByEventType, newSubscription);
+        }
+    }
+
+    /**
+     * Adds the handlement to the registry, or once frozen to {@link #dynamicHandlementsByExceptionalEventType}.
+     *
+     * Important: Must be called holding the registration lock of the handler.
+     *
+     * @param newHandlement
+     */
+    private void addHandlement(Handlement newHandlement) {
+        if (frozenRegistry != null) {
+            newHandlement.dynamic = true;
+            addHandlement(dynamicHandlementsByExceptionalEventType, newHandlement);
+            dynamicHandlementCount.incrementAndGet();
+        } else {
+            addHandlement(handlementsByExceptionalEventType, newHandlement);
+        }
+    }
+
+    /**
+     * Inserts the subscription into the list of its event type, after the existing ones with the same or a higher
+     * priority.
+     *
+     * Important: Must be called holding the registration lock of the subscriber.
+     *
+     * @param table {@link #subscriptionsByEventType} or {@link #dynamicSubscriptionsByEventType}
+     * @param newSubscription
+     */
+    private void addSubscription(EventTypeTable<Subscription> table, Subscription newSubscription) {
+        Class<?> eventType = newSubscription.subscriberMethod.eventType;
+        ReentrantLock typeLock = typeLocks.get(eventType);
+        typeLock.lock();
+        try {
+            CopyOnWriteArrayList<Subscription> subscriptions = table.get(eventType);
+            if (subscriptions == null) {
+                subscriptions = new CopyOnWriteArrayList<>();
+                table.put(eventType, subscriptions);
+            }
+
+            int priority = newSubscription.subscriberMethod.priority;
+            int size = subscriptions.size();
+            for (int i = 0; i <= size; i++) {
+                if (i == size || priority > subscriptions.get(i).subscriberMethod.priority) {
+                    subscriptions.add(i, newSubscription);
+                    break;
+                }
+            }
+        } finally {
+            typeLock.unlock();
+        }
+        invalidateNoSubscriberEventClasses();
+    }
+
+    /**
+     * Inserts the handlement into the list of its exceptional event type, after the existing ones with the same or a
+     * higher priority.
+     *
+     * Important: Must be called holding the registration lock of the handler.
+     *
+     * @param table {@link #handlementsByExceptionalEventType} or {@link #dynamicHandlementsByExceptionalEventType}
+     * @param newHandlement
+     */
+    private void addHandlement(EventTypeTable<Handlement> table, Handlement newHandlement) {
+        Class<?> exceptionalEventType = newHandlement.handlerMethod.exceptionalEventType;
+        ReentrantLock typeLock = typeLocks.get(exceptionalEventType);
+        typeLock.lock();
+        try {
+            CopyOnWriteArrayList<Handlement> handlements = table.get(exceptionalEventType);
+            if (handlements == null) {
+                handlements = new CopyOnWriteArrayList<>();
+                table.put(exceptionalEventType, handlements);
+            }
+
+            int priority = newHandlement.handlerMethod.priority;
+            int size = handlements.size();
+            for (int i = 0; i <= size; i++) {
+                if (i == size || priority > handlements.get(i).handlerMethod.priority) {
+                    handlements.add(i, newHandlement);
+                    break;
+                }
+            }
+        } finally {
+            typeLock.unlock();
+        }
+        invalidateNoHandlerExceptionalEventClasses();
+    }
+
+    /**
+     * Must be called after adding subscriptions. A poster which found no subscription before the addition may still
+     * insert its entry afterwards, but with the previous generation.
+     */
+    private void invalidateNoSubscriberEventClasses() {
+        subscriptionGeneration.incrementAndGet();
+    }
+
+    /**
+     * Must be called after adding handlements, see {@link #invalidateNoSubscriberEventClasses()}.
+     */
+    private void invalidateNoHandlerExceptionalEventClasses() {
+        handlementGeneration.incrementAndGet();
+    }
+
+    /**
+     * Registers a class subscription, which consists of an association between a class,
+     * which has subscriber methods mapped, and one of these subscriber methods.
+     *
+     * Important: Must be called in synchronized block.
+     *
+     * @param subscriberClassType
+     * @param subscriberMethod
+     */
+    private void subscribeClass(Class<?> subscriberClassType, SubscriberMethod subscriberMethod) {
+        if(!ActionMode.isTypeEnableFor(subscriberClassType, subscriberMethod.actionMode)) {
+            throw new EventBusException("Type " + subscriberClassType
+                    + " is not an eligible type to use the actionMode "
+                    + subscriberMethod.actionMode + " in one of its subscriber methods.");
+        }
+
+        Class<?> eventType = subscriberMethod.eventType;
+        SubscriberClass newSubscriberClass = new SubscriberClass(subscriberClassType, subscriberMethod);
+        CopyOnWriteArrayList<SubscriberClass> subscriberClasses = mappedSubscriberClassesByEventType.get(eventType);
+        if (subscriberClasses == null) {
+            subscriberClasses = new CopyOnWriteArrayList<>();
+            mappedSubscriberClassesByEventType.put(eventType, subscriberClasses);
+        } else {
+            if (subscriberClasses.contains(newSubscriberClass)) {
+                throw new EventBusException("Subscriber " + subscriberClassType + " already registered as 'Subscriber Class' to event "
+                        + eventType);
+            }
+        }
+
+        int size = subscriberClasses.size();
+        for (int i = 0; i <= size; i++) {
+            if (i == size || subscriberMethod.priority > subscriberClasses.get(i).subscriberMethod.priority) {
+                subscriberClasses.add(i, newSubscriberClass);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Registers a class handlement, which consists of an association between a class,
+     * which has handler methods mapped, and one of these handler methods.
+     *
+     * Important: Must be called in synchronized block.
+     *
+     * @param handlerClassType
+     * @param handlerMethod
+     */
+    private void handleClass(Class<?> handlerClassType, HandlerMethod handlerMethod) {
+        if(!ExceptionalActionMode.isTypeEnableFor(handlerClassType, handlerMethod.actionMode)) {
+            throw new EventBusException("Type " + handlerClassType
+                    + " is not an eligible type to use the actionMode "
+                    + handlerMethod.actionMode + " in one of its handler methods.");
+        }
+
+        Class<?> exceptionalEventType = handlerMethod.exceptionalEventType;
+        HandlerClass newHandlerClass = new HandlerClass(handlerClassType, handlerMethod);
+        CopyOnWriteArrayList<HandlerClass> handlerClasses = mappedHandlerClassesByExceptionalEventType.get(exceptionalEventType);
+        if (handlerClasses == null) {
+            handlerClasses = new CopyOnWriteArrayList<>();
+            mappedHandlerClassesByExceptionalEventType.put(exceptionalEventType, handlerClasses);
+        } else {
+            if (handlerClasses.contains(newHandlerClass)) {
+                throw new EventBusException("Handler " + handlerClassType + " already registered as 'Hendler Class' to exceptional event "
+                        + exceptionalEventType);
+            }
+        }
+
+        int size = handlerClasses.size();
+        for (int i = 0; i <= size; i++) {
+            if (i == size || handlerMethod.priority > handlerClasses.get(i).handlerMethod.priority) {
+                handlerClasses.add(i, newHandlerClass);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Posts the matching sticky events to a new sticky subscription.
+     *
+     * @param newSubscription
+     */
+    private void postStickyEvents(Subscription newSubscription) {
+        Class<?> eventType = newSubscription.subscriberMethod.eventType;
+        if (newSubscription.subscriberMethod.sticky) {
+            if (eventInheritance) {
+                // Existing sticky events of all subclasses of eventType have to be considered.
+                // Note: Iterating over all events may be inefficient with lots of sticky events,
+                // thus data structure should be changed to allow a more efficient lookup
+                // (e.g. an additional map storing sub classes of super classes: Class -> List<Class>).
+                Set<Map.Entry<Class<?>, Object>> entries = stickyEvents.entrySet();
+                for (Map.Entry<Class<?>, Object> entry : entries) {
+                    Class<?> candidateEventType = entry.getKey();
+                    if (eventType.isAssignableFrom(candidateEventType)) {
+                        Object stickyEvent = entry.getValue();
+                        checkPostStickyEventToSubscription(newSubscription, stickyEvent);
+                    }
+                }
+            } else {
+                Object stickyEvent = stickyEvents.get(eventType);
+                checkPostStickyEventToSubscription(newSubscription, stickyEvent);
+            }
+        }
+    }
+
+    /**
+     * Throws the matching sticky exceptional events to a new sticky handlement.
+     *
+     * @param newHandlement
+     */
+    private void throwsStickyExceptionalEvents(Handlement newHandlement) {
+        Class<?> exceptionalEventType = newHandlement.handlerMethod.exceptionalEventType;
+        if (newHandlement.handlerMethod.sticky) {
+            if (exceptionalEventInheritance) {
+                // Existing sticky exceptional events of all subclasses of exceptionalEventType have to be considered.
+                // Note: Iterating over all exceptional events may be inefficient with lots of sticky exceptional events,
+                // thus data structure should be changed to allow a more efficient lookup
+                // (e.g. an additional map storing sub classes of super classes: Class -> List<Class>).
+                Set<Map.Entry<Class<?>, Object>> entries = stickyExceptionalEvents.entrySet();
+                for (Map.Entry<Class<?>, Object> entry : entries) {
+                    Class<?> candidateExceptionalEventType = entry.getKey();
+                    if (exceptionalEventType.isAssignableFrom(candidateExceptionalEventType)) {
+                        Object stickyExceptionalEvent = entry.getValue();
+                        checkThrowsExceptionalStickyEventToHandlement(newHandlement, stickyExceptionalEvent);
+                    }
+                }
+            } else {
+                Object stickyExceptionalEvent = stickyExceptionalEvents.get(exceptionalEventType);
+                checkThrowsExceptionalStickyEventToHandlement(newHandlement, stickyExceptionalEvent);
+            }
+        }
+    }
+
+    /**
+     * Checks if there is a stick event to be posted.
+     *
+     * @param newSubscription
+     * @param stickyEvent
+     */
+    private void checkPostStickyEventToSubscription(Subscription newSubscription, Object stickyEvent) {
+        if (stickyEvent != null) {
+            // If the subscriber is trying to abort the event, it will fail (event is not tracked in posting state)
+            // --> Strange corner case, which we don't take care of here.
+            postToSubscription(newSubscription, stickyEvent, isMainThread());
         }
     }
 
@@ -583,7 +1172,7 @@ public class EventBus {
      * @param object
      * @return
      */
-    public synchronized boolean isRegistered(Object object) {
+    public boolean isRegistered(Object object) {
         return isRegisteredSubscriber(object)
                 && isRegisteredHandler(object);
     }
@@ -594,8 +1183,8 @@ public class EventBus {
      * @param subscriber
      * @return
      */
-    public synchronized boolean isRegisteredSubscriber(Object subscriber) {
-        return typesBySubscriber.containsKey(subscriber);
+    public boolean isRegisteredSubscriber(Object subscriber) {
+        return typesBySubscriber.containsKey(getRegistryKey(subscriber, false));
     }
 
     /**
@@ -604,53 +1193,77 @@ public class EventBus {
      * @param handler
      * @return
      */
-    public synchronized boolean isRegisteredHandler(Object handler) {
-        return typesByHandler.containsKey(handler);
+    public boolean isRegisteredHandler(Object handler) {
+        return typesByHandler.containsKey(getRegistryKey(handler, true));
     }
 
     /**
      * Unregisters the given subcriber object from the event type.
-     * Important: Only updates subscriptionsByEventType, not typesBySubscriber! Caller must update typesBySubscriber.
+     * Important: Only updates subscriptionsByEventType (or once frozen, dynamicSubscriptionsByEventType), not
+     * typesBySubscriber! Caller must update typesBySubscriber, holding the registration lock of the subscriber.
      *
-     * @param subscriber
+     * @param subscriber the subscriber, or the {@link RegistrationKey} of a collected one
      * @param eventType
      */
     private void unsubscribeByEventType(Object subscriber, Class<?> eventType) {
-        List<Subscription> subscriptions = subscriptionsByEventType.get(eventType);
-        if (subscriptions != null) {
-            int size = subscriptions.size();
-            for (int i = 0; i < size; i++) {
-                Subscription subscription = subscriptions.get(i);
-                if (subscription.subscriber == subscriber) {
-                    subscription.active = false;
-                    subscriptions.remove(i);
-                    i--;
-                    size--;
+        ReentrantLock typeLock = typeLocks.get(eventType);
+        typeLock.lock();
+        try {
+            List<Subscription> subscriptions = frozenRegistry != null ? dynamicSubscriptionsByEventType.get(eventType) :
+                    subscriptionsByEventType.get(eventType);
+            if (subscriptions != null) {
+                int size = subscriptions.size();
+                for (int i = 0; i < size; i++) {
+                    Subscription subscription = subscriptions.get(i);
+                    if (subscription.isFor(subscriber)) {
+                        subscription.active = false;
+                        subscriptions.remove(i);
+                        i--;
+                        size--;
+                        if (subscription.dynamic) {
+                            dynamicSubscriptionCount.decrementAndGet();
+                        }
+                    }
                 }
             }
+        } finally {
+            typeLock.unlock();
         }
     }
 
     /**
      * Unregisters the given handler object from the exceptional event type.
-     * Important: Only updates handlementsByExceptionalEventType, not typesByHandler! Caller must update typesByHandler.
+     * Important: Only updates handlementsByExceptionalEventType (or once frozen,
+     * dynamicHandlementsByExceptionalEventType), not typesByHandler! Caller must update typesByHandler, holding the
+     * registration lock of the handler.
      *
-     * @param handler
+     * @param handler the handler, or the {@link RegistrationKey} of a collected one
      * @param exceptionalEventType
      */
     private void unhandleByExceptionalEventType(Object handler, Class<?> exceptionalEventType) {
-        List<Handlement> handlements = handlementsByExceptionalEventType.get(exceptionalEventType);
-        if (handlements != null) {
-            int size = handlements.size();
-            for (int i = 0; i < size; i++) {
-                Handlement handlement = handlements.get(i);
-                if (handlement.handler == handler) {
-                    handlement.active = false;
-                    handlements.remove(i);
-                    i--;
-                    size--;
+        ReentrantLock typeLock = typeLocks.get(exceptionalEventType);
+        typeLock.lock();
+        try {
+            List<Handlement> handlements = frozenRegistry != null ?
+                    dynamicHandlementsByExceptionalEventType.get(exceptionalEventType) :
+                    handlementsByExceptionalEventType.get(exceptionalEventType);
+            if (handlements != null) {
+                int size = handlements.size();
+                for (int i = 0; i < size; i++) {
+                    Handlement handlement = handlements.get(i);
+                    if (handlement.isFor(handler)) {
+                        handlement.active = false;
+                        handlements.remove(i);
+                        i--;
+                        size--;
+                        if (handlement.dynamic) {
+                            dynamicHandlementCount.decrementAndGet();
+                        }
+                    }
                 }
             }
+        } finally {
+            typeLock.unlock();
         }
     }
 
@@ -659,7 +1272,7 @@ public class EventBus {
      *
      * @param object
      */
-    public synchronized void unregister(Object object) {
+    public void unregister(Object object) {
         unregisterSubscriber(object);
         unregisterHandler(object);
     }
@@ -669,15 +1282,25 @@ public class EventBus {
      *
      * @param subscriber
      */
-    public synchronized void unregisterSubscriber(Object subscriber) {
-        List<Class<?>> subscribedTypes = typesBySubscriber.get(subscriber);
-        if (subscribedTypes != null) {
-            for (Class<?> eventType : subscribedTypes) {
-                unsubscribeByEventType(subscriber, eventType);
+    public void unregisterSubscriber(Object subscriber) {
+        purgeCollectedRegistrations();
+        Object registryKey = getRegistryKey(subscriber, false);
+        List<Class<?>> subscribedTypes;
+        ReentrantLock lock = registrationLocks.get(registryKey);
+        lock.lock();
+        try {
+            checkUnregistrableWhenFrozen(subscriber, registryKey, false);
+            subscribedTypes = typesBySubscriber.remove(registryKey);
+            if (subscribedTypes != null) {
+                for (Class<?> eventType : subscribedTypes) {
+                    unsubscribeByEventType(subscriber, eventType);
+                }
             }
-            typesBySubscriber.remove(subscriber);
-        } else {
-            logger.log(Level.WARNING, "Subscriber to unregister was not registered before: " + subscriber.getClass());
+        } finally {
+            lock.unlock();
+        }
+        if (subscribedTypes == null) {
+            logger.log(Level.WARNING, "Subscriber to unregister was not registered before: {}", subscriber.getClass());
         }
     }
 
@@ -686,15 +1309,352 @@ public class EventBus {
      *
      * @param handler
      */
-    public synchronized void unregisterHandler(Object handler) {
-        List<Class<?>> handledTypes = typesByHandler.get(handler);
-        if (handledTypes != null) {
-            for (Class<?> exceptionalEventType : handledTypes) {
-                unhandleByExceptionalEventType(handler, exceptionalEventType);
+    public void unregisterHandler(Object handler) {
+        purgeCollectedRegistrations();
+        Object registryKey = getRegistryKey(handler, true);
+        List<Class<?>> handledTypes;
+        ReentrantLock lock = registrationLocks.get(registryKey);
+        lock.lock();
+        try {
+            checkUnregistrableWhenFrozen(handler, registryKey, true);
+            handledTypes = typesByHandler.remove(registryKey);
+            if (handledTypes != null) {
+                for (Class<?> exceptionalEventType : handledTypes) {
+                    unhandleByExceptionalEventType(handler, exceptionalEventType);
+                }
             }
-            typesByHandler.remove(handler);
+        } finally {
+            lock.unlock();
+        }
+        if (handledTypes == null) {
+            logger.log(Level.WARNING, "Handler to unregister was not registered before: {}", handler.getClass());
+        }
+    }
+
+    /**
+     * Removes the entries of a registration which weren't removed otherwise, see {@link Registration#close()}.
+     * The entries are referenced by the registration, so they're removed by identity without looking up the types of
+     * the registered objects, leaving other registrations of the same objects in place. Each affected list is updated
+     * with a single copy. After {@link #freeze()}, only entries added since can be removed.
+     *
+     * @param registration
+     * @throws EventBusException if the bus is frozen and the registration has active entries of the frozen registry;
+     *                           nothing is removed then
+     */
+    void unregister(Registration registration) {
+        Set<Object> registryKeys = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        for (Subscription subscription : registration.subscriptions) {
+            registryKeys.add(subscription.getRegistryKey());
+        }
+        for (Handlement handlement : registration.handlements) {
+            registryKeys.add(handlement.getRegistryKey());
+        }
+        if (registryKeys.isEmpty()) {
+            return;
+        }
+        // Registrations of several objects (bulk calls) hold all locks, which are acquired in a fixed order
+        ReentrantLock lock = registryKeys.size() == 1 ? registrationLocks.get(registryKeys.iterator().next()) : null;
+        if (lock != null) {
+            lock.lock();
         } else {
-            logger.log(Level.WARNING, "Handler to unregister was not registered before: " + handler.getClass());
+            registrationLocks.lockAll();
+        }
+        try {
+            boolean frozen = frozenRegistry != null;
+            if (frozen) {
+                for (Subscription subscription : registration.subscriptions) {
+                    if (subscription.active && !subscription.dynamic) {
+                        throw new EventBusException("Subscriber " + subscription.subscriberClass
+                                + " is frozen and can't be unregistered");
+                    }
+                }
+                for (Handlement handlement : registration.handlements) {
+                    if (handlement.active && !handlement.dynamic) {
+                        throw new EventBusException("Handler " + handlement.handlerClass
+                                + " is frozen and can't be unregistered");
+                    }
+                }
+            }
+            EventTypeTable<Subscription> subscriptionTable = frozen ? dynamicSubscriptionsByEventType :
+                    subscriptionsByEventType;
+            Map<Class<?>, Set<Subscription>> removedSubscriptionsByType = new HashMap<>();
+            for (Subscription subscription : registration.subscriptions) {
+                if (subscription.active) {
+                    subscription.active = false;
+                    Class<?> eventType = subscription.subscriberMethod.eventType;
+                    Set<Subscription> removedSubscriptions = removedSubscriptionsByType.get(eventType);
+                    if (removedSubscriptions == null) {
+                        removedSubscriptions =
+                                Collections.newSetFromMap(new IdentityHashMap<Subscription, Boolean>());
+                        removedSubscriptionsByType.put(eventType, removedSubscriptions);
+                    }
+                    removedSubscriptions.add(subscription);
+                    if (subscription.dynamic) {
+                        dynamicSubscriptionCount.decrementAndGet();
+                    }
+                    if (!(subscription.subscriberMethod instanceof ConsumerSubscriberMethod)) {
+                        // Other registrations of the subscriber keep their types
+                        Object registryKey = subscription.getRegistryKey();
+                        List<Class<?>> subscribedTypes = typesBySubscriber.get(registryKey);
+                        if (subscribedTypes != null && subscribedTypes.remove(eventType)
+                                && subscribedTypes.isEmpty()) {
+                            typesBySubscriber.remove(registryKey);
+                        }
+                    }
+                }
+            }
+            for (Map.Entry<Class<?>, Set<Subscription>> entry : removedSubscriptionsByType.entrySet()) {
+                Class<?> eventType = entry.getKey();
+                ReentrantLock typeLock = typeLocks.get(eventType);
+                typeLock.lock();
+                try {
+                    List<Subscription> subscriptions = subscriptionTable.get(eventType);
+                    if (subscriptions != null) {
+                        // By identity, as entries of other registrations of the same subscriber are equal
+                        subscriptions.removeAll(entry.getValue());
+                    }
+                } finally {
+                    typeLock.unlock();
+                }
+            }
+
+            EventTypeTable<Handlement> handlementTable = frozen ? dynamicHandlementsByExceptionalEventType :
+                    handlementsByExceptionalEventType;
+            Map<Class<?>, Set<Handlement>> removedHandlementsByType = new HashMap<>();
+            for (Handlement handlement : registration.handlements) {
+                if (handlement.active) {
+                    handlement.active = false;
+                    Class<?> exceptionalEventType = handlement.handlerMethod.exceptionalEventType;
+                    Set<Handlement> removedHandlements = removedHandlementsByType.get(exceptionalEventType);
+                    if (removedHandlements == null) {
+                        removedHandlements = Collections.newSetFromMap(new IdentityHashMap<Handlement, Boolean>());
+                        removedHandlementsByType.put(exceptionalEventType, removedHandlements);
+                    }
+                    removedHandlements.add(handlement);
+                    if (handlement.dynamic) {
+                        dynamicHandlementCount.decrementAndGet();
+                    }
+                    if (!(handlement.handlerMethod instanceof ConsumerHandlerMethod)) {
+                        Object registryKey = handlement.getRegistryKey();
+                        List<Class<?>> handledTypes = typesByHandler.get(registryKey);
+                        if (handledTypes != null && handledTypes.remove(exceptionalEventType)
+                                && handledTypes.isEmpty()) {
+                            typesByHandler.remove(registryKey);
+                        }
+                    }
+                }
+            }
+            for (Map.Entry<Class<?>, Set<Handlement>> entry : removedHandlementsByType.entrySet()) {
+                Class<?> exceptionalEventType = entry.getKey();
+                ReentrantLock typeLock = typeLocks.get(exceptionalEventType);
+                typeLock.lock();
+                try {
+                    List<Handlement> handlements = handlementTable.get(exceptionalEventType);
+                    if (handlements != null) {
+                        handlements.removeAll(entry.getValue());
+                    }
+                } finally {
+                    typeLock.unlock();
+                }
+            }
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            } else {
+                registrationLocks.unlockAll();
+            }
+        }
+    }
+
+    /**
+     * Unregisters all given objects from all event and exceptional event classes.
+     *
+     * @param objects
+     */
+    public void unregisterAll(Collection<?> objects) {
+        unregisterAllSubscribers(objects);
+        unregisterAllHandlers(objects);
+    }
+
+    /**
+     * Unregisters all given subscribers like {@link #unregisterSubscriber(Object)}, but builds the remaining
+     * subscription list of each affected event type only once.
+     *
+     * @param subscribers
+     */
+    public void unregisterAllSubscribers(Collection<?> subscribers) {
+        purgeCollectedRegistrations();
+        registrationLocks.lockAll();
+        try {
+            for (Object subscriber : subscribers) {
+                checkUnregistrableWhenFrozen(subscriber, getRegistryKey(subscriber, false), false);
+            }
+            EventTypeTable<Subscription> subscriptionTable = frozenRegistry != null ? dynamicSubscriptionsByEventType :
+                    subscriptionsByEventType;
+            Set<Object> removedSubscribers = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+            Set<Class<?>> affectedTypes = new HashSet<>();
+            for (Object subscriber : subscribers) {
+                List<Class<?>> subscribedTypes = typesBySubscriber.remove(getRegistryKey(subscriber, false));
+                if (subscribedTypes != null) {
+                    removedSubscribers.add(subscriber);
+                    affectedTypes.addAll(subscribedTypes);
+                } else {
+                    logger.log(Level.WARNING, "Subscriber to unregister was not registered before: {}",
+                            subscriber.getClass());
+                }
+            }
+            for (Class<?> eventType : affectedTypes) {
+                ReentrantLock typeLock = typeLocks.get(eventType);
+                typeLock.lock();
+                try {
+                    List<Subscription> subscriptions = subscriptionTable.get(eventType);
+                    if (subscriptions != null) {
+                        List<Subscription> remaining = new ArrayList<>(subscriptions.size());
+                        for (Subscription subscription : subscriptions) {
+                            if (removedSubscribers.contains(subscription.getSubscriber())) {
+                                subscription.active = false;
+                                if (subscription.dynamic) {
+                                    dynamicSubscriptionCount.decrementAndGet();
+                                }
+                            } else {
+                                remaining.add(subscription);
+                            }
+                        }
+                        subscriptionTable.put(eventType, new CopyOnWriteArrayList<>(remaining));
+                    }
+                } finally {
+                    typeLock.unlock();
+                }
+            }
+        } finally {
+            registrationLocks.unlockAll();
+        }
+    }
+
+    /**
+     * Unregisters all given handlers like {@link #unregisterHandler(Object)}, but builds the remaining handlement list
+     * of each affected exceptional event type only once.
+     *
+     * @param handlers
+     */
+    public void unregisterAllHandlers(Collection<?> handlers) {
+        purgeCollectedRegistrations();
+        registrationLocks.lockAll();
+        try {
+            for (Object handler : handlers) {
+                checkUnregistrableWhenFrozen(handler, getRegistryKey(handler, true), true);
+            }
+            EventTypeTable<Handlement> handlementTable = frozenRegistry != null ?
+                    dynamicHandlementsByExceptionalEventType : handlementsByExceptionalEventType;
+            Set<Object> removedHandlers = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+            Set<Class<?>> affectedTypes = new HashSet<>();
+            for (Object handler : handlers) {
+                List<Class<?>> handledTypes = typesByHandler.remove(getRegistryKey(handler, true));
+                if (handledTypes != null) {
+                    removedHandlers.add(handler);
+                    affectedTypes.addAll(handledTypes);
+                } else {
+                    logger.log(Level.WARNING, "Handler to unregister was not registered before: {}",
+                            handler.getClass());
+                }
+            }
+            for (Class<?> exceptionalEventType : affectedTypes) {
+                ReentrantLock typeLock = typeLocks.get(exceptionalEventType);
+                typeLock.lock();
+                try {
+                    List<Handlement> handlements = handlementTable.get(exceptionalEventType);
+                    if (handlements != null) {
+                        List<Handlement> remaining = new ArrayList<>(handlements.size());
+                        for (Handlement handlement : handlements) {
+                            if (removedHandlers.contains(handlement.getHandler())) {
+                                handlement.active = false;
+                                if (handlement.dynamic) {
+                                    dynamicHandlementCount.decrementAndGet();
+                                }
+                            } else {
+                                remaining.add(handlement);
+                            }
+                        }
+                        handlementTable.put(exceptionalEventType, new CopyOnWriteArrayList<>(remaining));
+                    }
+                } finally {
+                    typeLock.unlock();
+                }
+            }
+        } finally {
+            registrationLocks.unlockAll();
+        }
+    }
+
+    /**
+     * Freezes the current subscriptions and handlements for the steady state after startup. Afterwards, events and
+     * exceptional events are dispatched from immutable arrays: without locks (including the one on the event), the
+     * no-receiver cache or the start mechanism (late delivery to mapped activities and services). Weakly registered
+     * objects which are garbage collected are skipped, but stay in the frozen registry.
+     * <p/>
+     * Objects registered when freezing can't be unregistered anymore: unregistering them, or closing their
+     * registration, throws an {@link EventBusException}. Objects registered afterwards, including consumers (see
+     * {@link #subscribe(Class, EventConsumer, ThreadMode, int)}), are kept in a side table, delivered to after the
+     * frozen entries, and can be unregistered as usual; dispatch only consults that table while it isn't empty.
+     * Registering a frozen object again adds such a registration, which can only be removed by closing it.
+     * Registering objects of classes configured with {@link EventBusBuilder#rejectRegistrationWhenFrozen(Class)}
+     * throws an {@link EventBusException} instead.
+     * <p/>
+     * Freezing can't be undone. Calling it again has no effect.
+     */
+    public void freeze() {
+        purgeCollectedRegistrations();
+        registrationLocks.lockAll();
+        try {
+            if (frozenRegistry == null) {
+                frozenRegistry = new FrozenRegistry(subscriptionsByEventType.toMap(),
+                        handlementsByExceptionalEventType.toMap(), typesBySubscriber.keySet(), typesByHandler.keySet());
+            }
+        } finally {
+            registrationLocks.unlockAll();
+        }
+    }
+
+    /** Whether {@link #freeze()} was called; a concurrent call may not be seen yet. */
+    public boolean isFrozen() {
+        return frozenRegistry != null;
+    }
+
+    /**
+     * Once frozen, rejects objects of the classes configured with
+     * {@link EventBusBuilder#rejectRegistrationWhenFrozen(Class)}. Objects of the frozen registry may be registered
+     * again, which adds registrations outside of it.
+     *
+     * Important: Must be called holding the registration lock of the object.
+     *
+     * @param object the subscriber or handler to register
+     */
+    private void checkRegistrableWhenFrozen(Object object) {
+        if (frozenRegistry == null || rejectWhenFrozenClasses == null) {
+            return;
+        }
+        for (Class<?> rejectedClass : rejectWhenFrozenClasses) {
+            if (rejectedClass.isInstance(object)) {
+                throw new EventBusException("EventBus is frozen, " + object.getClass() + " can't be registered");
+            }
+        }
+    }
+
+    /**
+     * Once frozen, rejects objects of the frozen registry, whose entries can't be removed.
+     *
+     * Important: Must be called holding the registration lock of the object.
+     *
+     * @param object      the subscriber or handler to unregister
+     * @param registryKey
+     * @param handler     whether the object is unregistered as handler
+     */
+    private void checkUnregistrableWhenFrozen(Object object, Object registryKey, boolean handler) {
+        FrozenRegistry frozen = frozenRegistry;
+        if (frozen != null &&
+                (handler ? frozen.containsHandler(registryKey) : frozen.containsSubscriber(registryKey))) {
+            throw new EventBusException((handler ? "Handler " : "Subscriber ") + object.getClass()
+                    + " is frozen and can't be unregistered");
         }
     }
 
@@ -704,31 +1664,57 @@ public class EventBus {
      * @param event
      */
     public void post(Object event) {
-        synchronized (event) {
-            if(startMechanismEnabled) {
-                //Register classes with methods mapped as subscribe or handle.
-                try {
-                    registerMappedClasses();
-                } catch (NoClassDefFoundError e) {
-                    //At the moment, do nothing.
-                }
+        if (metrics != null) {
+            metrics.onPost(event.getClass());
+        }
+        if (tracer != null) {
+            Object token = tracer.beginPost(event.getClass());
+            try {
+                dispatchPost(event);
+            } finally {
+                tracer.endPost(token);
             }
+        } else {
+            dispatchPost(event);
+        }
+    }
 
-            //Put exceptional events in immediate queue.
-            PostingThreadState immediatePostingState = currentImmediatePostingThreadState.get();
+    /**
+     * Queues the event for immediate delivery and, if the start mechanism is enabled, for late delivery.
+     *
+     * @param event
+     */
+    private void dispatchPost(Object event) {
+        if (frozenRegistry != null) {
+            // Nothing to map or deliver late, see freeze()
+            PostingThreadState immediatePostingState = getDispatchState().immediatePosting;
+            immediatePostingState.eventQueue.add(event);
+            processPostingThread(immediatePostingState);
+            return;
+        }
+        DispatchState dispatchState = getDispatchState();
+        synchronized (event) {
+            //Put events in immediate queue.
+            PostingThreadState immediatePostingState = dispatchState.immediatePosting;
             putEventInPostingQueue(immediatePostingState, event);
 
             //Processes the thread that sends the messages that are in the immediate queue.
             processPostingThread(immediatePostingState);
+        }
 
-            if(startMechanismEnabled && isEventMappedForActionMode(
-                    event, ActionMode.LAZY_SUBSCRIBE)) {
-                //Put events in late queue.
-                PostingThreadState latePostingState = currentLatePostingThreadState.get();
-                putEventInPostingQueue(latePostingState, event);
+        if(startMechanismEnabled) {
+            //Waits, without holding the event, for the classes that may receive the event late to be mapped.
+            awaitMappedComponents();
 
-                //Prepare to start the activities that will receive the events of the late queue.
-                prepareLatePostingEvent(event);
+            if(isEventMappedForActionMode(event, ActionMode.LAZY_SUBSCRIBE)) {
+                synchronized (event) {
+                    //Put events in late queue.
+                    PostingThreadState latePostingState = dispatchState.latePosting;
+                    putEventInPostingQueue(latePostingState, event);
+
+                    //Prepare to start the activities that will receive the events of the late queue.
+                    prepareLatePostingEvent(event);
+                }
             }
         }
     }
@@ -739,38 +1725,64 @@ public class EventBus {
      * @param exceptionalEvent
      */
     public void throwException(Object exceptionalEvent) {
-        synchronized (exceptionalEvent) {
-            if(startMechanismEnabled) {
-                //Register classes with methods mapped as subscribe or handle.
-                try {
-                    registerMappedClasses();
-                } catch (NoClassDefFoundError e) {
-                    //At the moment, do nothing.
-                }
+        if (metrics != null) {
+            metrics.onThrow(exceptionalEvent.getClass());
+        }
+        if (tracer != null) {
+            Object token = tracer.beginThrow(exceptionalEvent.getClass());
+            try {
+                dispatchThrow(exceptionalEvent);
+            } finally {
+                tracer.endThrow(token);
             }
+        } else {
+            dispatchThrow(exceptionalEvent);
+        }
+    }
 
+    /**
+     * Queues the exceptional event for immediate delivery and, if the start mechanism is enabled, for late delivery.
+     *
+     * @param exceptionalEvent
+     */
+    private void dispatchThrow(Object exceptionalEvent) {
+        if (frozenRegistry != null) {
+            // Nothing to map or deliver late, see freeze()
+            ThrowingThreadState immediateThrowingState = getDispatchState().immediateThrowing;
+            immediateThrowingState.exceptionalEventQueue.add(exceptionalEvent);
+            processThrowingThread(immediateThrowingState);
+            return;
+        }
+        DispatchState dispatchState = getDispatchState();
+        synchronized (exceptionalEvent) {
             //Put exceptional events in immediate queue.
-            ThrowingThreadState immediateThrowingState = currentImmediateThrowingThreadState.get();
+            ThrowingThreadState immediateThrowingState = dispatchState.immediateThrowing;
             putExceptionalEventInThrowingQueue(immediateThrowingState, exceptionalEvent);
 
             //Processes the thread that sends the messages that are in the immediate queue.
             processThrowingThread(immediateThrowingState);
+        }
+
+        if(startMechanismEnabled) {
+            //Waits, without holding the exceptional event, for the classes that may receive it late to be mapped.
+            awaitMappedComponents();
 
-            if(startMechanismEnabled && isExceptionalEventMappedForExceptionalActionMode(
-                    exceptionalEvent, ExceptionalActionMode.LAZY_HANDLE)) {
-                //Put exceptional events in late queue.
-                ThrowingThreadState lateThrowingState = currentLateThrowingThreadState.get();
-                putExceptionalEventInThrowingQueue(lateThrowingState, exceptionalEvent);
+            if(isExceptionalEventMappedForExceptionalActionMode(exceptionalEvent, ExceptionalActionMode.LAZY_HANDLE)) {
+                synchronized (exceptionalEvent) {
+                    //Put exceptional events in late queue.
+                    ThrowingThreadState lateThrowingState = dispatchState.lateThrowing;
+                    putExceptionalEventInThrowingQueue(lateThrowingState, exceptionalEvent);
 
-                //Prepare to start the activities that will receive the exceptional events of the late queue.
-                prepareLateThrowingExceptionalEvent(exceptionalEvent);
+                    //Prepare to start the activities that will receive the exceptional events of the late queue.
+                    prepareLateThrowingExceptionalEvent(exceptionalEvent);
+                }
             }
         }
     }
 
     public void putEventInPostingQueue(PostingThreadState postingThreadState, Object event) {
         if(postingThreadState.isLate) {
-            HashMap<Class<?>, ArrayList<Object>> lateEventSubscriberQueue = postingThreadState.eventSubscriberQueue;
+            HashMap<Class<?>, ArrayDeque<Object>> lateEventSubscriberQueue = postingThreadState.eventSubscriberQueue;
             Set<Class<?>> subscriberClasses = getMappedSubscriberClassForEvent(event);
             Iterator<Class<?>> it = subscriberClasses.iterator();
             while(it.hasNext()) {
@@ -780,25 +1792,25 @@ public class EventBus {
                     continue;
 
                 if(lateEventSubscriberQueue.containsKey(subscriberClass)) {
-                    ArrayList<Object> eventList = lateEventSubscriberQueue.get(subscriberClass);
+                    ArrayDeque<Object> eventList = lateEventSubscriberQueue.get(subscriberClass);
                     eventList.add(event);
                 }
                 else {
-                    ArrayList<Object> eventList = new ArrayList<Object>();
+                    ArrayDeque<Object> eventList = new ArrayDeque<Object>();
                     eventList.add(event);
                     lateEventSubscriberQueue.put(subscriberClass, eventList);
                 }
             }
         }
         else {
-            List<Object> immediateEventQueue = postingThreadState.eventQueue;
+            ArrayDeque<Object> immediateEventQueue = postingThreadState.eventQueue;
             immediateEventQueue.add(event);
         }
     }
 
     public void putExceptionalEventInThrowingQueue(ThrowingThreadState throwingThreadState, Object exceptionalEvent) {
         if(throwingThreadState.isLate) {
-            HashMap<Class<?>, ArrayList<Object>> lateExceptionalEventHandlerQueue = throwingThreadState.exceptionalEventHandlerQueue;
+            HashMap<Class<?>, ArrayDeque<Object>> lateExceptionalEventHandlerQueue = throwingThreadState.exceptionalEventHandlerQueue;
             Set<Class<?>> handlerClasses = getMappedHandlerClassForExceptionalEvent(exceptionalEvent);
             Iterator<Class<?>> it = handlerClasses.iterator();
             while(it.hasNext()) {
@@ -808,53 +1820,43 @@ public class EventBus {
                     continue;
 
                 if(lateExceptionalEventHandlerQueue.containsKey(handlerClass)) {
-                    ArrayList<Object> exceptionalEventList = lateExceptionalEventHandlerQueue.get(handlerClass);
+                    ArrayDeque<Object> exceptionalEventList = lateExceptionalEventHandlerQueue.get(handlerClass);
                     exceptionalEventList.add(exceptionalEvent);
                 }
                 else {
-                    ArrayList<Object> exceptionalEventList = new ArrayList<Object>();
+                    ArrayDeque<Object> exceptionalEventList = new ArrayDeque<Object>();
                     exceptionalEventList.add(exceptionalEvent);
                     lateExceptionalEventHandlerQueue.put(handlerClass, exceptionalEventList);
                 }
             }
         }
         else {
-            List<Object> immediateExceptionalEventQueue = throwingThreadState.exceptionalEventQueue;
+            ArrayDeque<Object> immediateExceptionalEventQueue = throwingThreadState.exceptionalEventQueue;
             immediateExceptionalEventQueue.add(exceptionalEvent);
         }
     }
 
     /**
-     * Identifies and stores data from classes that have mapped methods to perform
-     * the processing of common events or exceptional events.
+     * Identifies and stores data from classes that have mapped methods to perform
+     * the processing of common events or exceptional events.
+     * <p/>
+     * The scan is started in background when the bus is created; this method waits until it is completed.
+     */
+    public void registerMappedClasses() {
+        if (mappedClassScanner != null) {
+            mappedClassScanner.awaitCompletion();
+        }
+    }
+
+    /**
+     * Waits until the classes which may receive events or exceptional events late (activities and services) are mapped.
+     * Posting threads help the background scan while waiting; they must not hold the monitor of the event, so other
+     * threads posting the same event are not blocked by the scan. Whether an event is delivered late is then decided
+     * on the classes mapped so far, without waiting for the rest of the package.
      */
-    public void registerMappedClasses() {
-        if(mappedClassesRegistrationPerformed)
-            return;
-
-        mappedClassesRegistrationPerformed = true;
-
-        if(context == null)
-            return;
-
-        try {
-            @SuppressLint({"NewApi", "LocalSuppress"})
-            DexFile df = new DexFile(context.getPackageCodePath());
-
-            for (Enumeration<String> iter = df.entries(); iter.hasMoreElements(); ) {
-                String s = iter.nextElement();
-                if (s.contains(context.getPackageName())) {
-                    //System.out.println("ClasseDex: " + s);
-                    try {
-                        Class<?> classInPackage = Class.forName(s);
-                        registerMappedClass(classInPackage);
-                    } catch (ClassNotFoundException ex) {
-                        ex.printStackTrace();
-                    }
-                }
-            }
-        } catch (IOException e1) {
-            e1.printStackTrace();
+    private void awaitMappedComponents() {
+        if (mappedClassScanner != null) {
+            mappedClassScanner.awaitComponents();
         }
     }
 
@@ -885,6 +1887,10 @@ public class EventBus {
                 }
             }
         }
+
+        if((hasSubscriberMethods || hasHandlerMethods) && discoveryCache != null) {
+            discoveryCache.learnMappedClass(classToMap);
+        }
         /*
         if(hasSubscriberMethods || hasHandlerMethods) {
             System.out.println("REGISTERED: MappedClass [ " + classInPackage.getName() + "]");
@@ -901,7 +1907,7 @@ public class EventBus {
      * @param event
      */
     public void cancelEventDelivery(Object event) {
-        PostingThreadState postingState = currentImmediatePostingThreadState.get();
+        PostingThreadState postingState = getDispatchState().immediatePosting;
         if (!postingState.isPosting) {
             throw new EventBusException(
                     "This method may only be called from inside event handling methods on the posting thread");
@@ -925,7 +1931,7 @@ public class EventBus {
      * @param exceptionalEvent
      */
     public void cancelExceptionalEventDelivery(Object exceptionalEvent) {
-        ThrowingThreadState throwingState = currentImmediateThrowingThreadState.get();
+        ThrowingThreadState throwingState = getDispatchState().immediateThrowing;
         if (!throwingState.isThrowing) {
             throw new EventBusException(
                     "This method may only be called from inside exceptional event handling methods on the throwing thread");
@@ -1102,8 +2108,8 @@ public class EventBus {
      * @param postingState
      */
     private void processPostingThread(Object subscriber, PostingThreadState postingState) {
-        List<Object> eventQueue = postingState.eventQueue;
-        HashMap<Class<?>, ArrayList<Object>> eventSubscriberQueue = postingState.eventSubscriberQueue;
+        ArrayDeque<Object> eventQueue = postingState.eventQueue;
+        HashMap<Class<?>, ArrayDeque<Object>> eventSubscriberQueue = postingState.eventSubscriberQueue;
 
         if (!postingState.isPosting) {
             postingState.isMainThread = isMainThread();
@@ -1113,16 +2119,16 @@ public class EventBus {
             }
             try {
                 if (subscriber != null && postingState.isLate) {
-                    ArrayList<Object> eventList = eventSubscriberQueue.get(subscriber.getClass());
+                    ArrayDeque<Object> eventList = eventSubscriberQueue.get(subscriber.getClass());
                     if(eventList != null) {
                         while (!eventList.isEmpty()) {
-                            postSingleEvent(eventList.remove(0), subscriber, postingState);
+                            postSingleEvent(eventList.poll(), subscriber, postingState);
                         }
                     }
                 }
                 else {
                     while (!eventQueue.isEmpty()) {
-                        postSingleEvent(eventQueue.remove(0), postingState);
+                        postSingleEvent(eventQueue.poll(), postingState);
                     }
                 }
             } finally {
@@ -1148,8 +2154,8 @@ public class EventBus {
      * @param throwingState
      */
     private void processThrowingThread(Object handler, ThrowingThreadState throwingState) {
-        List<Object> exceptionalEventQueue = throwingState.exceptionalEventQueue;
-        HashMap<Class<?>, ArrayList<Object>> exceptionalEventHandlerQueue = throwingState.exceptionalEventHandlerQueue;
+        ArrayDeque<Object> exceptionalEventQueue = throwingState.exceptionalEventQueue;
+        HashMap<Class<?>, ArrayDeque<Object>> exceptionalEventHandlerQueue = throwingState.exceptionalEventHandlerQueue;
 
         if (!throwingState.isThrowing) {
             throwingState.isMainThread = isMainThread();
@@ -1159,16 +2165,16 @@ public class EventBus {
             }
             try {
                 if (handler != null && throwingState.isLate) {
-                    ArrayList<Object> exceptionalEventList = exceptionalEventHandlerQueue.get(handler.getClass());
+                    ArrayDeque<Object> exceptionalEventList = exceptionalEventHandlerQueue.get(handler.getClass());
                     if(exceptionalEventList != null) {
                         while (!exceptionalEventList.isEmpty()) {
-                            throwSingleExceptionalEvent(exceptionalEventList.remove(0), handler, throwingState);
+                            throwSingleExceptionalEvent(exceptionalEventList.poll(), handler, throwingState);
                         }
                     }
                 }
                 else {
                     while (!exceptionalEventQueue.isEmpty()) {
-                        throwSingleExceptionalEvent(exceptionalEventQueue.remove(0), throwingState);
+                        throwSingleExceptionalEvent(exceptionalEventQueue.poll(), throwingState);
                     }
                 }
             } finally {
@@ -1198,29 +2204,144 @@ public class EventBus {
      * @throws Error
      */
     private void postSingleEvent(Object event, Object subscribe, PostingThreadState postingState) throws Error {
+        FrozenRegistry frozen = frozenRegistry;
+        if (frozen != null && subscribe == null && !postingState.isLate) {
+            postSingleEvent(event, postingState, frozen);
+            return;
+        }
         Class<?> eventClass = event.getClass();
-        boolean subscriptionFound = false;
-        if (eventInheritance) {
-            List<Class<?>> eventTypes = lookupAllEventTypes(eventClass);
-            int countTypes = eventTypes.size();
-            for (int h = 0; h < countTypes; h++) {
-                Class<?> clazz = eventTypes.get(h);
-                subscriptionFound |= postSingleEventForEventType(event, subscribe, postingState, clazz);
+        // Only immediate delivery to all subscribers is cached; the generation is read before looking for them
+        boolean cacheable = subscribe == null && !postingState.isLate;
+        int generation = 0;
+        if (cacheable) {
+            generation = subscriptionGeneration.get();
+            Integer cachedGeneration = noSubscriberEventClasses.get(eventClass);
+            if (cachedGeneration != null && cachedGeneration == generation) {
+                handleNoSubscriber(event, eventClass, false);
+                return;
             }
-        } else {
-            subscriptionFound = postSingleEventForEventType(event, subscribe, postingState, eventClass);
+        }
+        boolean subscriptionFound = false;
+        int[] eventTypeIds = subscriptionsByEventType.getTypeIds(eventClass);
+        if (eventTypeIds == null) {
+            eventTypeIds = subscriptionsByEventType.cacheTypeIds(eventClass, eventInheritance ?
+                    lookupAllEventTypes(eventClass) : Collections.<Class<?>>singletonList(eventClass));
+        }
+        for (int eventTypeId : eventTypeIds) {
+            subscriptionFound |= postSingleEventForEventType(event, subscribe, postingState,
+                    subscriptionsByEventType.get(eventTypeId));
         }
         if (!subscriptionFound) {
-            if (logNoSubscriberMessages) {
-                logger.log(Level.FINE, "No subscribers registered for event " + eventClass);
+            if (cacheable) {
+                noSubscriberEventClasses.put(eventClass, generation);
+            }
+            handleNoSubscriber(event, eventClass, true);
+        }
+    }
+
+    /**
+     * Post a specific event for the subscriptions of the frozen registry, see {@link #freeze()}.
+     *
+     * @param event
+     * @param postingState
+     * @param frozen
+     */
+    private void postSingleEvent(Object event, PostingThreadState postingState, FrozenRegistry frozen) {
+        Class<?> eventClass = event.getClass();
+        Subscription[][] subscriptionsByType = frozen.getSubscriptions(eventClass);
+        boolean resolved = subscriptionsByType != null;
+        if (!resolved) {
+            subscriptionsByType = frozen.resolveSubscriptions(eventClass, eventInheritance ?
+                    lookupAllEventTypes(eventClass) : Collections.<Class<?>>singletonList(eventClass));
+        }
+        boolean dynamic = dynamicSubscriptionCount.get() != 0;
+        if (subscriptionsByType.length == 0 && !dynamic) {
+            handleNoSubscriber(event, eventClass, !resolved);
+            return;
+        }
+        for (Subscription[] subscriptions : subscriptionsByType) {
+            for (Subscription subscription : subscriptions) {
+                if (postSingleEventToSubscription(event, postingState, subscription)) {
+                    break;
+                }
             }
-            if (sendNoSubscriberEvent && eventClass != NoSubscriberEvent.class &&
-                    eventClass != SubscriberExceptionEvent.class) {
+        }
+        if (dynamic && !postDynamicSingleEvent(event, postingState) && subscriptionsByType.length == 0) {
+            handleNoSubscriber(event, eventClass, !resolved);
+        }
+    }
+
+    /**
+     * Post a specific event for the subscriptions added after {@link #freeze()}.
+     *
+     * @param event
+     * @param postingState
+     * @return whether there were subscriptions for the event
+     */
+    private boolean postDynamicSingleEvent(Object event, PostingThreadState postingState) {
+        Class<?> eventClass = event.getClass();
+        int[] eventTypeIds = dynamicSubscriptionsByEventType.getTypeIds(eventClass);
+        if (eventTypeIds == null) {
+            eventTypeIds = dynamicSubscriptionsByEventType.cacheTypeIds(eventClass, eventInheritance ?
+                    lookupAllEventTypes(eventClass) : Collections.<Class<?>>singletonList(eventClass));
+        }
+        boolean subscriptionFound = false;
+        for (int eventTypeId : eventTypeIds) {
+            subscriptionFound |= postSingleEventForEventType(event, null, postingState,
+                    dynamicSubscriptionsByEventType.get(eventTypeId));
+        }
+        return subscriptionFound;
+    }
+
+    /**
+     * Logs and sends the NoSubscriberEvent (or its summary) for an event nobody received.
+     *
+     * @param event
+     * @param eventClass
+     * @param log false if the event class was found in the cache of classes without subscribers, which was logged
+     *            when it was added
+     */
+    private void handleNoSubscriber(Object event, Class<?> eventClass, boolean log) {
+        if (metrics != null) {
+            metrics.onNoSubscriber(eventClass);
+        }
+        if (log && logNoSubscriberMessages) {
+            logger.log(Level.FINE, "No subscribers registered for event {}", eventClass);
+        }
+        if (sendNoSubscriberEvent && eventClass != NoSubscriberEvent.class &&
+                eventClass != SubscriberExceptionEvent.class && eventClass != NoSubscriberSummaryEvent.class &&
+                eventClass != SlowSubscriberEvent.class) {
+            if (noSubscriberCounter != null) {
+                NoReceiverCounter.Period period = noSubscriberCounter.count(eventClass);
+                if (period != null) {
+                    post(new NoSubscriberSummaryEvent(this, period.counts, period.millis));
+                }
+            } else if (!isKnownWithoutSubscribers(NoSubscriberEvent.class)) {
                 post(new NoSubscriberEvent(this, event));
             }
         }
     }
 
+    /**
+     * Whether the caches already tell that posting an event of the given class reaches no subscriber, so posting
+     * it can be skipped. Not known with the start mechanism, as the event may still be delivered late.
+     *
+     * @param eventClass
+     * @return
+     */
+    private boolean isKnownWithoutSubscribers(Class<?> eventClass) {
+        FrozenRegistry frozen = frozenRegistry;
+        if (frozen != null) {
+            Subscription[][] subscriptionsByType = frozen.getSubscriptions(eventClass);
+            return subscriptionsByType != null && subscriptionsByType.length == 0 &&
+                    dynamicSubscriptionCount.get() == 0;
+        } else if (startMechanismEnabled) {
+            return false;
+        }
+        Integer cachedGeneration = noSubscriberEventClasses.get(eventClass);
+        return cachedGeneration != null && cachedGeneration == subscriptionGeneration.get();
+    }
+
     /**
      * Post a specific exceptional event for all registered handler objects.
      *
@@ -1241,58 +2362,162 @@ public class EventBus {
      * @throws Error
      */
     private void throwSingleExceptionalEvent(Object exceptionalEvent, Object handler, ThrowingThreadState throwingState) throws Error {
+        FrozenRegistry frozen = frozenRegistry;
+        if (frozen != null && handler == null && !throwingState.isLate) {
+            throwSingleExceptionalEvent(exceptionalEvent, throwingState, frozen);
+            return;
+        }
         Class<?> exceptionalEventClass = exceptionalEvent.getClass();
-        boolean handlementFound = false;
-        if (exceptionalEventInheritance) {
-            List<Class<?>> exceptionalEventTypes = lookupAllExceptionalEventTypes(exceptionalEventClass);
-            int countTypes = exceptionalEventTypes.size();
-            for (int h = 0; h < countTypes; h++) {
-                Class<?> clazz = exceptionalEventTypes.get(h);
-                handlementFound |= throwsSingleExceptionalEventForExceptionalEventType(exceptionalEvent, handler, throwingState, clazz);
+        // Only immediate delivery to all handlers is cached; the generation is read before looking for them
+        boolean cacheable = handler == null && !throwingState.isLate;
+        int generation = 0;
+        if (cacheable) {
+            generation = handlementGeneration.get();
+            Integer cachedGeneration = noHandlerExceptionalEventClasses.get(exceptionalEventClass);
+            if (cachedGeneration != null && cachedGeneration == generation) {
+                handleNoHandler(exceptionalEvent, exceptionalEventClass, false);
+                return;
             }
-        } else {
-            handlementFound = throwsSingleExceptionalEventForExceptionalEventType(exceptionalEvent, handler, throwingState, exceptionalEventClass);
+        }
+        boolean handlementFound = false;
+        int[] exceptionalEventTypeIds = handlementsByExceptionalEventType.getTypeIds(exceptionalEventClass);
+        if (exceptionalEventTypeIds == null) {
+            exceptionalEventTypeIds = handlementsByExceptionalEventType.cacheTypeIds(exceptionalEventClass,
+                    exceptionalEventInheritance ? lookupAllExceptionalEventTypes(exceptionalEventClass) :
+                            Collections.<Class<?>>singletonList(exceptionalEventClass));
+        }
+        for (int exceptionalEventTypeId : exceptionalEventTypeIds) {
+            handlementFound |= throwsSingleExceptionalEventForExceptionalEventType(exceptionalEvent, handler,
+                    throwingState, handlementsByExceptionalEventType.get(exceptionalEventTypeId));
         }
         if (!handlementFound) {
-            if (logNoHandlerMessages) {
-                logger.log(Level.FINE, "No handlers registered for exceptional event " + exceptionalEventClass);
+            if (cacheable) {
+                noHandlerExceptionalEventClasses.put(exceptionalEventClass, generation);
+            }
+            handleNoHandler(exceptionalEvent, exceptionalEventClass, true);
+        }
+    }
+
+    /**
+     * Post a specific exceptional event for the handlements of the frozen registry, see {@link #freeze()}.
+     *
+     * @param exceptionalEvent
+     * @param throwingState
+     * @param frozen
+     */
+    private void throwSingleExceptionalEvent(Object exceptionalEvent, ThrowingThreadState throwingState,
+                                             FrozenRegistry frozen) {
+        Class<?> exceptionalEventClass = exceptionalEvent.getClass();
+        Handlement[][] handlementsByType = frozen.getHandlements(exceptionalEventClass);
+        boolean resolved = handlementsByType != null;
+        if (!resolved) {
+            handlementsByType = frozen.resolveHandlements(exceptionalEventClass, exceptionalEventInheritance ?
+                    lookupAllExceptionalEventTypes(exceptionalEventClass) :
+                    Collections.<Class<?>>singletonList(exceptionalEventClass));
+        }
+        boolean dynamic = dynamicHandlementCount.get() != 0;
+        if (handlementsByType.length == 0 && !dynamic) {
+            handleNoHandler(exceptionalEvent, exceptionalEventClass, !resolved);
+            return;
+        }
+        for (Handlement[] handlements : handlementsByType) {
+            for (Handlement handlement : handlements) {
+                if (throwSingleExceptionalEventToHandlement(exceptionalEvent, throwingState, handlement)) {
+                    break;
+                }
             }
-            if (sendNoHandlerExceptionalEvent && exceptionalEventClass != NoHandlerExceptionalEvent.class &&
-                    exceptionalEventClass != HandlerExceptionExceptionalEvent.class) {
+        }
+        if (dynamic && !throwDynamicSingleExceptionalEvent(exceptionalEvent, throwingState) &&
+                handlementsByType.length == 0) {
+            handleNoHandler(exceptionalEvent, exceptionalEventClass, !resolved);
+        }
+    }
+
+    /**
+     * Post a specific exceptional event for the handlements added after {@link #freeze()}.
+     *
+     * @param exceptionalEvent
+     * @param throwingState
+     * @return whether there were handlements for the exceptional event
+     */
+    private boolean throwDynamicSingleExceptionalEvent(Object exceptionalEvent, ThrowingThreadState throwingState) {
+        Class<?> exceptionalEventClass = exceptionalEvent.getClass();
+        int[] exceptionalEventTypeIds = dynamicHandlementsByExceptionalEventType.getTypeIds(exceptionalEventClass);
+        if (exceptionalEventTypeIds == null) {
+            exceptionalEventTypeIds = dynamicHandlementsByExceptionalEventType.cacheTypeIds(exceptionalEventClass,
+                    exceptionalEventInheritance ? lookupAllExceptionalEventTypes(exceptionalEventClass) :
+                            Collections.<Class<?>>singletonList(exceptionalEventClass));
+        }
+        boolean handlementFound = false;
+        for (int exceptionalEventTypeId : exceptionalEventTypeIds) {
+            handlementFound |= throwsSingleExceptionalEventForExceptionalEventType(exceptionalEvent, null,
+                    throwingState, dynamicHandlementsByExceptionalEventType.get(exceptionalEventTypeId));
+        }
+        return handlementFound;
+    }
+
+    /**
+     * Logs and throws the NoHandlerExceptionalEvent (or its summary) for an exceptional event nobody received.
+     *
+     * @param exceptionalEvent
+     * @param exceptionalEventClass
+     * @param log false if the exceptional event class was found in the cache of classes without handlers, which was
+     *            logged when it was added
+     */
+    private void handleNoHandler(Object exceptionalEvent, Class<?> exceptionalEventClass, boolean log) {
+        if (metrics != null) {
+            metrics.onNoHandler(exceptionalEventClass);
+        }
+        if (log && logNoHandlerMessages) {
+            logger.log(Level.FINE, "No handlers registered for exceptional event {}", exceptionalEventClass);
+        }
+        if (sendNoHandlerExceptionalEvent && exceptionalEventClass != NoHandlerExceptionalEvent.class &&
+                exceptionalEventClass != HandlerExceptionExceptionalEvent.class &&
+                exceptionalEventClass != NoHandlerSummaryExceptionalEvent.class) {
+            if (noHandlerCounter != null) {
+                NoReceiverCounter.Period period = noHandlerCounter.count(exceptionalEventClass);
+                if (period != null) {
+                    throwException(new NoHandlerSummaryExceptionalEvent(this, period.counts, period.millis));
+                }
+            } else if (!isKnownWithoutHandlers(NoHandlerExceptionalEvent.class)) {
                 throwException(new NoHandlerExceptionalEvent(this, exceptionalEvent));
             }
         }
     }
 
+    /**
+     * Like {@link #isKnownWithoutSubscribers(Class)}, for exceptional events.
+     *
+     * @param exceptionalEventClass
+     * @return
+     */
+    private boolean isKnownWithoutHandlers(Class<?> exceptionalEventClass) {
+        FrozenRegistry frozen = frozenRegistry;
+        if (frozen != null) {
+            Handlement[][] handlementsByType = frozen.getHandlements(exceptionalEventClass);
+            return handlementsByType != null && handlementsByType.length == 0 && dynamicHandlementCount.get() == 0;
+        } else if (startMechanismEnabled) {
+            return false;
+        }
+        Integer cachedGeneration = noHandlerExceptionalEventClasses.get(exceptionalEventClass);
+        return cachedGeneration != null && cachedGeneration == handlementGeneration.get();
+    }
+
     /**
      *
      * @param event
      * @param postingState
-     * @param eventClass
+     * @param subscriptions the subscriptions of one of the event's types, or null
      * @return
      */
-    private boolean postSingleEventForEventType(Object event, Object subscriber, PostingThreadState postingState, Class<?> eventClass) {
-        CopyOnWriteArrayList<Subscription> subscriptions;
-        synchronized (this) {
-            subscriptions = subscriptionsByEventType.get(eventClass);
-        }
+    private boolean postSingleEventForEventType(Object event, Object subscriber, PostingThreadState postingState,
+                                                CopyOnWriteArrayList<Subscription> subscriptions) {
         if (subscriptions != null && !subscriptions.isEmpty()) {
             for (Subscription subscription : subscriptions) {
-                if(postingState.isLate && subscriber != null && !subscription.subscriber.equals(subscriber))
+                if(postingState.isLate && subscriber != null && !subscriber.equals(subscription.getSubscriber()))
                     continue;
 
-                postingState.event = event;
-                postingState.subscription = subscription;
-                boolean aborted;
-                try {
-                    postToSubscription(subscription, event, postingState.isMainThread);
-                    aborted = postingState.canceled;
-                } finally {
-                    postingState.event = null;
-                    postingState.subscription = null;
-                    postingState.canceled = false;
-                }
-                if (aborted) {
+                if (postSingleEventToSubscription(event, postingState, subscription)) {
                     break;
                 }
             }
@@ -1301,35 +2526,43 @@ public class EventBus {
         return false;
     }
 
+    /**
+     *
+     * @param event
+     * @param postingState
+     * @param subscription
+     * @return true if the delivery of the event was canceled by the subscriber
+     */
+    private boolean postSingleEventToSubscription(Object event, PostingThreadState postingState,
+                                                  Subscription subscription) {
+        postingState.event = event;
+        postingState.subscription = subscription;
+        try {
+            postToSubscription(subscription, event, postingState.isMainThread);
+            return postingState.canceled;
+        } finally {
+            postingState.event = null;
+            postingState.subscription = null;
+            postingState.canceled = false;
+        }
+    }
+
     /**
      *
      * @param exceptionalEvent
      * @param throwingState
-     * @param exceptionalEventClass
+     * @param handlements the handlements of one of the exceptional event's types, or null
      * @return
      */
-    private boolean throwsSingleExceptionalEventForExceptionalEventType(Object exceptionalEvent, Object handler, ThrowingThreadState throwingState, Class<?> exceptionalEventClass) {
-        CopyOnWriteArrayList<Handlement> handlements;
-        synchronized (this) {
-            handlements = handlementsByExceptionalEventType.get(exceptionalEventClass);
-        }
+    private boolean throwsSingleExceptionalEventForExceptionalEventType(Object exceptionalEvent, Object handler,
+                                                                        ThrowingThreadState throwingState,
+                                                                        CopyOnWriteArrayList<Handlement> handlements) {
         if (handlements != null && !handlements.isEmpty()) {
             for (Handlement handlement : handlements) {
-                if(throwingState.isLate && handler != null && !handlement.handler.equals(handler))
+                if(throwingState.isLate && handler != null && !handler.equals(handlement.getHandler()))
                     continue;
 
-                throwingState.exceptionalEvent = exceptionalEvent;
-                throwingState.handlement = handlement;
-                boolean aborted;
-                try {
-                    throwsToHandlement(handlement, exceptionalEvent, throwingState.isMainThread);
-                    aborted = throwingState.canceled;
-                } finally {
-                    throwingState.exceptionalEvent = null;
-                    throwingState.handlement = null;
-                    throwingState.canceled = false;
-                }
-                if (aborted) {
+                if (throwSingleExceptionalEventToHandlement(exceptionalEvent, throwingState, handlement)) {
                     break;
                 }
             }
@@ -1338,6 +2571,27 @@ public class EventBus {
         return false;
     }
 
+    /**
+     *
+     * @param exceptionalEvent
+     * @param throwingState
+     * @param handlement
+     * @return true if the delivery of the exceptional event was canceled by the handler
+     */
+    private boolean throwSingleExceptionalEventToHandlement(Object exceptionalEvent, ThrowingThreadState throwingState,
+                                                            Handlement handlement) {
+        throwingState.exceptionalEvent = exceptionalEvent;
+        throwingState.handlement = handlement;
+        try {
+            throwsToHandlement(handlement, exceptionalEvent, throwingState.isMainThread);
+            return throwingState.canceled;
+        } finally {
+            throwingState.exceptionalEvent = null;
+            throwingState.handlement = null;
+            throwingState.canceled = false;
+        }
+    }
+
     /**
      * Checks if there is any registered subscriber object to be invoked to process the event.
      *
@@ -1412,10 +2666,8 @@ public class EventBus {
      */
     private boolean hasSubscriptionForEventType(Class<?> eventClass) {
         CopyOnWriteArrayList<Subscription> subscriptions = null;
-        synchronized (this) {
-            subscriptions = subscriptionsByEventType.get(eventClass);
-            return subscriptions != null && !subscriptions.isEmpty();
-        }
+        subscriptions = subscriptionsByEventType.get(eventClass);
+        return subscriptions != null && !subscriptions.isEmpty();
     }
 
     /**
@@ -1426,10 +2678,8 @@ public class EventBus {
      */
     private boolean hasHandlementForExceptionalEventType(Class<?> exceptionalEventClass) {
         CopyOnWriteArrayList<Handlement> handlements = null;
-        synchronized (this) {
-            handlements = handlementsByExceptionalEventType.get(exceptionalEventClass);
-            return handlements != null && !handlements.isEmpty();
-        }
+        handlements = handlementsByExceptionalEventType.get(exceptionalEventClass);
+        return handlements != null && !handlements.isEmpty();
     }
 
     /**
@@ -1585,16 +2835,14 @@ public class EventBus {
      */
     private boolean isSubscriberForEventType(Object subscriber, Class<?> eventClass) {
         CopyOnWriteArrayList<Subscription> subscriptions;
-        synchronized (this) {
-            subscriptions = subscriptionsByEventType.get(eventClass);
-            if(subscriptions != null && !subscriptions.isEmpty()) {
-                for(Subscription subscription : subscriptions) {
-                    if(subscription.subscriber.equals(subscriber))
-                        return true;
-                }
+        subscriptions = subscriptionsByEventType.get(eventClass);
+        if(subscriptions != null && !subscriptions.isEmpty()) {
+            for(Subscription subscription : subscriptions) {
+                if(subscriber.equals(subscription.getSubscriber()))
+                    return true;
             }
-            return false;
         }
+        return false;
     }
 
     /**
@@ -1606,16 +2854,14 @@ public class EventBus {
      */
     private boolean isHandlerForExceptionalEventType(Object handler, Class<?> exceptionalEventClass) {
         CopyOnWriteArrayList<Handlement> handlements;
-        synchronized (this) {
-            handlements = handlementsByExceptionalEventType.get(exceptionalEventClass);
-            if(handlements != null && !handlements.isEmpty()) {
-                for(Handlement handlement : handlements) {
-                    if(handlement.handler.equals(handler))
-                        return true;
-                }
+        handlements = handlementsByExceptionalEventType.get(exceptionalEventClass);
+        if(handlements != null && !handlements.isEmpty()) {
+            for(Handlement handlement : handlements) {
+                if(handler.equals(handlement.getHandler()))
+                    return true;
             }
-            return false;
         }
+        return false;
     }
 
     private boolean isRegisteredSubscriberClassForEvent(Class<?> subscriberClass, Object event) {
@@ -1635,16 +2881,14 @@ public class EventBus {
 
     private boolean isRegisteredSubscriberClassForEventType(Class<?> subscriberClassType, Class<?> eventClass) {
         CopyOnWriteArrayList<Subscription> subscriptions;
-        synchronized (this) {
-            subscriptions = subscriptionsByEventType.get(eventClass);
-            if(subscriptions != null && !subscriptions.isEmpty()) {
-                for(Subscription subscription : subscriptions) {
-                    if(subscription.subscriber.getClass().equals(subscriberClassType))
-                        return true;
-                }
+        subscriptions = subscriptionsByEventType.get(eventClass);
+        if(subscriptions != null && !subscriptions.isEmpty()) {
+            for(Subscription subscription : subscriptions) {
+                if(subscription.subscriberClass.equals(subscriberClassType))
+                    return true;
             }
-            return false;
         }
+        return false;
     }
 
     private boolean isRegisteredHandlerClassForExceptionalEvent(Class<?> handlerClass, Object exceptionalEvent) {
@@ -1664,16 +2908,14 @@ public class EventBus {
 
     private boolean isRegisteredHandlerClassForExceptionalEventType(Class<?> handlerClassType, Class<?> exceptionalEventClass) {
         CopyOnWriteArrayList<Handlement> handlements;
-        synchronized (this) {
-            handlements = handlementsByExceptionalEventType.get(exceptionalEventClass);
-            if(handlements != null && !handlements.isEmpty()) {
-                for(Handlement handlement : handlements) {
-                    if(handlement.handler.getClass().equals(handlerClassType))
-                        return true;
-                }
+        handlements = handlementsByExceptionalEventType.get(exceptionalEventClass);
+        if(handlements != null && !handlements.isEmpty()) {
+            for(Handlement handlement : handlements) {
+                if(handlement.handlerClass.equals(handlerClassType))
+                    return true;
             }
-            return false;
         }
+        return false;
     }
 
     /**
@@ -2105,8 +3347,10 @@ public class EventBus {
     }
 
     private boolean isEventTypeMappedForActionMode(Class<?> eventClass, ActionMode actionMode) {
-        CopyOnWriteArrayList<SubscriberClass> subscriberClasses =
-                mappedSubscriberClassesByEventType.get(eventClass);
+        CopyOnWriteArrayList<SubscriberClass> subscriberClasses;
+        synchronized (this) {
+            subscriberClasses = mappedSubscriberClassesByEventType.get(eventClass);
+        }
         if (subscriberClasses != null && !subscriberClasses.isEmpty()) {
             for (SubscriberClass subscriberClass : subscriberClasses) {
                 if (ActionMode.isTypeEnableFor(subscriberClass.subscriberClass, actionMode)
@@ -2119,8 +3363,10 @@ public class EventBus {
     }
 
     private boolean isExceptionalEventTypeMappedForExceptionalActionMode(Class<?> exceptionalEventClass, ExceptionalActionMode exceptionalActionMode) {
-        CopyOnWriteArrayList<HandlerClass> handlerClasses =
-                mappedHandlerClassesByExceptionalEventType.get(exceptionalEventClass);
+        CopyOnWriteArrayList<HandlerClass> handlerClasses;
+        synchronized (this) {
+            handlerClasses = mappedHandlerClassesByExceptionalEventType.get(exceptionalEventClass);
+        }
         if (handlerClasses != null && !handlerClasses.isEmpty()) {
             for (HandlerClass handlerClass : handlerClasses) {
                 if (ExceptionalActionMode.isTypeEnableFor(handlerClass.handlerClass, exceptionalActionMode)
@@ -2138,9 +3384,10 @@ public class EventBus {
      * @param eventClass
      * @return
      */
-    private static List<Class<?>> lookupAllEventTypes(Class<?> eventClass) {
-        synchronized (eventTypesCache) {
-            List<Class<?>> eventTypes = eventTypesCache.get(eventClass);
+    private List<Class<?>> lookupAllEventTypes(Class<?> eventClass) {
+        List<Class<?>> eventTypes = eventTypesCache.get(eventClass);
+        if (eventTypes == null) {
+            eventTypes = getIndexedEventTypeHierarchy(eventClass);
             if (eventTypes == null) {
                 eventTypes = new ArrayList<>();
                 Class<?> clazz = eventClass;
@@ -2149,10 +3396,11 @@ public class EventBus {
                     addInterfaces(eventTypes, clazz.getInterfaces());
                     clazz = clazz.getSuperclass();
                 }
-                eventTypesCache.put(eventClass, eventTypes);
             }
-            return eventTypes;
+            // Racing threads compute equal lists, so the last one may win
+            eventTypesCache.put(eventClass, eventTypes);
         }
+        return eventTypes;
     }
 
     /**
@@ -2161,9 +3409,10 @@ public class EventBus {
      * @param exceptionalEventClass
      * @return
      */
-    private static List<Class<?>> lookupAllExceptionalEventTypes(Class<?> exceptionalEventClass) {
-        synchronized (exceptionalEventTypesCache) {
-            List<Class<?>> exceptionalEventTypes = exceptionalEventTypesCache.get(exceptionalEventClass);
+    private List<Class<?>> lookupAllExceptionalEventTypes(Class<?> exceptionalEventClass) {
+        List<Class<?>> exceptionalEventTypes = exceptionalEventTypesCache.get(exceptionalEventClass);
+        if (exceptionalEventTypes == null) {
+            exceptionalEventTypes = getIndexedEventTypeHierarchy(exceptionalEventClass);
             if (exceptionalEventTypes == null) {
                 exceptionalEventTypes = new ArrayList<>();
                 Class<?> clazz = exceptionalEventClass;
@@ -2172,10 +3421,30 @@ public class EventBus {
                     addInterfaces(exceptionalEventTypes, clazz.getInterfaces());
                     clazz = clazz.getSuperclass();
                 }
-                exceptionalEventTypesCache.put(exceptionalEventClass, exceptionalEventTypes);
             }
-            return exceptionalEventTypes;
+            // Racing threads compute equal lists, so the last one may win
+            exceptionalEventTypesCache.put(exceptionalEventClass, exceptionalEventTypes);
+        }
+        return exceptionalEventTypes;
+    }
+
+    /**
+     * Looks up the type hierarchy precomputed by the generated indexes, avoiding reflection on the first post or
+     * throw of the given type.
+     *
+     * @param eventClass
+     * @return the hierarchy, or null if no index knows the given type
+     */
+    private List<Class<?>> getIndexedEventTypeHierarchy(Class<?> eventClass) {
+        if (eventTypeHierarchyIndexes != null) {
+            for (EventTypeHierarchyIndex index : eventTypeHierarchyIndexes) {
+                Class<?>[] hierarchy = index.getEventTypeHierarchy(eventClass);
+                if (hierarchy != null) {
+                    return new ArrayList<>(Arrays.asList(hierarchy));
+                }
+            }
         }
+        return null;
     }
 
     /**
@@ -2193,6 +3462,59 @@ public class EventBus {
         }
     }
 
+    /**
+     * Called by posters when queuing an event; returns the timestamp for {@link PendingPost#enqueueNanos}, which is
+     * {@link #NOT_TIMED} if neither metrics nor the tracer need it, to save the call to {@link System#nanoTime()}.
+     *
+     * @param subscription
+     * @param event
+     */
+    long recordEnqueue(Subscription subscription, Object event) {
+        boolean timed = metrics != null;
+        if (tracer != null && tracer.onSubscriberEnqueued(event.getClass(), subscription.subscriberClass,
+                subscription.subscriberMethod.threadMode)) {
+            timed = true;
+        }
+        return timed ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Called by throwers when queuing an exceptional event; returns the timestamp for
+     * {@link PendingThrow#enqueueNanos}, which is {@link #NOT_TIMED} if neither metrics nor the tracer need it, to
+     * save the call to {@link System#nanoTime()}.
+     *
+     * @param handlement
+     * @param exceptionalEvent
+     */
+    long recordEnqueue(Handlement handlement, Object exceptionalEvent) {
+        boolean timed = metrics != null;
+        if (tracer != null && tracer.onHandlerEnqueued(exceptionalEvent.getClass(), handlement.handlerClass,
+                handlement.handlerMethod.threadMode)) {
+            timed = true;
+        }
+        return timed ? System.nanoTime() : NOT_TIMED;
+    }
+
+    private void recordDequeue(Subscription subscription, Object event, long queuedNanos) {
+        ThreadMode threadMode = subscription.subscriberMethod.threadMode;
+        if (metrics != null) {
+            metrics.onSubscriberDequeued(event.getClass(), threadMode, queuedNanos);
+        }
+        if (tracer != null) {
+            tracer.onSubscriberDequeued(event.getClass(), subscription.subscriberClass, threadMode, queuedNanos);
+        }
+    }
+
+    private void recordDequeue(Handlement handlement, Object exceptionalEvent, long queuedNanos) {
+        ExceptionalThreadMode threadMode = handlement.handlerMethod.threadMode;
+        if (metrics != null) {
+            metrics.onHandlerDequeued(exceptionalEvent.getClass(), threadMode, queuedNanos);
+        }
+        if (tracer != null) {
+            tracer.onHandlerDequeued(exceptionalEvent.getClass(), handlement.handlerClass, threadMode, queuedNanos);
+        }
+    }
+
     /**
      * Invokes the subscriber if the subscriptions is still active. Skipping subscriptions prevents race conditions
      * between {@link #unregisterSubscriber(Object)} and event delivery. Otherwise the event might be delivered after the
@@ -2204,6 +3526,9 @@ public class EventBus {
     void invokeSubscriber(PendingPost pendingPost) {
         Object event = pendingPost.event;
         Subscription subscription = pendingPost.subscription;
+        if (pendingPost.enqueueNanos != NOT_TIMED) {
+            recordDequeue(subscription, event, System.nanoTime() - pendingPost.enqueueNanos);
+        }
         PendingPost.releasePendingPost(pendingPost);
         if (subscription.active) {
             invokeSubscriber(subscription, event);
@@ -2221,6 +3546,9 @@ public class EventBus {
     void invokeHandler(PendingThrow pendingThrow) {
         Object exceptionalEvent = pendingThrow.exceptionalEvent;
         Handlement handlement = pendingThrow.handlement;
+        if (pendingThrow.enqueueNanos != NOT_TIMED) {
+            recordDequeue(handlement, exceptionalEvent, System.nanoTime() - pendingThrow.enqueueNanos);
+        }
         PendingThrow.releasePendingThrow(pendingThrow);
         if (handlement.active) {
             invokeHandler(handlement, exceptionalEvent);
@@ -2233,13 +3561,65 @@ public class EventBus {
      * @param subscription
      * @param event
      */
-    void invokeSubscriber(Subscription subscription, Object event) {
+    void invokeSubscriber(Subscription subscription, Object event) {
+        Object subscriber = subscription.getSubscriber();
+        if (subscriber == null) {
+            // Weakly registered and collected, but not purged yet
+            schedulePurge();
+            return;
+        }
+        if (metrics != null || tracer != null || slowSubscriberWatchdog != null) {
+            invokeSubscriberInstrumented(subscription, subscriber, event);
+            return;
+        }
+        try {
+            subscription.subscriberMethod.invoke(subscriber, event);
+        } catch (InvocationTargetException e) {
+            handleSubscriberException(subscription.subscriberClass, subscriber, event, e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unexpected exception", e);
+        }
+    }
+
+    /**
+     * Like {@link #invokeSubscriber(Subscription, Object)}, reporting to the metrics and tracer and watched by the
+     * slow subscriber watchdog (except for {@link ThreadMode#ASYNC}). The time excludes processing a subscriber
+     * exception, which may post further events.
+     *
+     * @param subscription
+     * @param subscriber
+     * @param event
+     */
+    private void invokeSubscriberInstrumented(Subscription subscription, Object subscriber, Object event) {
+        ThreadMode threadMode = subscription.subscriberMethod.threadMode;
+        Object token = tracer != null ?
+                tracer.beginSubscriberInvocation(event.getClass(), subscription.subscriberClass, threadMode) : null;
+        SlowSubscriberWatchdog.Watch watch = slowSubscriberWatchdog != null && threadMode != ThreadMode.ASYNC ?
+                slowSubscriberWatchdog.begin(getDispatchState(), subscription, event) : null;
+        long start = metrics != null ? System.nanoTime() : 0;
+        Throwable cause = null;
         try {
-            subscription.subscriberMethod.method.invoke(subscription.subscriber, event);
+            subscription.subscriberMethod.invoke(subscriber, event);
         } catch (InvocationTargetException e) {
-            handleSubscriberException(subscription, event, e.getCause());
+            cause = e.getCause();
         } catch (IllegalAccessException e) {
             throw new IllegalStateException("Unexpected exception", e);
+        } finally {
+            if (watch != null) {
+                watch.end();
+            }
+            if (tracer != null) {
+                tracer.endSubscriberInvocation(token);
+            }
+        }
+        if (metrics != null) {
+            metrics.onSubscriberInvoked(event.getClass(), threadMode, System.nanoTime() - start);
+            if (cause != null) {
+                metrics.onSubscriberException(event.getClass(), threadMode);
+            }
+        }
+        if (cause != null) {
+            handleSubscriberException(subscription.subscriberClass, subscriber, event, cause);
         }
     }
 
@@ -2250,43 +3630,106 @@ public class EventBus {
      * @param exceptionalEvent
      */
     void invokeHandler(Handlement handlement, Object exceptionalEvent) {
+        Object handler = handlement.getHandler();
+        if (handler == null) {
+            // Weakly registered and collected, but not purged yet
+            schedulePurge();
+            return;
+        }
+        if (metrics != null || tracer != null) {
+            invokeHandlerInstrumented(handlement, handler, exceptionalEvent);
+            return;
+        }
+        try {
+            handlement.handlerMethod.invoke(handler, exceptionalEvent);
+        } catch (InvocationTargetException e) {
+            handleHandlerException(handlement, handler, exceptionalEvent, e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unexpected exception", e);
+        }
+    }
+
+    /**
+     * Like {@link #invokeHandler(Handlement, Object)}, reporting to the metrics and tracer. The time excludes
+     * processing a handler exception, which may throw further exceptional events.
+     *
+     * @param handlement
+     * @param handler
+     * @param exceptionalEvent
+     */
+    private void invokeHandlerInstrumented(Handlement handlement, Object handler, Object exceptionalEvent) {
+        ExceptionalThreadMode threadMode = handlement.handlerMethod.threadMode;
+        Object token = tracer != null ?
+                tracer.beginHandlerInvocation(exceptionalEvent.getClass(), handlement.handlerClass, threadMode) : null;
+        long start = metrics != null ? System.nanoTime() : 0;
+        Throwable cause = null;
         try {
-            handlement.handlerMethod.method.invoke(handlement.handler, exceptionalEvent);
+            handlement.handlerMethod.invoke(handler, exceptionalEvent);
         } catch (InvocationTargetException e) {
-            handleHandlerException(handlement, exceptionalEvent, e.getCause());
+            cause = e.getCause();
         } catch (IllegalAccessException e) {
             throw new IllegalStateException("Unexpected exception", e);
+        } finally {
+            if (tracer != null) {
+                tracer.endHandlerInvocation(token);
+            }
+        }
+        if (metrics != null) {
+            metrics.onHandlerInvoked(exceptionalEvent.getClass(), threadMode, System.nanoTime() - start);
+            if (cause != null) {
+                metrics.onHandlerException(exceptionalEvent.getClass(), threadMode);
+            }
+        }
+        if (cause != null) {
+            handleHandlerException(handlement, handler, exceptionalEvent, cause);
+        }
+    }
+
+    /**
+     * Processes an exception thrown by a subscriber method which a generated static bus called directly, like one
+     * caught during invocation by the bus.
+     *
+     * @param subscriber
+     * @param event
+     * @param cause
+     */
+    protected final void handleDirectSubscriberException(Object subscriber, Object event, Throwable cause) {
+        if (metrics != null) {
+            // Generated direct calls are always made on the posting thread
+            metrics.onSubscriberException(event.getClass(), ThreadMode.POSTING);
         }
+        handleSubscriberException(subscriber.getClass(), subscriber, event, cause);
     }
 
     /**
      * Process exception caught during invocation of the subscriber.
      *
-     * @param subscription
+     * @param subscriberClass
+     * @param subscriber
      * @param event
      * @param cause
      */
-    private void handleSubscriberException(Subscription subscription, Object event, Throwable cause) {
+    private void handleSubscriberException(Class<?> subscriberClass, Object subscriber, Object event, Throwable cause) {
         if (event instanceof SubscriberExceptionEvent) {
             if (logSubscriberExceptions) {
                 // Don't send another SubscriberExceptionEvent to avoid infinite event recursion, just log
-                logger.log(Level.SEVERE, "SubscriberExceptionEvent subscriber " + subscription.subscriber.getClass()
-                        + " threw an exception", cause);
+                logger.log(Level.SEVERE, "SubscriberExceptionEvent subscriber {} threw an exception",
+                        subscriberClass, cause);
                 SubscriberExceptionEvent exEvent = (SubscriberExceptionEvent) event;
-                logger.log(Level.SEVERE, "Initial event " + exEvent.causingEvent + " caused exception in "
-                        + exEvent.causingSubscriber, exEvent.throwable);
+                logger.log(Level.SEVERE, "Initial event {} caused exception in {}", exEvent.causingEvent,
+                        exEvent.causingSubscriber, exEvent.throwable);
             }
         } else {
             if (throwSubscriberException) {
                 throw new EventBusException("Invoking subscriber failed", cause);
             }
             if (logSubscriberExceptions) {
-                logger.log(Level.SEVERE, "Could not dispatch event: " + event.getClass() + " to subscribing class "
-                        + subscription.subscriber.getClass(), cause);
+                logger.log(Level.SEVERE, "Could not dispatch event: {} to subscribing class {}", event.getClass(),
+                        subscriberClass, cause);
             }
             if (sendSubscriberExceptionEvent) {
                 SubscriberExceptionEvent exEvent = new SubscriberExceptionEvent(this, cause, event,
-                        subscription.subscriber);
+                        subscriber);
                 post(exEvent);
             }
         }
@@ -2296,30 +3739,32 @@ public class EventBus {
      * Process exception caught during invocation of the handler.
      *
      * @param handlement
+     * @param handler
      * @param exceptionalEvent
      * @param cause
      */
-    private void handleHandlerException(Handlement handlement, Object exceptionalEvent, Throwable cause) {
+    private void handleHandlerException(Handlement handlement, Object handler, Object exceptionalEvent, Throwable cause) {
         if (exceptionalEvent instanceof HandlerExceptionExceptionalEvent) {
             if (logHandlerExceptions) {
                 // Don't send another HandlerExceptionExceptionalEvent to avoid infinite exceptional event recursion, just log.
-                logger.log(Level.SEVERE, "HandlerExceptionExceptionalEvent handler " + handlement.handler.getClass()
-                        + " threw an exception", cause);
+                logger.log(Level.SEVERE, "HandlerExceptionExceptionalEvent handler {} threw an exception",
+                        handlement.handlerClass, cause);
                 HandlerExceptionExceptionalEvent exExceptionalEvent = (HandlerExceptionExceptionalEvent) exceptionalEvent;
-                logger.log(Level.SEVERE, "Initial exceptional event " + exExceptionalEvent.causingExceptionalEvent + " caused exception in "
-                        + exExceptionalEvent.causingHandler, exExceptionalEvent.throwable);
+                logger.log(Level.SEVERE, "Initial exceptional event {} caused exception in {}",
+                        exExceptionalEvent.causingExceptionalEvent, exExceptionalEvent.causingHandler,
+                        exExceptionalEvent.throwable);
             }
         } else {
             if (throwHandlerException) {
                 throw new EventBusException("Invoking handler failed", cause);
             }
             if (logHandlerExceptions) {
-                logger.log(Level.SEVERE, "Could not dispatch exceptional event: " + exceptionalEvent.getClass() + " to handling class "
-                        + handlement.handler.getClass(), cause);
+                logger.log(Level.SEVERE, "Could not dispatch exceptional event: {} to handling class {}",
+                        exceptionalEvent.getClass(), handlement.handlerClass, cause);
             }
             if (sendHandlerExceptionExceptionalEvent) {
                 HandlerExceptionExceptionalEvent exExceptionalEvent = new HandlerExceptionExceptionalEvent(this, cause, exceptionalEvent,
-                        handlement.handler);
+                        handler);
                 throwException(exExceptionalEvent);
             }
         }
@@ -2329,8 +3774,8 @@ public class EventBus {
      * For ThreadLocal, much faster to set (and get multiple values).
      */
     final static class PostingThreadState {
-        final List<Object> eventQueue = new ArrayList<>();
-        final HashMap<Class<?>, ArrayList<Object>> eventSubscriberQueue = new HashMap<Class<?>, ArrayList<Object>>();
+        final ArrayDeque<Object> eventQueue = new ArrayDeque<>();
+        final HashMap<Class<?>, ArrayDeque<Object>> eventSubscriberQueue = new HashMap<Class<?>, ArrayDeque<Object>>();
         boolean isPosting;
         boolean isMainThread;
         boolean isLate;
@@ -2352,8 +3797,8 @@ public class EventBus {
      * For ThreadLocal, much faster to set (and get multiple values).
      */
     final static class ThrowingThreadState {
-        final List<Object> exceptionalEventQueue = new ArrayList<>();
-        final HashMap<Class<?>, ArrayList<Object>> exceptionalEventHandlerQueue = new HashMap<Class<?>, ArrayList<Object>>();
+        final ArrayDeque<Object> exceptionalEventQueue = new ArrayDeque<>();
+        final HashMap<Class<?>, ArrayDeque<Object>> exceptionalEventHandlerQueue = new HashMap<Class<?>, ArrayDeque<Object>>();
         boolean isThrowing;
         boolean isMainThread;
         boolean isLate;
@@ -2371,6 +3816,39 @@ public class EventBus {
         }
     }
 
+    /**
+     * All dispatch state of one thread, so a post needs a single lookup.
+     */
+    final static class DispatchState {
+        final PostingThreadState immediatePosting = new PostingThreadState(false);
+        final ThrowingThreadState immediateThrowing = new ThrowingThreadState(false);
+        final PostingThreadState latePosting = new PostingThreadState(true);
+        final ThrowingThreadState lateThrowing = new ThrowingThreadState(true);
+        /** Created on the first watched invocation, see {@link SlowSubscriberWatchdog}. */
+        SlowSubscriberWatchdog.Watch slowSubscriberWatch;
+    }
+
+    /**
+     * Returns the dispatch state of the current thread. Threads created by a {@link DispatchThreadFactory} keep the
+     * state of the first bus using them in a field, which avoids the thread local lookup.
+     */
+    private DispatchState getDispatchState() {
+        Thread thread = Thread.currentThread();
+        if (thread instanceof DispatchThreadFactory.DispatchThread) {
+            DispatchThreadFactory.DispatchThread dispatchThread = (DispatchThreadFactory.DispatchThread) thread;
+            if (dispatchThread.eventBus == this) {
+                return dispatchThread.dispatchState;
+            } else if (dispatchThread.eventBus == null) {
+                // Only accessed by the thread itself
+                DispatchState dispatchState = new DispatchState();
+                dispatchThread.dispatchState = dispatchState;
+                dispatchThread.eventBus = this;
+                return dispatchState;
+            }
+        }
+        return currentDispatchState.get();
+    }
+
     /**
      * Get method for executorService.
      *
@@ -2380,6 +3858,532 @@ public class EventBus {
         return executorService;
     }
 
+    /**
+     * Returns the key of the given object in typesBySubscriber or typesByHandler, which also selects its registration
+     * lock.
+     */
+    private Object getRegistryKey(Object subscriberOrHandler, boolean handler) {
+        return weakRegistration ? new RegistrationKey(subscriberOrHandler, handler, null) : subscriberOrHandler;
+    }
+
+    /**
+     * Returns the key to register the subscriber weakly with: the key of its existing registrations, which all share
+     * it so the subscriber is purged at once when collected, or a new key.
+     *
+     * Important: Must be called holding the registration lock of the subscriber.
+     *
+     * @param subscriber
+     * @param registryKey
+     */
+    private RegistrationKey getSubscriberKey(Object subscriber, Object registryKey) {
+        List<Class<?>> subscribedTypes = typesBySubscriber.get(registryKey);
+        if (subscribedTypes != null && !subscribedTypes.isEmpty()) {
+            Class<?> eventType = subscribedTypes.get(0);
+            // Entries added before freezing stay in subscriptionsByEventType
+            RegistrationKey subscriberKey = findSubscriberKey(subscriptionsByEventType.get(eventType), subscriber);
+            if (subscriberKey == null) {
+                subscriberKey = findSubscriberKey(dynamicSubscriptionsByEventType.get(eventType), subscriber);
+            }
+            if (subscriberKey != null) {
+                return subscriberKey;
+            }
+        }
+        return new RegistrationKey(subscriber, false, collectedRegistrations);
+    }
+
+    // @Nullable
+    private static RegistrationKey findSubscriberKey(List<Subscription> subscriptions, Object subscriber) {
+        if (subscriptions != null) {
+            for (Subscription subscription : subscriptions) {
+                if (subscription.subscriberKey != null && subscription.getSubscriber() == subscriber) {
+                    return subscription.subscriberKey;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Like {@link #getSubscriberKey(Object, Object)}, for handlers.
+     *
+     * Important: Must be called holding the registration lock of the handler.
+     *
+     * @param handler
+     * @param registryKey
+     */
+    private RegistrationKey getHandlerKey(Object handler, Object registryKey) {
+        List<Class<?>> handledTypes = typesByHandler.get(registryKey);
+        if (handledTypes != null && !handledTypes.isEmpty()) {
+            Class<?> exceptionalEventType = handledTypes.get(0);
+            RegistrationKey handlerKey =
+                    findHandlerKey(handlementsByExceptionalEventType.get(exceptionalEventType), handler);
+            if (handlerKey == null) {
+                handlerKey = findHandlerKey(dynamicHandlementsByExceptionalEventType.get(exceptionalEventType),
+                        handler);
+            }
+            if (handlerKey != null) {
+                return handlerKey;
+            }
+        }
+        return new RegistrationKey(handler, true, collectedRegistrations);
+    }
+
+    // @Nullable
+    private static RegistrationKey findHandlerKey(List<Handlement> handlements, Object handler) {
+        if (handlements != null) {
+            for (Handlement handlement : handlements) {
+                if (handlement.handlerKey != null && handlement.getHandler() == handler) {
+                    return handlement.handlerKey;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes weakly registered subscribers and handlers which were garbage collected without being unregistered.
+     * Drains at most one batch, so registering callers are not delayed for long.
+     *
+     * Important: Must not be called holding a registration lock, as it acquires those of the collected keys.
+     *
+     * @return whether more collected registrations may be pending
+     */
+    private boolean purgeCollectedRegistrations() {
+        if (collectedRegistrations == null) {
+            return false;
+        }
+        for (int i = 0; i < PURGE_BATCH_SIZE; i++) {
+            RegistrationKey key = (RegistrationKey) collectedRegistrations.poll();
+            if (key == null) {
+                return false;
+            }
+            ReentrantLock lock = registrationLocks.get(key);
+            lock.lock();
+            try {
+                if (key.handler) {
+                    List<Class<?>> handledTypes = typesByHandler.remove(key);
+                    if (handledTypes != null) {
+                        for (Class<?> exceptionalEventType : handledTypes) {
+                            unhandleByExceptionalEventType(key, exceptionalEventType);
+                        }
+                        purgedRegistrationCount.incrementAndGet();
+                    }
+                } else {
+                    List<Class<?>> subscribedTypes = typesBySubscriber.remove(key);
+                    if (subscribedTypes != null) {
+                        for (Class<?> eventType : subscribedTypes) {
+                            unsubscribeByEventType(key, eventType);
+                        }
+                        purgedRegistrationCount.incrementAndGet();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Purges collected registrations in the background, batch by batch. Called when delivery encounters a collected
+     * subscriber or handler.
+     */
+    private void schedulePurge() {
+        if (purgeScheduled.compareAndSet(false, true)) {
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    boolean pending;
+                    do {
+                        pending = purgeCollectedRegistrations();
+                    } while (pending);
+                    purgeScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Whether events are delivered to subscribers of their super types as well, see
+     * {@link EventBusBuilder#eventInheritance(boolean)}.
+     */
+    protected final boolean isEventInheritance() {
+        return eventInheritance;
+    }
+
+    /**
+     * Whether subscriptions were added after {@link #freeze()}, which are only delivered to by {@link #post(Object)}.
+     * Generated static buses check it before calling subscribers directly.
+     */
+    protected final boolean hasDynamicSubscriptions() {
+        return dynamicSubscriptionCount.get() != 0;
+    }
+
+    /**
+     * Returns a snapshot of registry sizes, queue sizes, pool and executor usage. It's taken without the locks used
+     * for dispatching or registration, so polling it (e.g. via {@link EventBusManagement}) doesn't slow down posting.
+     * Only the executor figures are read from a {@link ThreadPoolExecutor}, which briefly takes its own lock.
+     */
+    public BusStatistics getStatistics() {
+        BusStatistics statistics = new BusStatistics();
+        statistics.subscriberCount = typesBySubscriber.size();
+        int[] subscriptionCounts = subscriptionsByEventType.countEntries();
+        statistics.eventTypeCount = subscriptionCounts[0];
+        statistics.subscriptionCount = subscriptionCounts[1] + dynamicSubscriptionsByEventType.countEntries()[1];
+        statistics.stickyEventCount = stickyEvents.size();
+        statistics.handlerCount = typesByHandler.size();
+        int[] handlementCounts = handlementsByExceptionalEventType.countEntries();
+        statistics.exceptionalEventTypeCount = handlementCounts[0];
+        statistics.handlementCount = handlementCounts[1] + dynamicHandlementsByExceptionalEventType.countEntries()[1];
+        statistics.stickyExceptionalEventCount = stickyExceptionalEvents.size();
+
+        statistics.mainThreadQueueSize = mainThreadPoster != null ? mainThreadPoster.getQueueSize() : -1;
+        statistics.backgroundQueueSize = backgroundPoster.getQueueSize();
+        statistics.asyncQueueSize = asyncPoster.getQueueSize();
+        statistics.mainThreadThrowQueueSize = mainThreadThrower != null ? mainThreadThrower.getQueueSize() : -1;
+        statistics.backgroundThrowQueueSize = backgroundThrower.getQueueSize();
+        statistics.asyncThrowQueueSize = asyncThrower.getQueueSize();
+
+        statistics.pendingPostPoolHitCount = PendingPost.getPoolHitCount();
+        statistics.pendingPostPoolMissCount = PendingPost.getPoolMissCount();
+        statistics.pendingThrowPoolHitCount = PendingThrow.getPoolHitCount();
+        statistics.pendingThrowPoolMissCount = PendingThrow.getPoolMissCount();
+
+        if (executorService instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor executor = (ThreadPoolExecutor) executorService;
+            statistics.executorActiveCount = executor.getActiveCount();
+            statistics.executorPoolSize = executor.getPoolSize();
+            statistics.executorQueueSize = executor.getQueue().size();
+        } else {
+            statistics.executorActiveCount = -1;
+            statistics.executorPoolSize = -1;
+            statistics.executorQueueSize = -1;
+        }
+        return statistics;
+    }
+
+    /**
+     * Takes a read-only snapshot of how this bus is wired, for diagnostics without reflection on its fields: the
+     * subscriptions and handlements in dispatch order, the classes mapped for the start mechanism, sticky events, the
+     * late queues of the calling thread and the queue sizes of {@link #getStatistics()}. Locks guarding the registry
+     * are only held to copy a list each, so it may be used by production diagnostics, but it's no cheap per event
+     * operation.
+     */
+    public BusTopology getTopology() {
+        // Entries added after freezing follow the frozen entries of their type, as they are delivered after them
+        Map<Class<?>, List<SubscriptionInfo>> subscriptions = new HashMap<>();
+        addSubscriptionInfos(subscriptions, subscriptionsByEventType);
+        addSubscriptionInfos(subscriptions, dynamicSubscriptionsByEventType);
+        Map<Class<?>, List<HandlementInfo>> handlements = new HashMap<>();
+        addHandlementInfos(handlements, handlementsByExceptionalEventType);
+        addHandlementInfos(handlements, dynamicHandlementsByExceptionalEventType);
+
+        Map<Class<?>, List<SubscriptionInfo>> mappedSubscriberClasses = new HashMap<>();
+        Map<Class<?>, List<HandlementInfo>> mappedHandlerClasses = new HashMap<>();
+        synchronized (this) {
+            for (Map.Entry<Class<?>, CopyOnWriteArrayList<SubscriberClass>> entry :
+                    mappedSubscriberClassesByEventType.entrySet()) {
+                List<SubscriptionInfo> infos = new ArrayList<>();
+                for (SubscriberClass subscriberClass : entry.getValue()) {
+                    infos.add(new SubscriptionInfo(subscriberClass));
+                }
+                if (!infos.isEmpty()) {
+                    mappedSubscriberClasses.put(entry.getKey(), Collections.unmodifiableList(infos));
+                }
+            }
+            for (Map.Entry<Class<?>, CopyOnWriteArrayList<HandlerClass>> entry :
+                    mappedHandlerClassesByExceptionalEventType.entrySet()) {
+                List<HandlementInfo> infos = new ArrayList<>();
+                for (HandlerClass handlerClass : entry.getValue()) {
+                    infos.add(new HandlementInfo(handlerClass));
+                }
+                if (!infos.isEmpty()) {
+                    mappedHandlerClasses.put(entry.getKey(), Collections.unmodifiableList(infos));
+                }
+            }
+        }
+
+        Map<Class<?>, Object> sticky;
+        synchronized (stickyEvents) {
+            sticky = new HashMap<>(stickyEvents);
+        }
+        Map<Class<?>, Object> stickyExceptional;
+        synchronized (stickyExceptionalEvents) {
+            stickyExceptional = new HashMap<>(stickyExceptionalEvents);
+        }
+
+        // Late queues are only accessed by their own thread
+        DispatchState dispatchState = getDispatchState();
+        Map<Class<?>, Integer> lateEventCounts = new HashMap<>();
+        for (Map.Entry<Class<?>, ArrayDeque<Object>> entry :
+                dispatchState.latePosting.eventSubscriberQueue.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                lateEventCounts.put(entry.getKey(), entry.getValue().size());
+            }
+        }
+        Map<Class<?>, Integer> lateExceptionalEventCounts = new HashMap<>();
+        for (Map.Entry<Class<?>, ArrayDeque<Object>> entry :
+                dispatchState.lateThrowing.exceptionalEventHandlerQueue.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                lateExceptionalEventCounts.put(entry.getKey(), entry.getValue().size());
+            }
+        }
+
+        return new BusTopology(isFrozen(), sortedByClassName(subscriptions), sortedByClassName(handlements),
+                sortedByClassName(mappedSubscriberClasses), sortedByClassName(mappedHandlerClasses),
+                sortedByClassName(sticky), sortedByClassName(stickyExceptional), sortedByClassName(lateEventCounts),
+                sortedByClassName(lateExceptionalEventCounts), getStatistics());
+    }
+
+    private static void addSubscriptionInfos(Map<Class<?>, List<SubscriptionInfo>> infosByType,
+                                             EventTypeTable<Subscription> table) {
+        for (Map.Entry<Class<?>, CopyOnWriteArrayList<Subscription>> entry : table.toMap().entrySet()) {
+            List<SubscriptionInfo> infos = new ArrayList<>();
+            List<SubscriptionInfo> previous = infosByType.get(entry.getKey());
+            if (previous != null) {
+                infos.addAll(previous);
+            }
+            for (Subscription subscription : entry.getValue()) {
+                infos.add(new SubscriptionInfo(subscription));
+            }
+            infosByType.put(entry.getKey(), Collections.unmodifiableList(infos));
+        }
+    }
+
+    private static void addHandlementInfos(Map<Class<?>, List<HandlementInfo>> infosByType,
+                                           EventTypeTable<Handlement> table) {
+        for (Map.Entry<Class<?>, CopyOnWriteArrayList<Handlement>> entry : table.toMap().entrySet()) {
+            List<HandlementInfo> infos = new ArrayList<>();
+            List<HandlementInfo> previous = infosByType.get(entry.getKey());
+            if (previous != null) {
+                infos.addAll(previous);
+            }
+            for (Handlement handlement : entry.getValue()) {
+                infos.add(new HandlementInfo(handlement));
+            }
+            infosByType.put(entry.getKey(), Collections.unmodifiableList(infos));
+        }
+    }
+
+    /** Returns an unmodifiable copy iterating in the order of the class names, for readable diagnostics. */
+    private static <V> Map<Class<?>, V> sortedByClassName(Map<Class<?>, V> map) {
+        List<Map.Entry<Class<?>, V>> entries = new ArrayList<>(map.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<Class<?>, V>>() {
+            @Override
+            public int compare(Map.Entry<Class<?>, V> lhs, Map.Entry<Class<?>, V> rhs) {
+                return lhs.getKey().getName().compareTo(rhs.getKey().getName());
+            }
+        });
+        Map<Class<?>, V> sorted = new LinkedHashMap<>();
+        for (Map.Entry<Class<?>, V> entry : entries) {
+            sorted.put(entry.getKey(), entry.getValue());
+        }
+        return Collections.unmodifiableMap(sorted);
+    }
+
+    /**
+     * Explains which subscribers would receive the event if it were posted now from the calling thread, in which
+     * order and through which poster, without posting it. Subscribers to be started by the start mechanism are listed
+     * as late receivers. Useful to find out why an event is (not) received, see {@link DeliveryPlan}.
+     *
+     * @param event
+     * @return
+     */
+    public DeliveryPlan<SubscriptionInfo> explain(Object event) {
+        Class<?> eventClass = event.getClass();
+        boolean mainThread = isMainThread();
+        List<Class<?>> eventTypes = eventInheritance ? lookupAllEventTypes(eventClass) :
+                Collections.<Class<?>>singletonList(eventClass);
+        List<DeliveryPlan.Delivery<SubscriptionInfo>> deliveries = new ArrayList<>();
+        addSubscriptionDeliveries(deliveries, subscriptionsByEventType, eventTypes, mainThread);
+        // Subscriptions added after freezing are delivered to after all frozen subscriptions
+        addSubscriptionDeliveries(deliveries, dynamicSubscriptionsByEventType, eventTypes, mainThread);
+
+        // Like dispatchPost and putEventInPostingQueue, without waiting for the mapping to complete
+        List<SubscriptionInfo> lateReceivers = new ArrayList<>();
+        if (startMechanismEnabled && !isFrozen() && isEventMappedForActionMode(event, ActionMode.LAZY_SUBSCRIBE)) {
+            for (Class<?> eventType : eventTypes) {
+                CopyOnWriteArrayList<SubscriberClass> subscriberClasses;
+                synchronized (this) {
+                    subscriberClasses = mappedSubscriberClassesByEventType.get(eventType);
+                }
+                if (subscriberClasses != null) {
+                    for (SubscriberClass subscriberClass : subscriberClasses) {
+                        if (!isRegisteredSubscriberClassForEvent(subscriberClass.subscriberClass, event)) {
+                            lateReceivers.add(new SubscriptionInfo(subscriberClass));
+                        }
+                    }
+                }
+            }
+        }
+        return new DeliveryPlan<>(eventClass, mainThread, Collections.unmodifiableList(new ArrayList<>(eventTypes)),
+                Collections.unmodifiableList(deliveries), Collections.unmodifiableList(lateReceivers));
+    }
+
+    /**
+     * Like {@link #explain(Object)}, for the handlers of an exceptional event thrown now from the calling thread.
+     *
+     * @param exceptionalEvent
+     * @return
+     */
+    public DeliveryPlan<HandlementInfo> explainException(Object exceptionalEvent) {
+        Class<?> exceptionalEventClass = exceptionalEvent.getClass();
+        boolean mainThread = isMainThread();
+        List<Class<?>> exceptionalEventTypes = exceptionalEventInheritance ?
+                lookupAllExceptionalEventTypes(exceptionalEventClass) :
+                Collections.<Class<?>>singletonList(exceptionalEventClass);
+        List<DeliveryPlan.Delivery<HandlementInfo>> deliveries = new ArrayList<>();
+        addHandlementDeliveries(deliveries, handlementsByExceptionalEventType, exceptionalEventTypes, mainThread);
+        // Handlements added after freezing are delivered to after all frozen handlements
+        addHandlementDeliveries(deliveries, dynamicHandlementsByExceptionalEventType, exceptionalEventTypes,
+                mainThread);
+
+        // Like dispatchThrow and putExceptionalEventInThrowingQueue, without waiting for the mapping to complete
+        List<HandlementInfo> lateReceivers = new ArrayList<>();
+        if (startMechanismEnabled && !isFrozen() && isExceptionalEventMappedForExceptionalActionMode(exceptionalEvent,
+                ExceptionalActionMode.LAZY_HANDLE)) {
+            for (Class<?> exceptionalEventType : exceptionalEventTypes) {
+                CopyOnWriteArrayList<HandlerClass> handlerClasses;
+                synchronized (this) {
+                    handlerClasses = mappedHandlerClassesByExceptionalEventType.get(exceptionalEventType);
+                }
+                if (handlerClasses != null) {
+                    for (HandlerClass handlerClass : handlerClasses) {
+                        if (!isRegisteredHandlerClassForExceptionalEvent(handlerClass.handlerClass,
+                                exceptionalEvent)) {
+                            lateReceivers.add(new HandlementInfo(handlerClass));
+                        }
+                    }
+                }
+            }
+        }
+        return new DeliveryPlan<>(exceptionalEventClass, mainThread,
+                Collections.unmodifiableList(new ArrayList<>(exceptionalEventTypes)),
+                Collections.unmodifiableList(deliveries), Collections.unmodifiableList(lateReceivers));
+    }
+
+    private void addSubscriptionDeliveries(List<DeliveryPlan.Delivery<SubscriptionInfo>> deliveries,
+                                           EventTypeTable<Subscription> table, List<Class<?>> eventTypes,
+                                           boolean mainThread) {
+        for (Class<?> eventType : eventTypes) {
+            CopyOnWriteArrayList<Subscription> subscriptions = table.get(eventType);
+            if (subscriptions != null) {
+                for (Subscription subscription : subscriptions) {
+                    // Collected weak subscribers are skipped on delivery
+                    if (subscription.getSubscriber() != null) {
+                        deliveries.add(new DeliveryPlan.Delivery<>(new SubscriptionInfo(subscription),
+                                getDeliveryRoute(subscription.subscriberMethod.threadMode, mainThread)));
+                    }
+                }
+            }
+        }
+    }
+
+    private void addHandlementDeliveries(List<DeliveryPlan.Delivery<HandlementInfo>> deliveries,
+                                         EventTypeTable<Handlement> table, List<Class<?>> exceptionalEventTypes,
+                                         boolean mainThread) {
+        for (Class<?> exceptionalEventType : exceptionalEventTypes) {
+            CopyOnWriteArrayList<Handlement> handlements = table.get(exceptionalEventType);
+            if (handlements != null) {
+                for (Handlement handlement : handlements) {
+                    // Collected weak handlers are skipped on delivery
+                    if (handlement.getHandler() != null) {
+                        deliveries.add(new DeliveryPlan.Delivery<>(new HandlementInfo(handlement),
+                                getDeliveryRoute(handlement.handlerMethod.threadMode, mainThread)));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the route {@link #postToSubscription(Subscription, Object, boolean)} takes for the thread mode.
+     *
+     * @param threadMode
+     * @param isMainThread
+     * @return
+     */
+    private DeliveryRoute getDeliveryRoute(ThreadMode threadMode, boolean isMainThread) {
+        switch (threadMode) {
+            case POSTING:
+                return DeliveryRoute.POSTING_THREAD;
+            case MAIN:
+                return isMainThread ? DeliveryRoute.POSTING_THREAD : DeliveryRoute.MAIN_THREAD_QUEUE;
+            case MAIN_ORDERED:
+                return mainThreadPoster != null ? DeliveryRoute.MAIN_THREAD_QUEUE : DeliveryRoute.POSTING_THREAD;
+            case BACKGROUND:
+                return isMainThread ? DeliveryRoute.BACKGROUND_QUEUE : DeliveryRoute.POSTING_THREAD;
+            case ASYNC:
+                return DeliveryRoute.ASYNC_QUEUE;
+            default:
+                throw new IllegalStateException("Unknown thread mode: " + threadMode);
+        }
+    }
+
+    /**
+     * Returns the route {@link #throwsToHandlement(Handlement, Object, boolean)} takes for the thread mode.
+     *
+     * @param threadMode
+     * @param isMainThread
+     * @return
+     */
+    private DeliveryRoute getDeliveryRoute(ExceptionalThreadMode threadMode, boolean isMainThread) {
+        switch (threadMode) {
+            case THROWING:
+                return DeliveryRoute.POSTING_THREAD;
+            case MAIN:
+                return isMainThread ? DeliveryRoute.POSTING_THREAD : DeliveryRoute.MAIN_THREAD_QUEUE;
+            case MAIN_ORDERED:
+                return mainThreadThrower != null ? DeliveryRoute.MAIN_THREAD_QUEUE : DeliveryRoute.POSTING_THREAD;
+            case BACKGROUND:
+                return isMainThread ? DeliveryRoute.BACKGROUND_QUEUE : DeliveryRoute.POSTING_THREAD;
+            case ASYNC:
+                return DeliveryRoute.ASYNC_QUEUE;
+            default:
+                throw new IllegalStateException("Unknown thread mode: " + threadMode);
+        }
+    }
+
+    boolean isLogSubscriberExceptions() {
+        return logSubscriberExceptions;
+    }
+
+    void setLogSubscriberExceptions(boolean logSubscriberExceptions) {
+        this.logSubscriberExceptions = logSubscriberExceptions;
+    }
+
+    boolean isLogNoSubscriberMessages() {
+        return logNoSubscriberMessages;
+    }
+
+    void setLogNoSubscriberMessages(boolean logNoSubscriberMessages) {
+        this.logNoSubscriberMessages = logNoSubscriberMessages;
+    }
+
+    boolean isLogHandlerExceptions() {
+        return logHandlerExceptions;
+    }
+
+    void setLogHandlerExceptions(boolean logHandlerExceptions) {
+        this.logHandlerExceptions = logHandlerExceptions;
+    }
+
+    boolean isLogNoHandlerMessages() {
+        return logNoHandlerMessages;
+    }
+
+    void setLogNoHandlerMessages(boolean logNoHandlerMessages) {
+        this.logNoHandlerMessages = logNoHandlerMessages;
+    }
+
+    /**
+     * Returns how many weakly registered subscribers and handlers were removed automatically after being garbage
+     * collected, see {@link EventBusBuilder#weakRegistration(boolean)}.
+     */
+    public long getPurgedRegistrationCount() {
+        return purgedRegistrationCount.get();
+    }
+
     /**
      * Get method for logger.
      * For internal use only.
@@ -2410,6 +4414,8 @@ public class EventBus {
                 + ", indexCountSubscriber=" + indexCountSubscriber
                 + ", indexCountHandler=" + indexCountHandler
                 + ", eventInheritance=" + eventInheritance
-                + ", exceptionalEventInheritance=" + exceptionalEventInheritance + "]";
+                + ", exceptionalEventInheritance=" + exceptionalEventInheritance
+                + ", weakRegistration=" + weakRegistration
+                + ", frozen=" + isFrozen() + "]";
     }
 }
\ No newline at end of file
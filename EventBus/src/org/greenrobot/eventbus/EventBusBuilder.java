@@ -15,12 +15,16 @@
  */
 package org.greenrobot.eventbus;
 
+import android.content.Context;
 import android.os.Looper;
 
 import org.greenrobot.eventbus.android.AndroidLogger;
+import org.greenrobot.eventbus.meta.EventTypeHierarchyIndex;
 import org.greenrobot.eventbus.meta.HandlerInfoIndex;
+import org.greenrobot.eventbus.meta.ShardedIndex;
 import org.greenrobot.eventbus.meta.SubscriberInfoIndex;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
@@ -38,13 +42,19 @@ public class EventBusBuilder {
     boolean logNoSubscriberMessages = true;
     boolean sendSubscriberExceptionEvent = true;
     boolean sendNoSubscriberEvent = true;
+    long noSubscriberSummaryInterval;
     boolean throwSubscriberException;
     boolean eventInheritance = true;
+    long slowSubscriberThreshold;
+    long slowSubscriberReportInterval = 60000;
+    boolean logSlowSubscribers = true;
+    boolean sendSlowSubscriberEvent = true;
 
     boolean logHandlerExceptions = true;
     boolean logNoHandlerMessages = true;
     boolean sendHandlerExceptionExceptionalEvent = true;
     boolean sendNoHandlerExceptionalEvent = true;
+    long noHandlerSummaryInterval;
     boolean throwHandlerException;
     boolean exceptionalEventInheritance = true;
 
@@ -53,12 +63,20 @@ public class EventBusBuilder {
     boolean startMechanismEnabled = true;
     boolean ignoreGeneratedIndex;
     boolean strictMethodVerification;
+    boolean weakRegistration;
     ExecutorService executorService = DEFAULT_EXECUTOR_SERVICE;
     List<Class<?>> skipMethodVerificationForClasses;
+    List<Class<?>> rejectWhenFrozenClasses;
     List<SubscriberInfoIndex> subscriberInfoIndexes;
     List<HandlerInfoIndex> handlerInfoIndexes;
+    List<EventTypeHierarchyIndex> eventTypeHierarchyIndexes;
     Logger logger;
     MainThreadSupport mainThreadSupport;
+    Context context;
+    File discoveryCacheFile;
+    String discoveryCacheKey;
+    BusMetrics metrics;
+    BusTracer tracer;
 
     EventBusBuilder() {
     }
@@ -87,12 +105,28 @@ public class EventBusBuilder {
         return this;
     }
 
-    /** Default: true */
+    /**
+     * Default: true. A {@link NoSubscriberEvent} is posted for every post without subscribers, unless nobody
+     * subscribes to it either: once the bus knows that, without the start mechanism or once frozen, it's not even
+     * created. Otherwise this costs a full post; disable it or {@link #summarizeNoSubscriberEvents(long)} for
+     * event types posted often without subscribers.
+     */
     public EventBusBuilder sendNoSubscriberEvent(boolean sendNoSubscriberEvent) {
         this.sendNoSubscriberEvent = sendNoSubscriberEvent;
         return this;
     }
 
+    /**
+     * If sending {@link NoSubscriberEvent}s is enabled, sends a {@link NoSubscriberSummaryEvent} with the counts per event
+     * type at most once per interval instead of one NoSubscriberEvent per post (default: 0, disabled). The summary is
+     * sent with the next post without subscribers after the interval has elapsed. Use it to keep posting event types
+     * without subscribers cheap while NoSubscriberEvents are received.
+     */
+    public EventBusBuilder summarizeNoSubscriberEvents(long intervalMillis) {
+        this.noSubscriberSummaryInterval = intervalMillis;
+        return this;
+    }
+
     /**
      * Fails if an subscriber throws an exception (default: false).
      * <p/>
@@ -118,6 +152,38 @@ public class EventBusBuilder {
         return this;
     }
 
+    /**
+     * Reports subscriber methods in the thread modes {@link ThreadMode#POSTING}, {@link ThreadMode#MAIN},
+     * {@link ThreadMode#MAIN_ORDERED} and {@link ThreadMode#BACKGROUND} running longer than the given threshold,
+     * while they are still running, with the stack of their thread (default: 0, disabled). A slow subscriber stalls
+     * all events queued behind it on the main or background thread. Reports are logged and sent as
+     * {@link SlowSubscriberEvent}s from a watchdog thread, at most once per subscriber method and
+     * {@link #slowSubscriberReportInterval(long)}. If one subscriber method posts to another in the posting thread,
+     * the outer one is watched, including the nested delivery.
+     */
+    public EventBusBuilder watchSlowSubscribers(long thresholdMillis) {
+        this.slowSubscriberThreshold = thresholdMillis;
+        return this;
+    }
+
+    /** Minimum time between two reports of the same slow subscriber method (default: 60000 ms). */
+    public EventBusBuilder slowSubscriberReportInterval(long intervalMillis) {
+        this.slowSubscriberReportInterval = intervalMillis;
+        return this;
+    }
+
+    /** Default: true */
+    public EventBusBuilder logSlowSubscribers(boolean logSlowSubscribers) {
+        this.logSlowSubscribers = logSlowSubscribers;
+        return this;
+    }
+
+    /** Default: true */
+    public EventBusBuilder sendSlowSubscriberEvent(boolean sendSlowSubscriberEvent) {
+        this.sendSlowSubscriberEvent = sendSlowSubscriberEvent;
+        return this;
+    }
+
     /*
      *
      * HANDLERS
@@ -142,12 +208,26 @@ public class EventBusBuilder {
         return this;
     }
 
-    /** Default: true */
+    /**
+     * Default: true. Like {@link #sendNoSubscriberEvent(boolean)}, a {@link NoHandlerExceptionalEvent} costs a full
+     * throw unless the bus knows there is no handler for it either.
+     */
     public EventBusBuilder sendNoHandlerExceptionalEvent(boolean sendNoHandlerExceptionalEvent) {
         this.sendNoHandlerExceptionalEvent = sendNoHandlerExceptionalEvent;
         return this;
     }
 
+    /**
+     * If throwing {@link NoHandlerExceptionalEvent}s is enabled, throws a {@link NoHandlerSummaryExceptionalEvent} with
+     * the counts per exceptional event type at most once per interval instead of one NoHandlerExceptionalEvent per
+     * throw (default: 0, disabled). The summary is throwed with the next exceptional event without handlers after the
+     * interval has elapsed.
+     */
+    public EventBusBuilder summarizeNoHandlerExceptionalEvents(long intervalMillis) {
+        this.noHandlerSummaryInterval = intervalMillis;
+        return this;
+    }
+
     /**
      * Fails if an handler throws an exception (default: false).
      * <p/>
@@ -182,13 +262,20 @@ public class EventBusBuilder {
     /**
      * By default, EventBus considers that the registration of classes with methods for subscribe  or handle was not carried out.
      * <p/>
-     * Registration will be performed during the first execution of {@link EventBus#post(Object)} or {@link EventBus#throwException(Object)} methods.
+     * Registration is performed by scanning the application classes in background as soon as the bus is created.
+     * {@link EventBus#post(Object)} and {@link EventBus#throwException(Object)} only wait for the scan of the classes
+     * which may receive events late (activities and services).
      */
     public EventBusBuilder mappedClassesRegistrationPerformed(boolean mappedClassesRegistrationPerformed) {
         this.mappedClassesRegistrationPerformed = mappedClassesRegistrationPerformed;
         return this;
     }
 
+    /** Whether the executor is the default one, which all buses without a custom executor share. */
+    static boolean isDefaultExecutorService(ExecutorService executorService) {
+        return executorService == DEFAULT_EXECUTOR_SERVICE;
+    }
+
     /**
      * Provide a custom thread pool to EventBus used for async and background event delivery. This is an advanced
      * setting to that can break things: ensure the given ExecutorService won't get stuck to avoid undefined behavior.
@@ -211,6 +298,50 @@ public class EventBusBuilder {
         return this;
     }
 
+    /**
+     * Once the bus is frozen (see {@link EventBus#freeze()}), registering objects of the given class or its subclasses
+     * throws an {@link EventBusException}. Objects of other classes are kept in a side table then, and delivered to
+     * after the frozen subscribers and handlers.
+     */
+    public EventBusBuilder rejectRegistrationWhenFrozen(Class<?> clazz) {
+        if (rejectWhenFrozenClasses == null) {
+            rejectWhenFrozenClasses = new ArrayList<>();
+        }
+        rejectWhenFrozenClasses.add(clazz);
+        return this;
+    }
+
+    /**
+     * Context of the application, used to scan for mapped classes and to start activities and services
+     * (see {@link EventBus#EventBus(Context)}).
+     */
+    public EventBusBuilder context(Context context) {
+        this.context = context;
+        return this;
+    }
+
+    /**
+     * Persists subscriber and handler methods found by reflection, and the mapped classes found by scanning, to the
+     * given file, so that later process starts don't have to discover them again (default: none). The file is bound
+     * to a fingerprint of the application code (path, size and modification time of the APK or class path), and is
+     * discarded when the application is updated.
+     * <p/>
+     * Tip: on Android, use a file in {@link Context#getCacheDir()}.
+     */
+    public EventBusBuilder discoveryCache(File file) {
+        return discoveryCache(file, null);
+    }
+
+    /**
+     * Like {@link #discoveryCache(File)}, but the file is bound to the given key instead of a fingerprint of the
+     * application code. Use a key that changes with every build, e.g. the version code or a build checksum.
+     */
+    public EventBusBuilder discoveryCache(File file, String key) {
+        this.discoveryCacheFile = file;
+        this.discoveryCacheKey = key;
+        return this;
+    }
+
     /** the start mechanism for services and activities (default: true). */
     public EventBusBuilder startMechanismEnabled(boolean startMechanismEnabled) {
         this.startMechanismEnabled = startMechanismEnabled;
@@ -223,6 +354,37 @@ public class EventBusBuilder {
         return this;
     }
 
+    /**
+     * Registered subscribers and handlers are only referenced weakly (default: false). Objects which are garbage
+     * collected without being unregistered are removed from the bus automatically, see
+     * {@link EventBus#getPurgedRegistrationCount()}. Note that anonymous or lambda-like subscribers must then be
+     * referenced elsewhere to keep receiving events.
+     */
+    public EventBusBuilder weakRegistration(boolean weakRegistration) {
+        this.weakRegistration = weakRegistration;
+        return this;
+    }
+
+    /**
+     * Reports posts, deliveries, events without receivers, receiver exceptions and invocation times to the given
+     * metrics, e.g. a {@link DefaultBusMetrics} (default: none). Without metrics, or with {@link BusMetrics#NONE},
+     * nothing is recorded and posting doesn't take any time measurements.
+     */
+    public EventBusBuilder metrics(BusMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * Reports posts, deliveries, queuing, the mapped classes scan and reflection on receiver classes to the given
+     * tracer as spans, e.g. to emit profiler events (default: none). Without a tracer, or with {@link BusTracer#NONE},
+     * nothing is traced.
+     */
+    public EventBusBuilder tracer(BusTracer tracer) {
+        this.tracer = tracer;
+        return this;
+    }
+
     /** Enables strict method verification (default: false). */
     public EventBusBuilder strictMethodVerification(boolean strictMethodVerification) {
         this.strictMethodVerification = strictMethodVerification;
@@ -235,6 +397,7 @@ public class EventBusBuilder {
             subscriberInfoIndexes = new ArrayList<>();
         }
         subscriberInfoIndexes.add(index);
+        addEventTypeHierarchyIndex(index);
         return this;
     }
 
@@ -244,9 +407,33 @@ public class EventBusBuilder {
             handlerInfoIndexes = new ArrayList<>();
         }
         handlerInfoIndexes.add(index);
+        addEventTypeHierarchyIndex(index);
         return this;
     }
 
+    /**
+     * Adds the index shards generated by EventBus' annotation preprocessor in isolating mode
+     * (option eventBusIndexMode=isolating), see {@link ShardedIndex}.
+     */
+    public EventBusBuilder addIndexShards() {
+        ShardedIndex index = new ShardedIndex();
+        addIndex((SubscriberInfoIndex) index);
+        addIndex((HandlerInfoIndex) index);
+        return this;
+    }
+
+    /** Generated indexes also provide the type hierarchies of indexed events, see {@link EventTypeHierarchyIndex}. */
+    private void addEventTypeHierarchyIndex(Object index) {
+        if (index instanceof EventTypeHierarchyIndex) {
+            if (eventTypeHierarchyIndexes == null) {
+                eventTypeHierarchyIndexes = new ArrayList<>();
+            }
+            if (!eventTypeHierarchyIndexes.contains(index)) {
+                eventTypeHierarchyIndexes.add((EventTypeHierarchyIndex) index);
+            }
+        }
+    }
+
     /**
      * Set a specific log handler for all EventBus logging.
      * <p/>
@@ -258,12 +445,22 @@ public class EventBusBuilder {
         return this;
     }
 
-    Logger getLogger() {
-        if (logger != null) {
-            return logger;
-        } else {
-            return Logger.Default.get();
+    /** Returns the configured or default logger, with the level checks and parameterized logging of EventBus. */
+    FormattingLogger getLogger() {
+        Logger logger = this.logger != null ? this.logger : Logger.Default.get();
+        return logger instanceof FormattingLogger ? (FormattingLogger) logger : new FormattingLogger(logger);
+    }
+
+    DiscoveryCache createDiscoveryCache(Context context) {
+        if (discoveryCacheFile == null) {
+            return null;
+        }
+        String key = discoveryCacheKey;
+        if (key == null) {
+            String codePath = context != null ? context.getPackageCodePath() : System.getProperty("java.class.path");
+            key = DiscoveryCache.fingerprint(codePath);
         }
+        return new DiscoveryCache(discoveryCacheFile, key, executorService, getLogger());
     }
 
     MainThreadSupport getMainThreadSupport() {
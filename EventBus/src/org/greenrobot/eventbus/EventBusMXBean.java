@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+/**
+ * Management interface of an EventBus registered with {@link EventBusManagement#register(EventBus, String)}.
+ * Attributes are read from a snapshot of {@link EventBus#getStatistics()}, which is reused for
+ * {@link EventBusManagement#SNAPSHOT_MAX_AGE_MILLIS}; setters adjust the bus at runtime.
+ */
+public interface EventBusMXBean {
+
+    /** All statistics of one snapshot as a single composite attribute; prefer it when polling several values. */
+    BusStatistics getStatistics();
+
+    int getSubscriberCount();
+
+    int getSubscriptionCount();
+
+    int getEventTypeCount();
+
+    int getStickyEventCount();
+
+    int getHandlerCount();
+
+    int getHandlementCount();
+
+    int getExceptionalEventTypeCount();
+
+    int getStickyExceptionalEventCount();
+
+    int getMainThreadQueueSize();
+
+    int getBackgroundQueueSize();
+
+    int getAsyncQueueSize();
+
+    int getMainThreadThrowQueueSize();
+
+    int getBackgroundThrowQueueSize();
+
+    int getAsyncThrowQueueSize();
+
+    double getPendingPostPoolHitRate();
+
+    double getPendingThrowPoolHitRate();
+
+    int getExecutorActiveCount();
+
+    int getExecutorPoolSize();
+
+    int getExecutorQueueSize();
+
+    /** Core threads of the executor, or -1 if it's not a ThreadPoolExecutor. */
+    int getExecutorCorePoolSize();
+
+    /**
+     * Only supported for an executor set with {@link EventBusBuilder#executorService}: the default one is shared by
+     * all buses, the mapped class scanner and discovery cache saves, so tuning it for one bus would silently retune
+     * all of them.
+     *
+     * @throws UnsupportedOperationException if the executor is the default one or not a ThreadPoolExecutor
+     */
+    void setExecutorCorePoolSize(int corePoolSize);
+
+    /** Maximum threads of the executor, or -1 if it's not a ThreadPoolExecutor. */
+    int getExecutorMaximumPoolSize();
+
+    /**
+     * Note that the default executor hands tasks over without queuing them, so tasks are rejected (and the posting
+     * thread gets an exception) while all threads are busy if the maximum is lower than the number of concurrent
+     * background and async deliveries. Like {@link #setExecutorCorePoolSize(int)}, only supported for a dedicated
+     * executor.
+     *
+     * @throws UnsupportedOperationException if the executor is the default one or not a ThreadPoolExecutor
+     */
+    void setExecutorMaximumPoolSize(int maximumPoolSize);
+
+    boolean isLogSubscriberExceptions();
+
+    void setLogSubscriberExceptions(boolean logSubscriberExceptions);
+
+    boolean isLogNoSubscriberMessages();
+
+    void setLogNoSubscriberMessages(boolean logNoSubscriberMessages);
+
+    boolean isLogHandlerExceptions();
+
+    void setLogHandlerExceptions(boolean logHandlerExceptions);
+
+    boolean isLogNoHandlerMessages();
+
+    void setLogNoHandlerMessages(boolean logNoHandlerMessages);
+
+    boolean isFrozen();
+
+    /** Returns {@link EventBus#getStatistics()} as text, e.g. to log it. */
+    String dumpStatistics();
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Exposes EventBus instances as {@link EventBusMXBean}s via JMX, e.g. to watch registry and queue sizes in a
+ * management console instead of taking heap dumps. Kept in its own class so the JMX classes, which Android doesn't
+ * have, are only loaded where it's used.
+ * <p/>
+ * Registered beans reference their bus strongly; unregister them when the bus is not used anymore.
+ * <p/>
+ * Attributes are read from a snapshot of {@link EventBus#getStatistics()} that is reused for
+ * {@link #SNAPSHOT_MAX_AGE_MILLIS}, so a console reading all attributes takes one snapshot per refresh instead of one
+ * per attribute, which would walk the registry and lock the executor again and again.
+ */
+public final class EventBusManagement implements EventBusMXBean {
+    private static final String DOMAIN = "org.greenrobot.eventbus";
+    /** How long attributes are read from the same statistics snapshot. */
+    public static final long SNAPSHOT_MAX_AGE_MILLIS = 1000;
+
+    private final EventBus eventBus;
+    // @Nullable
+    private volatile BusStatistics snapshot;
+    private volatile long snapshotNanos;
+
+    private EventBusManagement(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Registers the bus with the platform MBean server.
+     *
+     * @param eventBus
+     * @param name     distinguishes buses, used as the name key of the object name, e.g. "default"
+     * @return the object name the bean is registered with
+     * @throws EventBusException if registration failed, e.g. because the name is taken
+     */
+    public static ObjectName register(EventBus eventBus, String name) {
+        try {
+            ObjectName objectName = createObjectName(name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new EventBusManagement(eventBus), objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new EventBusException("Could not register MBean for " + name, e);
+        }
+    }
+
+    /** Unregisters the bean registered with the given name, if any. */
+    public static void unregister(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = createObjectName(name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new EventBusException("Could not unregister MBean for " + name, e);
+        }
+    }
+
+    private static ObjectName createObjectName(String name) throws JMException {
+        return new ObjectName(DOMAIN + ":type=EventBus,name=" + ObjectName.quote(name));
+    }
+
+    /** Concurrent calls may both take a new snapshot, which is cheaper than making them wait for each other. */
+    private BusStatistics getSnapshot() {
+        BusStatistics current = snapshot;
+        long now = System.nanoTime();
+        if (current == null || now - snapshotNanos > SNAPSHOT_MAX_AGE_MILLIS * 1000000) {
+            current = eventBus.getStatistics();
+            snapshotNanos = now;
+            snapshot = current;
+        }
+        return current;
+    }
+
+    @Override
+    public BusStatistics getStatistics() {
+        return getSnapshot();
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return getSnapshot().getSubscriberCount();
+    }
+
+    @Override
+    public int getSubscriptionCount() {
+        return getSnapshot().getSubscriptionCount();
+    }
+
+    @Override
+    public int getEventTypeCount() {
+        return getSnapshot().getEventTypeCount();
+    }
+
+    @Override
+    public int getStickyEventCount() {
+        return getSnapshot().getStickyEventCount();
+    }
+
+    @Override
+    public int getHandlerCount() {
+        return getSnapshot().getHandlerCount();
+    }
+
+    @Override
+    public int getHandlementCount() {
+        return getSnapshot().getHandlementCount();
+    }
+
+    @Override
+    public int getExceptionalEventTypeCount() {
+        return getSnapshot().getExceptionalEventTypeCount();
+    }
+
+    @Override
+    public int getStickyExceptionalEventCount() {
+        return getSnapshot().getStickyExceptionalEventCount();
+    }
+
+    @Override
+    public int getMainThreadQueueSize() {
+        return getSnapshot().getMainThreadQueueSize();
+    }
+
+    @Override
+    public int getBackgroundQueueSize() {
+        return getSnapshot().getBackgroundQueueSize();
+    }
+
+    @Override
+    public int getAsyncQueueSize() {
+        return getSnapshot().getAsyncQueueSize();
+    }
+
+    @Override
+    public int getMainThreadThrowQueueSize() {
+        return getSnapshot().getMainThreadThrowQueueSize();
+    }
+
+    @Override
+    public int getBackgroundThrowQueueSize() {
+        return getSnapshot().getBackgroundThrowQueueSize();
+    }
+
+    @Override
+    public int getAsyncThrowQueueSize() {
+        return getSnapshot().getAsyncThrowQueueSize();
+    }
+
+    @Override
+    public double getPendingPostPoolHitRate() {
+        return getSnapshot().getPendingPostPoolHitRate();
+    }
+
+    @Override
+    public double getPendingThrowPoolHitRate() {
+        return getSnapshot().getPendingThrowPoolHitRate();
+    }
+
+    @Override
+    public int getExecutorActiveCount() {
+        return getSnapshot().getExecutorActiveCount();
+    }
+
+    @Override
+    public int getExecutorPoolSize() {
+        return getSnapshot().getExecutorPoolSize();
+    }
+
+    @Override
+    public int getExecutorQueueSize() {
+        return getSnapshot().getExecutorQueueSize();
+    }
+
+    @Override
+    public int getExecutorCorePoolSize() {
+        ExecutorService executorService = eventBus.getExecutorService();
+        return executorService instanceof ThreadPoolExecutor ?
+                ((ThreadPoolExecutor) executorService).getCorePoolSize() : -1;
+    }
+
+    @Override
+    public void setExecutorCorePoolSize(int corePoolSize) {
+        getThreadPoolExecutor().setCorePoolSize(corePoolSize);
+    }
+
+    @Override
+    public int getExecutorMaximumPoolSize() {
+        ExecutorService executorService = eventBus.getExecutorService();
+        return executorService instanceof ThreadPoolExecutor ?
+                ((ThreadPoolExecutor) executorService).getMaximumPoolSize() : -1;
+    }
+
+    @Override
+    public void setExecutorMaximumPoolSize(int maximumPoolSize) {
+        getThreadPoolExecutor().setMaximumPoolSize(maximumPoolSize);
+    }
+
+    /** Returns the executor to tune, which must not be shared by other buses through the default. */
+    private ThreadPoolExecutor getThreadPoolExecutor() {
+        ExecutorService executorService = eventBus.getExecutorService();
+        if (!(executorService instanceof ThreadPoolExecutor)) {
+            throw new UnsupportedOperationException("Executor is not a ThreadPoolExecutor: " + executorService);
+        }
+        if (EventBusBuilder.isDefaultExecutorService(executorService)) {
+            throw new UnsupportedOperationException("The default executor is shared by all EventBus instances; " +
+                    "configure a dedicated one with EventBusBuilder.executorService() to tune it");
+        }
+        return (ThreadPoolExecutor) executorService;
+    }
+
+    @Override
+    public boolean isLogSubscriberExceptions() {
+        return eventBus.isLogSubscriberExceptions();
+    }
+
+    @Override
+    public void setLogSubscriberExceptions(boolean logSubscriberExceptions) {
+        eventBus.setLogSubscriberExceptions(logSubscriberExceptions);
+    }
+
+    @Override
+    public boolean isLogNoSubscriberMessages() {
+        return eventBus.isLogNoSubscriberMessages();
+    }
+
+    @Override
+    public void setLogNoSubscriberMessages(boolean logNoSubscriberMessages) {
+        eventBus.setLogNoSubscriberMessages(logNoSubscriberMessages);
+    }
+
+    @Override
+    public boolean isLogHandlerExceptions() {
+        return eventBus.isLogHandlerExceptions();
+    }
+
+    @Override
+    public void setLogHandlerExceptions(boolean logHandlerExceptions) {
+        eventBus.setLogHandlerExceptions(logHandlerExceptions);
+    }
+
+    @Override
+    public boolean isLogNoHandlerMessages() {
+        return eventBus.isLogNoHandlerMessages();
+    }
+
+    @Override
+    public void setLogNoHandlerMessages(boolean logNoHandlerMessages) {
+        eventBus.setLogNoHandlerMessages(logNoHandlerMessages);
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return eventBus.isFrozen();
+    }
+
+    @Override
+    public String dumpStatistics() {
+        // Explicitly requested, so always current
+        return eventBus.getStatistics().toString();
+    }
+}
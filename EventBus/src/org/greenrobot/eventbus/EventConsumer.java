@@ -0,0 +1,27 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+/**
+ * Receives events or exceptional events of one type, registered without annotations by
+ * {@link EventBus#subscribe(Class, EventConsumer, ThreadMode, int)} or
+ * {@link EventBus#handle(Class, EventConsumer, ExceptionalThreadMode, int)}.
+ *
+ * @param <T> the (exceptional) event type
+ */
+public interface EventConsumer<T> {
+    void accept(T event);
+}
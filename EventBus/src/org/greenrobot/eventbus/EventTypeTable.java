@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Subscriptions or handlements by (exceptional) event type, stored in an array indexed by a dense id assigned to each
+ * type when first seen. For each posted class, the ids of the types it's dispatched to (the class and, with
+ * inheritance, its super types) are cached, so dispatching takes one cache lookup and plain array reads instead of a
+ * locked hash lookup per type.
+ * <p/>
+ * Ids are never reused; a type keeps its id while it's loaded, as types are held weakly by the id map.
+ *
+ * @param <E> {@link Subscription} or {@link Handlement}
+ */
+final class EventTypeTable<E> {
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Guarded by this. */
+    private final Map<Class<?>, Integer> ids = new WeakHashMap<>();
+    private final ClassCache<int[]> typeIdsByPostedClass;
+    private volatile AtomicReferenceArray<CopyOnWriteArrayList<E>> entries =
+            new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    /** Guarded by this. */
+    private int nextId;
+
+    EventTypeTable(String name) {
+        typeIdsByPostedClass = ClassCache.create(name);
+    }
+
+    /** Returns the entries of the type, or null. */
+    CopyOnWriteArrayList<E> get(Class<?> type) {
+        Integer id;
+        synchronized (this) {
+            id = ids.get(type);
+        }
+        return id != null ? get(id) : null;
+    }
+
+    /** Returns the entries of the type id, or null. */
+    CopyOnWriteArrayList<E> get(int id) {
+        AtomicReferenceArray<CopyOnWriteArrayList<E>> current = entries;
+        return id < current.length() ? current.get(id) : null;
+    }
+
+    synchronized void put(Class<?> type, CopyOnWriteArrayList<E> list) {
+        entries.set(getOrAssignId(type), list);
+    }
+
+    /** Returns the cached type ids of the posted class, or null; see {@link #cacheTypeIds(Class, List)}. */
+    int[] getTypeIds(Class<?> postedClass) {
+        return typeIdsByPostedClass.get(postedClass);
+    }
+
+    /**
+     * @param postedClass the class of posted events
+     * @param types       the types events of the posted class are dispatched to, in dispatch order
+     * @return the ids of the types
+     */
+    synchronized int[] cacheTypeIds(Class<?> postedClass, List<Class<?>> types) {
+        int[] typeIds = new int[types.size()];
+        for (int i = 0; i < typeIds.length; i++) {
+            typeIds[i] = getOrAssignId(types.get(i));
+        }
+        typeIdsByPostedClass.put(postedClass, typeIds);
+        return typeIds;
+    }
+
+    /** Returns a copy of all non-empty entries by type. */
+    synchronized Map<Class<?>, CopyOnWriteArrayList<E>> toMap() {
+        Map<Class<?>, CopyOnWriteArrayList<E>> map = new HashMap<>();
+        for (Map.Entry<Class<?>, Integer> entry : ids.entrySet()) {
+            CopyOnWriteArrayList<E> list = entries.get(entry.getValue());
+            if (list != null && !list.isEmpty()) {
+                map.put(entry.getKey(), list);
+            }
+        }
+        return map;
+    }
+
+    /** Number of types with an id. */
+    synchronized int size() {
+        return ids.size();
+    }
+
+    /**
+     * Counts the types with entries (index 0) and all entries (index 1) without locking, which may miss concurrent
+     * changes.
+     */
+    int[] countEntries() {
+        AtomicReferenceArray<CopyOnWriteArrayList<E>> current = entries;
+        int[] counts = new int[2];
+        for (int i = 0; i < current.length(); i++) {
+            CopyOnWriteArrayList<E> list = current.get(i);
+            if (list != null && !list.isEmpty()) {
+                counts[0]++;
+                counts[1] += list.size();
+            }
+        }
+        return counts;
+    }
+
+    /** Must be called while holding the lock. */
+    private int getOrAssignId(Class<?> type) {
+        Integer id = ids.get(type);
+        if (id == null) {
+            id = nextId++;
+            ids.put(type, id);
+            AtomicReferenceArray<CopyOnWriteArrayList<E>> current = entries;
+            if (id >= current.length()) {
+                AtomicReferenceArray<CopyOnWriteArrayList<E>> grown =
+                        new AtomicReferenceArray<>(current.length() * 2);
+                for (int i = 0; i < current.length(); i++) {
+                    grown.set(i, current.get(i));
+                }
+                entries = grown;
+            }
+        }
+        return id;
+    }
+}
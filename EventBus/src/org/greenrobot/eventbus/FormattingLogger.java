@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import org.greenrobot.eventbus.android.AndroidLogger;
+
+import java.util.logging.Level;
+
+/**
+ * Wraps the {@link Logger} of a bus (see {@link EventBusBuilder#getLogger()}) with level checks and parameterized
+ * variants, which take a pattern with "{}" placeholders and only format it if the level is loggable, so disabled
+ * messages don't allocate. The level is only known for {@link Logger.JavaLogger} and {@link AndroidLogger}; other
+ * loggers receive all messages but OFF, as they did before.
+ */
+final class FormattingLogger implements Logger {
+    private final Logger logger;
+
+    FormattingLogger(Logger logger) {
+        this.logger = logger;
+    }
+
+    boolean isLoggable(Level level) {
+        if (logger instanceof JavaLogger) {
+            return ((JavaLogger) logger).isLoggable(level);
+        } else if (logger instanceof AndroidLogger) {
+            return ((AndroidLogger) logger).isLoggable(level);
+        } else {
+            return level != Level.OFF;
+        }
+    }
+
+    @Override
+    public void log(Level level, String msg) {
+        logger.log(level, msg);
+    }
+
+    @Override
+    public void log(Level level, String msg, Throwable th) {
+        logger.log(level, msg, th);
+    }
+
+    void log(Level level, String pattern, Object arg) {
+        if (isLoggable(level)) {
+            logger.log(level, format(pattern, arg, null));
+        }
+    }
+
+    void log(Level level, String pattern, Object arg1, Object arg2) {
+        if (isLoggable(level)) {
+            logger.log(level, format(pattern, arg1, arg2));
+        }
+    }
+
+    void log(Level level, String pattern, Object arg, Throwable th) {
+        if (isLoggable(level)) {
+            logger.log(level, format(pattern, arg, null), th);
+        }
+    }
+
+    void log(Level level, String pattern, Object arg1, Object arg2, Throwable th) {
+        if (isLoggable(level)) {
+            logger.log(level, format(pattern, arg1, arg2), th);
+        }
+    }
+
+    /** Replaces the first two "{}" placeholders of the pattern by the arguments. */
+    private static String format(String pattern, Object arg1, Object arg2) {
+        StringBuilder builder = new StringBuilder(pattern.length() + 32);
+        int start = 0;
+        for (int i = 0; i < 2; i++) {
+            int placeholder = pattern.indexOf("{}", start);
+            if (placeholder == -1) {
+                break;
+            }
+            builder.append(pattern, start, placeholder).append(i == 0 ? arg1 : arg2);
+            start = placeholder + 2;
+        }
+        return builder.append(pattern, start, pattern.length()).toString();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Immutable copy of the subscriptions and handlements of an EventBus, taken by {@link EventBus#freeze()}. For each
+ * posted (thrown) class, the arrays of the types it's dispatched to are resolved once and cached; types without
+ * entries are left out, so an empty result means there is no receiver. It also keeps the registry keys of the objects
+ * registered when freezing, which can't be unregistered anymore.
+ * <p/>
+ * All fields are final, so instances are safely published through the plain field of the EventBus.
+ */
+final class FrozenRegistry {
+    private final Map<Class<?>, Subscription[]> subscriptionsByEventType;
+    private final Map<Class<?>, Handlement[]> handlementsByExceptionalEventType;
+    private final ClassCache<Subscription[][]> subscriptionsByPostedClass =
+            ClassCache.create("frozenSubscriptions");
+    private final ClassCache<Handlement[][]> handlementsByThrownClass = ClassCache.create("frozenHandlements");
+    private final Set<Object> subscriberKeys;
+    private final Set<Object> handlerKeys;
+
+    /**
+     * @param subscriberKeys the registry keys of the registered subscribers, see {@link RegistrationKey}
+     * @param handlerKeys    the registry keys of the registered handlers
+     */
+    FrozenRegistry(Map<Class<?>, CopyOnWriteArrayList<Subscription>> subscriptionsByEventType,
+                   Map<Class<?>, CopyOnWriteArrayList<Handlement>> handlementsByExceptionalEventType,
+                   Set<Object> subscriberKeys, Set<Object> handlerKeys) {
+        this.subscriberKeys = new HashSet<>(subscriberKeys);
+        this.handlerKeys = new HashSet<>(handlerKeys);
+        this.subscriptionsByEventType = new HashMap<>();
+        for (Map.Entry<Class<?>, CopyOnWriteArrayList<Subscription>> entry : subscriptionsByEventType.entrySet()) {
+            this.subscriptionsByEventType.put(entry.getKey(), entry.getValue().toArray(new Subscription[0]));
+        }
+        this.handlementsByExceptionalEventType = new HashMap<>();
+        for (Map.Entry<Class<?>, CopyOnWriteArrayList<Handlement>> entry :
+                handlementsByExceptionalEventType.entrySet()) {
+            this.handlementsByExceptionalEventType.put(entry.getKey(), entry.getValue().toArray(new Handlement[0]));
+        }
+    }
+
+    /** Whether the subscriber with the given registry key was registered when freezing. */
+    boolean containsSubscriber(Object registryKey) {
+        return subscriberKeys.contains(registryKey);
+    }
+
+    /** Whether the handler with the given registry key was registered when freezing. */
+    boolean containsHandler(Object registryKey) {
+        return handlerKeys.contains(registryKey);
+    }
+
+    /** Returns the subscriptions per type for the posted class, or null if not resolved yet. */
+    Subscription[][] getSubscriptions(Class<?> postedClass) {
+        return subscriptionsByPostedClass.get(postedClass);
+    }
+
+    /**
+     * @param postedClass the class of posted events
+     * @param eventTypes  the types events of the posted class are dispatched to, in dispatch order
+     * @return the subscriptions of each type with subscriptions
+     */
+    Subscription[][] resolveSubscriptions(Class<?> postedClass, List<Class<?>> eventTypes) {
+        List<Subscription[]> resolved = new ArrayList<>(eventTypes.size());
+        for (Class<?> eventType : eventTypes) {
+            Subscription[] subscriptions = subscriptionsByEventType.get(eventType);
+            if (subscriptions != null) {
+                resolved.add(subscriptions);
+            }
+        }
+        Subscription[][] subscriptions = resolved.toArray(new Subscription[resolved.size()][]);
+        subscriptionsByPostedClass.put(postedClass, subscriptions);
+        return subscriptions;
+    }
+
+    /** Returns the handlements per type for the thrown class, or null if not resolved yet. */
+    Handlement[][] getHandlements(Class<?> thrownClass) {
+        return handlementsByThrownClass.get(thrownClass);
+    }
+
+    /**
+     * @param thrownClass           the class of thrown exceptional events
+     * @param exceptionalEventTypes the types exceptional events of the thrown class are dispatched to, in dispatch
+     *                              order
+     * @return the handlements of each type with handlements
+     */
+    Handlement[][] resolveHandlements(Class<?> thrownClass, List<Class<?>> exceptionalEventTypes) {
+        List<Handlement[]> resolved = new ArrayList<>(exceptionalEventTypes.size());
+        for (Class<?> exceptionalEventType : exceptionalEventTypes) {
+            Handlement[] handlements = handlementsByExceptionalEventType.get(exceptionalEventType);
+            if (handlements != null) {
+                resolved.add(handlements);
+            }
+        }
+        Handlement[][] handlements = resolved.toArray(new Handlement[resolved.size()][]);
+        handlementsByThrownClass.put(thrownClass, handlements);
+        return handlements;
+    }
+}
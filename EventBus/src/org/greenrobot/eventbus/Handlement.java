@@ -19,16 +19,34 @@ package org.greenrobot.eventbus;
  * @author ---
  */
 final class Handlement {
-    final Object handler;
+    /** Null if registered weakly, see {@link #handlerKey}. */
+    private final Object handler;
+    /** Only set if registered weakly; also the handler's key in the registry. */
+    final RegistrationKey handlerKey;
+    final Class<?> handlerClass;
     final HandlerMethod handlerMethod;
     /**
      * Becomes false as soon as {@link EventBus#unregisterHandler(Object)} is called, which is checked by queued exceptional event delivery
      * {@link EventBus#invokeHandler(PendingThrow)} to prevent race conditions.
      */
     volatile boolean active;
+    /**
+     * Whether the handlement was added after {@link EventBus#freeze()}, so it's not in the frozen registry. Only
+     * accessed holding the registration lock of the handler.
+     */
+    boolean dynamic;
 
     Handlement(Object handler, HandlerMethod handlerMethod) {
-        this.handler = handler;
+        this(handler, null, handlerMethod);
+    }
+
+    /**
+     * @param handlerKey if not null, the handler is only referenced weakly through this key
+     */
+    Handlement(Object handler, RegistrationKey handlerKey, HandlerMethod handlerMethod) {
+        this.handler = handlerKey == null ? handler : null;
+        this.handlerKey = handlerKey;
+        this.handlerClass = handler.getClass();
         this.handlerMethod = handlerMethod;
         active = true;
     }
@@ -37,7 +55,10 @@ final class Handlement {
     public boolean equals(Object other) {
         if (other instanceof Handlement) {
             Handlement otherHandlement = (Handlement) other;
-            return handler == otherHandlement.handler
+            Object handler = getHandler();
+            // Entries of a collected handler are compared by its key
+            boolean sameHandler = handler != null ? handler == otherHandlement.getHandler() : handlerKey == otherHandlement.handlerKey;
+            return sameHandler
                     && handlerMethod.equals(otherHandlement.handlerMethod);
         } else {
             return false;
@@ -46,6 +67,23 @@ final class Handlement {
 
     @Override
     public int hashCode() {
-        return handler.hashCode() + handlerMethod.methodString.hashCode();
+        return (handlerKey != null ? handlerKey.hashCode() : handler.hashCode()) + handlerMethod.methodString.hashCode();
+    }
+
+    /** Returns the key of the handler in the registry: the handler itself, or its key if registered weakly. */
+    Object getRegistryKey() {
+        return handlerKey != null ? handlerKey : handler;
+    }
+
+    /** Returns the handler, or null if it was registered weakly and has been garbage collected. */
+    Object getHandler() {
+        return handlerKey != null ? handlerKey.get() : handler;
+    }
+
+    /**
+     * @param handlerOrKey a handler, or the {@link RegistrationKey} of a collected one
+     */
+    boolean isFor(Object handlerOrKey) {
+        return handlerOrKey instanceof RegistrationKey ? handlerKey == handlerOrKey : getHandler() == handlerOrKey;
     }
 }
\ No newline at end of file
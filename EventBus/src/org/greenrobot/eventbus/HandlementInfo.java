@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+/**
+ * Read-only description of a handlement (a handler method of a registered handler) or of a handler class mapped for
+ * the start mechanism, see {@link BusTopology} and {@link DeliveryPlan}. It references classes only, never the handler
+ * itself.
+ */
+public final class HandlementInfo {
+    private final Class<?> exceptionalEventType;
+    private final Class<?> handlerClass;
+    private final Class<?> declaringClass;
+    private final String methodName;
+    private final ExceptionalThreadMode threadMode;
+    private final ExceptionalActionMode actionMode;
+    private final int priority;
+    private final boolean sticky;
+    private final boolean weak;
+    private final boolean active;
+
+    HandlementInfo(Handlement handlement) {
+        this(handlement.handlerClass, handlement.handlerMethod, handlement.handlerKey != null, handlement.active);
+    }
+
+    HandlementInfo(HandlerClass handlerClass) {
+        this(handlerClass.handlerClass, handlerClass.handlerMethod, false, handlerClass.active);
+    }
+
+    private HandlementInfo(Class<?> handlerClass, HandlerMethod handlerMethod, boolean weak, boolean active) {
+        this.exceptionalEventType = handlerMethod.exceptionalEventType;
+        this.handlerClass = handlerClass;
+        this.declaringClass = handlerMethod.declaringClass;
+        this.methodName = handlerMethod.methodName;
+        this.threadMode = handlerMethod.threadMode;
+        this.actionMode = handlerMethod.actionMode;
+        this.priority = handlerMethod.priority;
+        this.sticky = handlerMethod.sticky;
+        this.weak = weak;
+        this.active = active;
+    }
+
+    /** The exceptional event type of the handler method's parameter. */
+    public Class<?> getExceptionalEventType() {
+        return exceptionalEventType;
+    }
+
+    public Class<?> getHandlerClass() {
+        return handlerClass;
+    }
+
+    /** The class declaring the handler method, which may be a super class of the handler class. */
+    public Class<?> getDeclaringClass() {
+        return declaringClass;
+    }
+
+    /** The name of the handler method; "accept" for handlements made with an {@link EventConsumer}. */
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public ExceptionalThreadMode getThreadMode() {
+        return threadMode;
+    }
+
+    public ExceptionalActionMode getActionMode() {
+        return actionMode;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public boolean isSticky() {
+        return sticky;
+    }
+
+    /** Whether the handler is only referenced weakly, see {@link EventBusBuilder#weakRegistration(boolean)}. */
+    public boolean isWeak() {
+        return weak;
+    }
+
+    /** False once the handler was unregistered, while exceptional events already queued for it are dropped. */
+    public boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public String toString() {
+        return handlerClass.getName() + "." + methodName + "(" + exceptionalEventType.getName() +
+                ") [threadMode=" + threadMode + ", actionMode=" + actionMode + ", priority=" + priority +
+                ", sticky=" + sticky + (weak ? ", weak" : "") + (active ? "" : ", inactive") + "]";
+    }
+}
@@ -15,6 +15,7 @@
  */
 package org.greenrobot.eventbus;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 /**
@@ -23,7 +24,10 @@ import java.lang.reflect.Method;
  * @author ---
  */
 public class HandlerMethod {
-    final Method method;
+    /** Resolved on first use for methods restored from a persisted discovery cache, see {@link #getMethod()}. */
+    private volatile Method method;
+    final Class<?> declaringClass;
+    final String methodName;
     final ExceptionalThreadMode threadMode;
     final ExceptionalActionMode actionMode;
     final Class<?> exceptionalEventType;
@@ -33,7 +37,15 @@ public class HandlerMethod {
     String methodString;
 
     public HandlerMethod(Method method, Class<?> exceptionalEventType, ExceptionalThreadMode threadMode, ExceptionalActionMode actionMode, int priority, boolean sticky) {
+        this(method.getDeclaringClass(), method.getName(), exceptionalEventType, threadMode, actionMode, priority, sticky);
         this.method = method;
+    }
+
+    /** Creates a handler method whose {@link Method} is looked up on first use. */
+    HandlerMethod(Class<?> declaringClass, String methodName, Class<?> exceptionalEventType, ExceptionalThreadMode threadMode,
+                  ExceptionalActionMode actionMode, int priority, boolean sticky) {
+        this.declaringClass = declaringClass;
+        this.methodName = methodName;
         this.threadMode = threadMode;
         this.exceptionalEventType = exceptionalEventType;
         this.actionMode = actionMode;
@@ -41,6 +53,30 @@ public class HandlerMethod {
         this.sticky = sticky;
     }
 
+    /**
+     * Returns the reflective method, resolving it if needed. Callers must handle null, which is returned for
+     * handlements of an {@link EventConsumer}: those are called directly and have no method of their own.
+     */
+    // @Nullable
+    Method getMethod() {
+        Method resolved = method;
+        if (resolved == null) {
+            try {
+                resolved = declaringClass.getDeclaredMethod(methodName, exceptionalEventType);
+            } catch (NoSuchMethodException e) {
+                throw new EventBusException("Could not find handler method " + methodName + " in " + declaringClass
+                        + ". Maybe the discovery cache is stale?", e);
+            }
+            method = resolved;
+        }
+        return resolved;
+    }
+
+    /** Calls the method on the handler; exceptions thrown by it are wrapped in an InvocationTargetException. */
+    void invoke(Object handler, Object exceptionalEvent) throws InvocationTargetException, IllegalAccessException {
+        getMethod().invoke(handler, exceptionalEvent);
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == this) {
@@ -61,8 +97,8 @@ public class HandlerMethod {
             // Method.toString has more overhead, just take relevant parts of the method
             StringBuilder builder;
             builder = new StringBuilder(64);
-            builder.append(method.getDeclaringClass().getName());
-            builder.append('#').append(method.getName());
+            builder.append(declaringClass.getName());
+            builder.append('#').append(methodName);
             builder.append('(').append(exceptionalEventType.getName());
             methodString = builder.toString();
         }
@@ -70,6 +106,7 @@ public class HandlerMethod {
 
     @Override
     public int hashCode() {
-        return method.hashCode();
+        // Same as Method.hashCode(), without requiring the method to be resolved
+        return declaringClass.getName().hashCode() ^ methodName.hashCode();
     }
 }
\ No newline at end of file
@@ -21,10 +21,10 @@ import org.greenrobot.eventbus.meta.HandlerInfoIndex;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author ---
@@ -38,55 +38,79 @@ class HandlerMethodFinder {
     private static final int BRIDGE = 0x40;
     private static final int SYNTHETIC = 0x1000;
 
+    private static final Object NO_INFO = new Object();
+
     private static final int MODIFIERS_IGNORE = Modifier.ABSTRACT | Modifier.STATIC | BRIDGE | SYNTHETIC;
-    private static final Map<Class<?>, List<HandlerMethod>> METHOD_CACHE = new ConcurrentHashMap<>();
+    private static final ClassCache<List<HandlerMethod>> METHOD_CACHE = ClassCache.createShared("handlerMethods");
 
-    private List<HandlerInfoIndex> handlerInfoIndexes;
+    /** Immutable copy of the indexes configured at bus creation; null if there are none. */
+    private final HandlerInfoIndex[] handlerInfoIndexes;
+    /** Merged view of all indexes: the info found for a class, or {@link #NO_INFO} if no index knows the class. */
+    private final ClassCache<Object> handlerInfoByClass = ClassCache.create("handlerInfos");
     private final boolean strictMethodVerification;
     private final boolean ignoreGeneratedIndex;
+    // @Nullable
+    private final DiscoveryCache discoveryCache;
+    // @Nullable
+    private final BusTracer tracer;
 
     private static final int POOL_SIZE = 4;
     private static final FindState[] FIND_STATE_POOL = new FindState[POOL_SIZE];
 
     HandlerMethodFinder(List<HandlerInfoIndex> handlerInfoIndexes, boolean strictMethodVerification,
-                        boolean ignoreGeneratedIndex) {
-        this.handlerInfoIndexes = handlerInfoIndexes;
+                        boolean ignoreGeneratedIndex, DiscoveryCache discoveryCache, BusTracer tracer) {
+        this.handlerInfoIndexes = handlerInfoIndexes != null && !handlerInfoIndexes.isEmpty() ?
+                handlerInfoIndexes.toArray(new HandlerInfoIndex[handlerInfoIndexes.size()]) : null;
         this.strictMethodVerification = strictMethodVerification;
         this.ignoreGeneratedIndex = ignoreGeneratedIndex;
+        this.discoveryCache = discoveryCache;
+        this.tracer = tracer;
     }
 
     boolean hasHandlerMethods(Class<?> handlerClass) {
-        List<HandlerMethod> handlerMethods = METHOD_CACHE.get(handlerClass);
-        if (handlerMethods != null) {
-            return !handlerMethods.isEmpty();
-        }
+        return !lookupHandlerMethods(handlerClass).isEmpty();
+    }
 
-        if (ignoreGeneratedIndex) {
-            handlerMethods = findUsingReflection(handlerClass);
-        } else {
-            handlerMethods = findUsingInfo(handlerClass);
+    List<HandlerMethod> findHandlerMethods(Class<?> handlerClass) {
+        List<HandlerMethod> handlerMethods = lookupHandlerMethods(handlerClass);
+        if (handlerMethods.isEmpty()) {
+            throw new EventBusException("Handler " + handlerClass
+                    + " and its super classes have no public methods with the @Handle annotation");
         }
-        return !handlerMethods.isEmpty();
+        return handlerMethods;
     }
 
-    List<HandlerMethod> findHandlerMethods(Class<?> handlerClass) {
+    /**
+     * Returns the (possibly empty) handler methods of the given class. Empty results are cached as well, so classes
+     * inspected by the mapped classes scan are never reflected upon twice. Methods persisted in the discovery cache
+     * are restored without reflection, and newly discovered ones are added to it.
+     */
+    private List<HandlerMethod> lookupHandlerMethods(Class<?> handlerClass) {
         List<HandlerMethod> handlerMethods = METHOD_CACHE.get(handlerClass);
         if (handlerMethods != null) {
             return handlerMethods;
         }
 
+        if (discoveryCache != null) {
+            handlerMethods = discoveryCache.restoreHandlerMethods(handlerClass);
+            if (handlerMethods != null) {
+                METHOD_CACHE.put(handlerClass, handlerMethods);
+                return handlerMethods;
+            }
+        }
+
         if (ignoreGeneratedIndex) {
             handlerMethods = findUsingReflection(handlerClass);
         } else {
             handlerMethods = findUsingInfo(handlerClass);
         }
         if (handlerMethods.isEmpty()) {
-            throw new EventBusException("Handler " + handlerClass
-                    + " and its super classes have no public methods with the @Handle annotation");
-        } else {
-            METHOD_CACHE.put(handlerClass, handlerMethods);
-            return handlerMethods;
+            handlerMethods = Collections.emptyList();
+        } else if (discoveryCache != null) {
+            discoveryCache.learnHandlerMethods(handlerClass, handlerMethods);
         }
+        METHOD_CACHE.put(handlerClass, handlerMethods);
+        return handlerMethods;
     }
 
     private List<HandlerMethod> findUsingInfo(Class<?> handlerClass) {
@@ -97,7 +121,7 @@ class HandlerMethodFinder {
             if (findState.handlerInfo != null) {
                 HandlerMethod[] array = findState.handlerInfo.getHandlerMethods();
                 for (HandlerMethod handlerMethod : array) {
-                    if (findState.checkAdd(handlerMethod.method, handlerMethod.exceptionalEventType)) {
+                    if (findState.checkAdd(handlerMethod.getMethod(), handlerMethod.exceptionalEventType)) {
                         findState.handlerMethods.add(handlerMethod);
                     }
                 }
@@ -144,16 +168,26 @@ class HandlerMethodFinder {
             }
         }
         if (handlerInfoIndexes != null) {
-            for (HandlerInfoIndex index : handlerInfoIndexes) {
-                HandlerInfo info = index.getHandlerInfo(findState.clazz);
-                if (info != null) {
-                    return info;
-                }
+            Object info = handlerInfoByClass.get(findState.clazz);
+            if (info == null) {
+                info = lookupHandlerInfo(findState.clazz);
+                handlerInfoByClass.put(findState.clazz, info);
             }
+            return info != NO_INFO ? (HandlerInfo) info : null;
         }
         return null;
     }
 
+    private Object lookupHandlerInfo(Class<?> clazz) {
+        for (HandlerInfoIndex index : handlerInfoIndexes) {
+            HandlerInfo info = index.getHandlerInfo(clazz);
+            if (info != null) {
+                return info;
+            }
+        }
+        return NO_INFO;
+    }
+
     private List<HandlerMethod> findUsingReflection(Class<?> handlerClass) {
         FindState findState = prepareFindState();
         findState.initForHandler(handlerClass);
@@ -165,6 +199,21 @@ class HandlerMethodFinder {
     }
 
     private void findUsingReflectionInSingleClass(FindState findState) {
+        if (tracer == null) {
+            reflectSingleClass(findState);
+            return;
+        }
+        Object token = tracer.beginHandlerReflection(findState.clazz);
+        int methodCount = findState.handlerMethods.size();
+        try {
+            reflectSingleClass(findState);
+            methodCount = findState.handlerMethods.size() - methodCount;
+        } finally {
+            tracer.endReflection(token, methodCount);
+        }
+    }
+
+    private void reflectSingleClass(FindState findState) {
         Method[] methods;
         try {
             // This is faster than getMethods, especially when handlers are fat classes like Activities
@@ -35,7 +35,8 @@ public class HandlerPoster extends Handler implements Poster {
     }
 
     public void enqueue(Subscription subscription, Object event) {
-        PendingPost pendingPost = PendingPost.obtainPendingPost(subscription, event);
+        PendingPost pendingPost = PendingPost.obtainPendingPost(subscription, event,
+                eventBus.recordEnqueue(subscription, event));
         synchronized (this) {
             queue.enqueue(pendingPost);
             if (!handlerActive) {
@@ -78,4 +79,9 @@ public class HandlerPoster extends Handler implements Poster {
             handlerActive = rescheduled;
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public int getQueueSize() {
+        return queue.size();
+    }
+}
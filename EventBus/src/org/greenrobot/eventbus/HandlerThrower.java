@@ -38,7 +38,8 @@ public class HandlerThrower extends Handler implements Thrower {
     }
 
     public void enqueue(Handlement handlement, Object exceptionalEvent) {
-        PendingThrow pendingThrow = PendingThrow.obtainPendingThrow(handlement, exceptionalEvent);
+        PendingThrow pendingThrow = PendingThrow.obtainPendingThrow(handlement, exceptionalEvent,
+                eventBus.recordEnqueue(handlement, exceptionalEvent));
         synchronized (this) {
             queue.enqueue(pendingThrow);
             if (!handlerActive) {
@@ -81,4 +82,9 @@ public class HandlerThrower extends Handler implements Thrower {
             handlerActive = rescheduled;
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public int getQueueSize() {
+        return queue.size();
+    }
+}
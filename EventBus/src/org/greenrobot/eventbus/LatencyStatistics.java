@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+/**
+ * Snapshot of a latency distribution, e.g. the time events waited in the queue of a poster, see
+ * {@link DefaultBusMetrics#getSubscriberQueueStatistics()}. Durations are recorded in power of two buckets, so
+ * percentiles are upper bounds which are at most twice the actual value (and never above the maximum).
+ */
+public final class LatencyStatistics {
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long[] bucketCounts;
+
+    LatencyStatistics(LatencyHistogram histogram) {
+        bucketCounts = histogram.getBucketCounts();
+        long count = 0;
+        for (long bucketCount : bucketCounts) {
+            count += bucketCount;
+        }
+        this.count = count;
+        totalNanos = histogram.getTotalNanos();
+        maxNanos = histogram.getMaxNanos();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMeanNanos() {
+        return count > 0 ? totalNanos / count : 0;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Returns the duration which the given share of the recorded durations didn't exceed, or 0 if there were none.
+     *
+     * @param percentile between 0 and 100, e.g. 99.9
+     */
+    public long getPercentileNanos(double percentile) {
+        return LatencyHistogram.percentile(bucketCounts, count, maxNanos, percentile);
+    }
+
+    @Override
+    public String toString() {
+        return "[count=" + count + ", mean=" + getMeanNanos() + "ns, p50=" + getPercentileNanos(50) + "ns, p99=" +
+                getPercentileNanos(99) + "ns, p99.9=" + getPercentileNanos(99.9) + "ns, max=" + maxNanos + "ns]";
+    }
+}
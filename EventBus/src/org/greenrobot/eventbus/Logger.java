@@ -34,6 +34,11 @@ public interface Logger {
             logger = java.util.logging.Logger.getLogger(tag);
         }
 
+        /** Whether messages of the level are logged, checked by EventBus before formatting its messages. */
+        public boolean isLoggable(Level level) {
+            return logger.isLoggable(level);
+        }
+
         @Override
         public void log(Level level, String msg) {
             // TODO Replace logged method with caller method
@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.pm.ComponentInfo;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+import dalvik.system.DexFile;
+
+/**
+ * Scans the classes of the application package in background for methods mapped with {@link Subscribe} or
+ * {@link Handle} and registers them as mapped classes of the bus (see {@link EventBus#registerMappedClass(Class)}).
+ * <p/>
+ * Classes are loaded without being initialized, and the work is shared by up to one worker per core.
+ * The scan runs in two phases: first the activities and services declared in the manifest, which are the only
+ * classes eligible for {@link ActionMode#LAZY_SUBSCRIBE} and {@link ExceptionalActionMode#LAZY_HANDLE}, and thus the
+ * only ones relevant to the late delivery of posted events; then all other classes of the package. Posting threads
+ * only wait for the first phase, and help scanning instead of blocking idle.
+ * <p/>
+ * With a {@link DiscoveryCache} holding a completed scan for the same application code, only the classes known to be
+ * mapped are loaded and the package classes are not listed at all.
+ */
+final class MappedClassScanner implements Runnable {
+
+    /** Number of class names a worker claims at once. */
+    private static final int CHUNK_SIZE = 16;
+
+    private final EventBus eventBus;
+    private final Context context;
+    private final ExecutorService executorService;
+    private final FormattingLogger logger;
+    private final DiscoveryCache discoveryCache;
+    // @Nullable
+    private final BusTracer tracer;
+    private final int parallelism;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CountDownLatch componentsListed = new CountDownLatch(1);
+    private final CountDownLatch othersListed = new CountDownLatch(1);
+    private volatile Batch components;
+    private volatile Batch others;
+    private volatile boolean componentsScanned;
+    private volatile boolean completed;
+
+    MappedClassScanner(EventBus eventBus, Context context, ExecutorService executorService, FormattingLogger logger,
+                       DiscoveryCache discoveryCache, BusTracer tracer) {
+        this.eventBus = eventBus;
+        this.context = context;
+        this.executorService = executorService;
+        this.logger = logger;
+        this.discoveryCache = discoveryCache;
+        this.tracer = tracer;
+        this.parallelism = Math.max(1, Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Starts the scan in background, if not done yet. */
+    void start() {
+        if (started.compareAndSet(false, true)) {
+            if (discoveryCache != null) {
+                discoveryCache.scanStarted();
+            }
+            try {
+                executorService.execute(this);
+            } catch (RuntimeException e) {
+                if (discoveryCache != null) {
+                    discoveryCache.scanFinished(false);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /** Returns once all classes relevant to late delivery (activities and services) are mapped. */
+    void awaitComponents() {
+        if (componentsScanned) {
+            return;
+        }
+        start();
+        awaitQuietly(componentsListed);
+        Batch batch = components;
+        if (batch != null) {
+            batch.helpAndAwait();
+        }
+    }
+
+    /** Returns once all classes of the application package are mapped. */
+    void awaitCompletion() {
+        if (completed) {
+            return;
+        }
+        awaitComponents();
+        awaitQuietly(othersListed);
+        Batch batch = others;
+        if (batch != null) {
+            batch.helpAndAwait();
+        }
+    }
+
+    @Override
+    public void run() {
+        Object token = tracer != null ? tracer.beginMappedClassScan() : null;
+        int classCount = 0;
+        boolean scanned = false;
+        try {
+            List<String> knownClassNames = discoveryCache != null ? discoveryCache.getMappedClassNames() : null;
+            Set<String> componentClassNames = new LinkedHashSet<>(findComponentClassNames());
+            if (knownClassNames != null) {
+                componentClassNames.retainAll(knownClassNames);
+            }
+            components = new Batch(new ArrayList<>(componentClassNames));
+            componentsListed.countDown();
+            components.fork();
+            components.helpAndAwait();
+            componentsScanned = true;
+            classCount = componentClassNames.size();
+
+            List<String> otherClassNames = knownClassNames != null ? knownClassNames : findPackageClassNames();
+            otherClassNames.removeAll(componentClassNames);
+            others = new Batch(otherClassNames);
+            othersListed.countDown();
+            others.fork();
+            others.helpAndAwait();
+            classCount += otherClassNames.size();
+            scanned = true;
+        } finally {
+            if (discoveryCache != null) {
+                discoveryCache.scanFinished(scanned);
+            }
+            // Never leave waiting threads behind, even if listing the classes failed
+            componentsListed.countDown();
+            othersListed.countDown();
+            componentsScanned = true;
+            completed = true;
+            if (tracer != null) {
+                tracer.endMappedClassScan(token, classCount);
+            }
+        }
+    }
+
+    private List<String> findComponentClassNames() {
+        List<String> classNames = new ArrayList<>();
+        try {
+            PackageInfo packageInfo = context.getPackageManager().getPackageInfo(context.getPackageName(),
+                    PackageManager.GET_ACTIVITIES | PackageManager.GET_SERVICES);
+            addComponentClassNames(classNames, packageInfo.activities);
+            addComponentClassNames(classNames, packageInfo.services);
+        } catch (PackageManager.NameNotFoundException e) {
+            logger.log(Level.WARNING, "Could not read components of package {}", context.getPackageName(), e);
+        }
+        return classNames;
+    }
+
+    private void addComponentClassNames(List<String> classNames, ComponentInfo[] componentInfos) {
+        if (componentInfos != null) {
+            for (ComponentInfo componentInfo : componentInfos) {
+                classNames.add(componentInfo.name);
+            }
+        }
+    }
+
+    private List<String> findPackageClassNames() {
+        List<String> classNames = new ArrayList<>();
+        String packageName = context.getPackageName();
+        try {
+            @SuppressLint({"NewApi", "LocalSuppress"})
+            DexFile df = new DexFile(context.getPackageCodePath());
+            for (Enumeration<String> iter = df.entries(); iter.hasMoreElements(); ) {
+                String className = iter.nextElement();
+                if (className.contains(packageName)) {
+                    classNames.add(className);
+                }
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not list classes of {}", context.getPackageCodePath(), e);
+        }
+        return classNames;
+    }
+
+    private void scanClass(String className) {
+        try {
+            Class<?> classInPackage = Class.forName(className, false, context.getClassLoader());
+            eventBus.registerMappedClass(classInPackage);
+        } catch (ClassNotFoundException e) {
+            logger.log(Level.FINE, "Could not load class {}", className, e);
+        } catch (LinkageError e) {
+            logger.log(Level.FINE, "Could not link class {}", className, e);
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Could not map class {}", className, e);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Class names scanned cooperatively: workers and waiting threads claim chunks of names until none are left.
+     */
+    private final class Batch implements Runnable {
+        private final List<String> classNames;
+        private final AtomicInteger cursor = new AtomicInteger();
+        private final CountDownLatch done;
+
+        Batch(List<String> classNames) {
+            this.classNames = classNames;
+            this.done = new CountDownLatch(classNames.size());
+        }
+
+        /** Submits additional workers; the calling thread is expected to help via {@link #helpAndAwait()}. */
+        void fork() {
+            int workers = Math.min(parallelism, (classNames.size() + CHUNK_SIZE - 1) / CHUNK_SIZE) - 1;
+            for (int i = 0; i < workers; i++) {
+                executorService.execute(this);
+            }
+        }
+
+        void helpAndAwait() {
+            run();
+            awaitQuietly(done);
+        }
+
+        @Override
+        public void run() {
+            int size = classNames.size();
+            int start;
+            while ((start = cursor.getAndAdd(CHUNK_SIZE)) < size) {
+                int end = Math.min(start + CHUNK_SIZE, size);
+                for (int i = start; i < end; i++) {
+                    try {
+                        scanClass(classNames.get(i));
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.util.Map;
+
+/**
+ * This Exceptional event is throwed by EventBus instead of individual {@link NoHandlerExceptionalEvent}s if enabled
+ * by {@link EventBusBuilder#summarizeNoHandlerExceptionalEvents(long)}. It's throwed at most once per interval,
+ * together with the next exceptional event without handlers.
+ */
+public final class NoHandlerSummaryExceptionalEvent {
+    /** The {@link EventBus} instance the exceptional events were throwed to. */
+    public final EventBus eventBus;
+
+    /** Number of exceptional events without handlers in the period, by exceptional event class. */
+    public final Map<Class<?>, Long> countsByExceptionalEventType;
+
+    /** Length of the summarized period in milliseconds. */
+    public final long periodMillis;
+
+    public NoHandlerSummaryExceptionalEvent(EventBus eventBus, Map<Class<?>, Long> countsByExceptionalEventType,
+                                            long periodMillis) {
+        this.eventBus = eventBus;
+        this.countsByExceptionalEventType = countsByExceptionalEventType;
+        this.periodMillis = periodMillis;
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts events or exceptional events without receivers per type, for the summaries enabled by
+ * {@link EventBusBuilder#summarizeNoSubscriberEvents(long)} and
+ * {@link EventBusBuilder#summarizeNoHandlerExceptionalEvents(long)}.
+ */
+final class NoReceiverCounter {
+    private final long intervalMillis;
+    private final ConcurrentHashMap<Class<?>, AtomicLong> counts = new ConcurrentHashMap<>();
+    private final AtomicLong periodStart = new AtomicLong(System.currentTimeMillis());
+
+    NoReceiverCounter(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Counts an event of the given type. If the interval has elapsed, exactly one caller gets the counts of the
+     * elapsed period to send a summary; all others get null.
+     */
+    Period count(Class<?> type) {
+        AtomicLong count = counts.get(type);
+        if (count == null) {
+            AtomicLong newCount = new AtomicLong();
+            count = counts.putIfAbsent(type, newCount);
+            if (count == null) {
+                count = newCount;
+            }
+        }
+        count.incrementAndGet();
+
+        long now = System.currentTimeMillis();
+        long start = periodStart.get();
+        if (now - start >= intervalMillis && periodStart.compareAndSet(start, now)) {
+            Map<Class<?>, Long> period = new HashMap<>();
+            for (Map.Entry<Class<?>, AtomicLong> entry : counts.entrySet()) {
+                long periodCount = entry.getValue().getAndSet(0);
+                if (periodCount != 0) {
+                    period.put(entry.getKey(), periodCount);
+                }
+            }
+            return new Period(Collections.unmodifiableMap(period), now - start);
+        }
+        return null;
+    }
+
+    static final class Period {
+        final Map<Class<?>, Long> counts;
+        final long millis;
+
+        Period(Map<Class<?>, Long> counts, long millis) {
+            this.counts = counts;
+            this.millis = millis;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.util.Map;
+
+/**
+ * This Event is posted by EventBus instead of individual {@link NoSubscriberEvent}s if enabled by
+ * {@link EventBusBuilder#summarizeNoSubscriberEvents(long)}. It's posted at most once per interval, together with the
+ * next event without subscribers.
+ */
+public final class NoSubscriberSummaryEvent {
+    /** The {@link EventBus} instance the events were posted to. */
+    public final EventBus eventBus;
+
+    /** Number of events without subscribers in the period, by event class. */
+    public final Map<Class<?>, Long> countsByEventType;
+
+    /** Length of the summarized period in milliseconds. */
+    public final long periodMillis;
+
+    public NoSubscriberSummaryEvent(EventBus eventBus, Map<Class<?>, Long> countsByEventType, long periodMillis) {
+        this.eventBus = eventBus;
+        this.countsByEventType = countsByEventType;
+        this.periodMillis = periodMillis;
+    }
+
+}
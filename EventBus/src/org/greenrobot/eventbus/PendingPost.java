@@ -20,28 +20,46 @@ import java.util.List;
 
 final class PendingPost {
     private final static List<PendingPost> pendingPostPool = new ArrayList<PendingPost>();
+    /** Written while holding the pool lock, read without. */
+    private static volatile long poolHitCount;
+    private static volatile long poolMissCount;
 
     Object event;
     Subscription subscription;
     PendingPost next;
+    /** {@link System#nanoTime()} when enqueued, or {@link EventBus#NOT_TIMED} if not needed by metrics or tracer. */
+    long enqueueNanos;
 
-    private PendingPost(Object event, Subscription subscription) {
+    private PendingPost(Object event, Subscription subscription, long enqueueNanos) {
         this.event = event;
         this.subscription = subscription;
+        this.enqueueNanos = enqueueNanos;
     }
 
-    static PendingPost obtainPendingPost(Subscription subscription, Object event) {
+    static PendingPost obtainPendingPost(Subscription subscription, Object event, long enqueueNanos) {
         synchronized (pendingPostPool) {
             int size = pendingPostPool.size();
             if (size > 0) {
+                poolHitCount++;
                 PendingPost pendingPost = pendingPostPool.remove(size - 1);
                 pendingPost.event = event;
                 pendingPost.subscription = subscription;
                 pendingPost.next = null;
+                pendingPost.enqueueNanos = enqueueNanos;
                 return pendingPost;
             }
+            poolMissCount++;
         }
-        return new PendingPost(event, subscription);
+        return new PendingPost(event, subscription, enqueueNanos);
+    }
+
+    /** Number of obtained instances which were reused from the pool, which is shared by all EventBus instances. */
+    static long getPoolHitCount() {
+        return poolHitCount;
+    }
+
+    static long getPoolMissCount() {
+        return poolMissCount;
     }
 
     static void releasePendingPost(PendingPost pendingPost) {
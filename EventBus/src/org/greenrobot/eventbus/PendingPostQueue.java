@@ -19,6 +19,8 @@ package org.greenrobot.eventbus;
 final class PendingPostQueue {
     private PendingPost head;
     private PendingPost tail;
+    /** Written while holding the lock, read without. */
+    private volatile int size;
 
     synchronized void enqueue(PendingPost pendingPost) {
         if (pendingPost == null) {
@@ -32,6 +34,7 @@ final class PendingPostQueue {
         } else {
             throw new IllegalStateException("Head present, but no tail");
         }
+        size++;
         notifyAll();
     }
 
@@ -42,6 +45,7 @@ final class PendingPostQueue {
             if (head == null) {
                 tail = null;
             }
+            size--;
         }
         return pendingPost;
     }
@@ -53,4 +57,8 @@ final class PendingPostQueue {
         return poll();
     }
 
-}
\ No newline at end of file
+    /** Number of queued elements, without locking; may be slightly outdated. */
+    int size() {
+        return size;
+    }
+}
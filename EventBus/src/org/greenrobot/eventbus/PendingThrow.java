@@ -23,28 +23,46 @@ import java.util.List;
  */
 final class PendingThrow {
     private final static List<PendingThrow> pendingThrowPool = new ArrayList<PendingThrow>();
+    /** Written while holding the pool lock, read without. */
+    private static volatile long poolHitCount;
+    private static volatile long poolMissCount;
 
     Object exceptionalEvent;
     Handlement handlement;
     PendingThrow next;
+    /** {@link System#nanoTime()} when enqueued, or {@link EventBus#NOT_TIMED} if not needed by metrics or tracer. */
+    long enqueueNanos;
 
-    private PendingThrow(Object exceptionalEvent, Handlement handlement) {
+    private PendingThrow(Object exceptionalEvent, Handlement handlement, long enqueueNanos) {
         this.exceptionalEvent = exceptionalEvent;
         this.handlement = handlement;
+        this.enqueueNanos = enqueueNanos;
     }
 
-    static PendingThrow obtainPendingThrow(Handlement handlement, Object exceptionalEvent) {
+    static PendingThrow obtainPendingThrow(Handlement handlement, Object exceptionalEvent, long enqueueNanos) {
         synchronized (pendingThrowPool) {
             int size = pendingThrowPool.size();
             if (size > 0) {
+                poolHitCount++;
                 PendingThrow pendingThrow = pendingThrowPool.remove(size - 1);
                 pendingThrow.exceptionalEvent = exceptionalEvent;
                 pendingThrow.handlement = handlement;
                 pendingThrow.next = null;
+                pendingThrow.enqueueNanos = enqueueNanos;
                 return pendingThrow;
             }
+            poolMissCount++;
         }
-        return new PendingThrow(exceptionalEvent, handlement);
+        return new PendingThrow(exceptionalEvent, handlement, enqueueNanos);
+    }
+
+    /** Number of obtained instances which were reused from the pool, which is shared by all EventBus instances. */
+    static long getPoolHitCount() {
+        return poolHitCount;
+    }
+
+    static long getPoolMissCount() {
+        return poolMissCount;
     }
 
     static void releasePendingThrow(PendingThrow pendingThrow) {
@@ -22,6 +22,8 @@ package org.greenrobot.eventbus;
 final class PendingThrowQueue {
     private PendingThrow head;
     private PendingThrow tail;
+    /** Written while holding the lock, read without. */
+    private volatile int size;
 
     synchronized void enqueue(PendingThrow pendingThrow) {
         if (pendingThrow == null) {
@@ -35,6 +37,7 @@ final class PendingThrowQueue {
         } else {
             throw new IllegalStateException("Head present, but no tail");
         }
+        size++;
         notifyAll();
     }
 
@@ -45,6 +48,7 @@ final class PendingThrowQueue {
             if (head == null) {
                 tail = null;
             }
+            size--;
         }
         return pendingThrow;
     }
@@ -56,4 +60,8 @@ final class PendingThrowQueue {
         return poll();
     }
 
-}
\ No newline at end of file
+    /** Number of queued elements, without locking; may be slightly outdated. */
+    int size() {
+        return size;
+    }
+}
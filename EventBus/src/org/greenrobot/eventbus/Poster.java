@@ -29,4 +29,7 @@ interface Poster {
      * @param event        Event that will be posted to subscribers.
      */
     void enqueue(Subscription subscription, Object event);
-}
\ No newline at end of file
+
+    /** Number of queued events not delivered yet, without locking. */
+    int getQueueSize();
+}
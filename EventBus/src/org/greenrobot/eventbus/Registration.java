@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Handle returned by the register methods of {@link EventBus}, referencing the subscriptions and handlements created
+ * by that call. Closing it removes exactly these entries, without looking them up by the registered object; it's an
+ * alternative to {@link EventBus#unregister(Object)} and friends. An object registered several times holds independent
+ * registrations, and closing one keeps the others. Closing is idempotent and has no effect once the object was
+ * unregistered otherwise.
+ * <p/>
+ * Once the bus is frozen (see {@link EventBus#freeze()}), only registrations made after freezing can be closed. Closing
+ * one with entries of the frozen registry throws an {@link EventBusException} and leaves it open.
+ */
+public final class Registration implements Closeable {
+    private final EventBus eventBus;
+    final List<Subscription> subscriptions;
+    final List<Handlement> handlements;
+    private volatile boolean closed;
+
+    Registration(EventBus eventBus, List<Subscription> subscriptions, List<Handlement> handlements) {
+        this.eventBus = eventBus;
+        this.subscriptions = subscriptions != null ? subscriptions : Collections.<Subscription>emptyList();
+        this.handlements = handlements != null ? handlements : Collections.<Handlement>emptyList();
+    }
+
+    /** Whether {@link #close()} was called. */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @throws EventBusException if the bus is frozen and the registration has entries of the frozen registry
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            eventBus.unregister(this);
+            closed = true;
+        }
+    }
+}
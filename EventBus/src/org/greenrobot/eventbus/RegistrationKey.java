@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * Weak reference to a subscriber or handler registered with {@link EventBusBuilder#weakRegistration(boolean)}.
+ * The key created on registration is shared by the registry ({@code typesBySubscriber}/{@code typesByHandler}) and all
+ * subscriptions or handlements of the object, and is enqueued once the object was collected. Keys are equal if they
+ * reference the same object (identity), so short-lived keys can be used for lookups.
+ */
+final class RegistrationKey extends WeakReference<Object> {
+    final boolean handler;
+    private final int hash;
+
+    RegistrationKey(Object referent, boolean handler, ReferenceQueue<Object> queue) {
+        super(referent, queue);
+        this.handler = handler;
+        this.hash = System.identityHashCode(referent);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other instanceof RegistrationKey) {
+            Object referent = get();
+            return referent != null && referent == ((RegistrationKey) other).get();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.lang.reflect.Method;
+
+/**
+ * This Event is posted by EventBus when a subscriber method runs longer than the threshold configured with
+ * {@link EventBusBuilder#watchSlowSubscribers(long)}, while it's still running. It's posted at most once per interval
+ * and subscriber method (see {@link EventBusBuilder#slowSubscriberReportInterval(long)}) from the watchdog thread, so
+ * subscribers should not block in {@link ThreadMode#POSTING}.
+ */
+public final class SlowSubscriberEvent {
+    /** The {@link EventBus} instance the event being processed was posted to. */
+    public final EventBus eventBus;
+
+    /** The event the slow subscriber is processing. */
+    public final Object causingEvent;
+
+    /** The slow subscriber. */
+    public final Object causingSubscriber;
+
+    /**
+     * The slow subscriber method; null for subscriptions made with
+     * {@link EventBus#subscribe(Class, EventConsumer, ThreadMode, int)}, whose subscriber is the {@link EventConsumer}.
+     */
+    // @Nullable
+    public final Method subscriberMethod;
+
+    /** The thread running the subscriber method. */
+    public final Thread thread;
+
+    /** Stack of the thread when the subscriber was found to be slow. */
+    public final StackTraceElement[] stackTrace;
+
+    /** How long the subscriber method had been running when it was found to be slow. */
+    public final long runningMillis;
+
+    public SlowSubscriberEvent(EventBus eventBus, Object causingEvent, Object causingSubscriber,
+                               Method subscriberMethod, Thread thread, StackTraceElement[] stackTrace,
+                               long runningMillis) {
+        this.eventBus = eventBus;
+        this.causingEvent = causingEvent;
+        this.causingSubscriber = causingSubscriber;
+        this.subscriberMethod = subscriberMethod;
+        this.thread = thread;
+        this.stackTrace = stackTrace;
+        this.runningMillis = runningMillis;
+    }
+
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Finds subscriber invocations running longer than a threshold, see
+ * {@link EventBusBuilder#watchSlowSubscribers(long)}.
+ * <p/>
+ * Each dispatching thread publishes its current invocation in a {@link Watch}, which costs two volatile writes per
+ * invocation. A daemon thread checks all watches periodically, captures the stack of threads found slow and reports
+ * them. It runs only while there are threads with watches, which are dropped once their thread died.
+ */
+final class SlowSubscriberWatchdog implements Runnable {
+    private final EventBus eventBus;
+    private final FormattingLogger logger;
+    private final long thresholdNanos;
+    private final long checkIntervalMillis;
+    private final long reportIntervalMillis;
+    private final boolean logSlowSubscribers;
+    private final boolean sendSlowSubscriberEvent;
+
+    private final List<Watch> watches = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Thread watchdogThread;
+
+    /** Only accessed by the watchdog thread. */
+    private final Map<SubscriberMethod, Long> lastReportMillis = new HashMap<>();
+
+    SlowSubscriberWatchdog(EventBus eventBus, FormattingLogger logger, long thresholdMillis, long reportIntervalMillis,
+                           boolean logSlowSubscribers, boolean sendSlowSubscriberEvent) {
+        this.eventBus = eventBus;
+        this.logger = logger;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.checkIntervalMillis = Math.max(1, thresholdMillis / 2);
+        this.reportIntervalMillis = reportIntervalMillis;
+        this.logSlowSubscribers = logSlowSubscribers;
+        this.sendSlowSubscriberEvent = sendSlowSubscriberEvent;
+    }
+
+    /**
+     * Publishes the invocation in the watch of the current thread. Returns the watch to be ended after the invocation,
+     * or null if it isn't watched: nested invocations are covered by the outermost one, and the watchdog thread
+     * doesn't watch itself.
+     */
+    Watch begin(EventBus.DispatchState dispatchState, Subscription subscription, Object event) {
+        Watch watch = dispatchState.slowSubscriberWatch;
+        if (watch == null) {
+            Thread thread = Thread.currentThread();
+            if (thread == watchdogThread) {
+                return null;
+            }
+            watch = new Watch(thread);
+            dispatchState.slowSubscriberWatch = watch;
+            watches.add(watch);
+            ensureRunning();
+        } else if (watch.subscription != null) {
+            return null;
+        } else if (!running.get()) {
+            // The watchdog died, see run()
+            ensureRunning();
+        }
+        watch.event = event;
+        watch.startNanos = System.nanoTime();
+        // Volatile write publishes event and start
+        watch.subscription = subscription;
+        return watch;
+    }
+
+    private void ensureRunning() {
+        if (running.compareAndSet(false, true)) {
+            Thread thread = new Thread(this, "EventBus-SlowSubscriberWatchdog");
+            thread.setDaemon(true);
+            watchdogThread = thread;
+            thread.start();
+        }
+    }
+
+    @Override
+    public void run() {
+        boolean stopped = false;
+        try {
+            while (true) {
+                try {
+                    Thread.sleep(checkIntervalMillis);
+                } catch (InterruptedException e) {
+                    // Keep watching, stopping is decided below
+                }
+                try {
+                    check();
+                } catch (RuntimeException e) {
+                    logger.log(Level.SEVERE, "Could not check for slow subscribers", e);
+                }
+                if (watches.isEmpty()) {
+                    running.set(false);
+                    // A thread may have added a watch after the check without starting another watchdog
+                    if (watches.isEmpty() || !running.compareAndSet(false, true)) {
+                        stopped = true;
+                        return;
+                    }
+                }
+            }
+        } finally {
+            if (!stopped) {
+                // Died from an error, let the next invocation start a new watchdog
+                running.set(false);
+            }
+        }
+    }
+
+    private void check() {
+        long now = System.nanoTime();
+        for (Watch watch : watches) {
+            Thread thread = watch.thread.get();
+            if (thread == null || !thread.isAlive()) {
+                watches.remove(watch);
+                continue;
+            }
+            Subscription subscription = watch.subscription;
+            if (subscription == null) {
+                continue;
+            }
+            long startNanos = watch.startNanos;
+            Object event = watch.event;
+            long runningNanos = now - startNanos;
+            if (runningNanos >= thresholdNanos && startNanos != watch.reportedStartNanos) {
+                watch.reportedStartNanos = startNanos;
+                StackTraceElement[] stackTrace = thread.getStackTrace();
+                // Skip if the invocation ended meanwhile, as the stack would show something else
+                if (watch.subscription == subscription && watch.startNanos == startNanos) {
+                    report(subscription, event, thread, stackTrace, TimeUnit.NANOSECONDS.toMillis(runningNanos));
+                }
+            }
+        }
+    }
+
+    private void report(Subscription subscription, Object event, Thread thread, StackTraceElement[] stackTrace,
+                        long runningMillis) {
+        SubscriberMethod subscriberMethod = subscription.subscriberMethod;
+        long nowMillis = System.currentTimeMillis();
+        Long lastMillis = lastReportMillis.get(subscriberMethod);
+        if (lastMillis != null && nowMillis - lastMillis < reportIntervalMillis) {
+            return;
+        }
+        lastReportMillis.put(subscriberMethod, nowMillis);
+
+        if (logSlowSubscribers) {
+            Throwable stack = new Throwable("Stack of thread " + thread.getName() + " delivering " + event.getClass());
+            stack.setStackTrace(stackTrace);
+            String methodName = subscription.subscriberClass.getName() + "." + subscriberMethod.methodName;
+            logger.log(Level.WARNING, "Subscriber {} has been running for {} ms", methodName, runningMillis, stack);
+        }
+        // Don't report slow subscribers of the report itself to avoid recursion
+        if (sendSlowSubscriberEvent && !(event instanceof SlowSubscriberEvent)) {
+            Object subscriber = subscription.getSubscriber();
+            if (subscriber != null) {
+                // Null for consumer subscriptions
+                Method method = subscriberMethod.getMethod();
+                eventBus.post(new SlowSubscriberEvent(eventBus, event, subscriber, method, thread, stackTrace,
+                        runningMillis));
+            }
+        }
+    }
+
+    /** The invocation currently running on a thread, written by that thread only. */
+    static final class Watch {
+        final WeakReference<Thread> thread;
+        /** Null while not invoking a subscriber. */
+        volatile Subscription subscription;
+        Object event;
+        long startNanos;
+        /** Start of the last invocation found slow, to report it once; only accessed by the watchdog thread. */
+        long reportedStartNanos;
+
+        Watch(Thread thread) {
+            this.thread = new WeakReference<>(thread);
+        }
+
+        void end() {
+            subscription = null;
+            event = null;
+        }
+    }
+}
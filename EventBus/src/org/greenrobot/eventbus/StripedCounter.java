@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Counter spreading increments over cells picked by thread id, so threads counting concurrently mostly don't contend
+ * on the same cache line. Like LongAdder, which isn't available before Java 8 (Android API 24), it starts with a
+ * single base value and only allocates the cells once an update collides, so the many counters that are never
+ * contended stay small.
+ */
+final class StripedCounter {
+    /** Longs per cell; one cache line of 64 bytes. */
+    private static final int PADDING = 8;
+    private static final int CELLS = cellCount();
+
+    private static final AtomicLongFieldUpdater<StripedCounter> BASE_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(StripedCounter.class, "base");
+    private static final AtomicReferenceFieldUpdater<StripedCounter, AtomicLongArray> CELLS_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(StripedCounter.class, AtomicLongArray.class, "cells");
+
+    private volatile long base;
+    /** Null until an update of {@link #base} failed because of a concurrent one. */
+    // @Nullable
+    private volatile AtomicLongArray cells;
+
+    private static int cellCount() {
+        int processors = Math.min(Runtime.getRuntime().availableProcessors(), 64);
+        return Integer.highestOneBit(Math.max(processors, 1) * 2 - 1);
+    }
+
+    void add(long delta) {
+        AtomicLongArray currentCells = cells;
+        if (currentCells == null) {
+            long current = base;
+            if (BASE_UPDATER.compareAndSet(this, current, current + delta)) {
+                return;
+            }
+            if (CELLS == 1) {
+                BASE_UPDATER.addAndGet(this, delta);
+                return;
+            }
+            CELLS_UPDATER.compareAndSet(this, null, new AtomicLongArray(CELLS * PADDING));
+            currentCells = cells;
+        }
+        int cell = (int) Thread.currentThread().getId() & (CELLS - 1);
+        currentCells.addAndGet(cell * PADDING, delta);
+    }
+
+    void increment() {
+        add(1);
+    }
+
+    /** Not an atomic snapshot if there are concurrent updates. */
+    long sum() {
+        long sum = base;
+        AtomicLongArray currentCells = cells;
+        if (currentCells != null) {
+            for (int i = 0; i < CELLS; i++) {
+                sum += currentCells.get(i * PADDING);
+            }
+        }
+        return sum;
+    }
+}
@@ -15,11 +15,15 @@
  */
 package org.greenrobot.eventbus;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 /** Used internally by EventBus and generated subscriber indexes. */
 public class SubscriberMethod {
-    final Method method;
+    /** Resolved on first use for methods restored from a persisted discovery cache, see {@link #getMethod()}. */
+    private volatile Method method;
+    final Class<?> declaringClass;
+    final String methodName;
     final ThreadMode threadMode;
     final ActionMode actionMode;
     final Class<?> eventType;
@@ -29,7 +33,15 @@ public class SubscriberMethod {
     String methodString;
 
     public SubscriberMethod(Method method, Class<?> eventType, ThreadMode threadMode, ActionMode actionMode, int priority, boolean sticky) {
+        this(method.getDeclaringClass(), method.getName(), eventType, threadMode, actionMode, priority, sticky);
         this.method = method;
+    }
+
+    /** Creates a subscriber method whose {@link Method} is looked up on first use. */
+    SubscriberMethod(Class<?> declaringClass, String methodName, Class<?> eventType, ThreadMode threadMode,
+                     ActionMode actionMode, int priority, boolean sticky) {
+        this.declaringClass = declaringClass;
+        this.methodName = methodName;
         this.threadMode = threadMode;
         this.actionMode = actionMode;
         this.eventType = eventType;
@@ -37,6 +49,30 @@ public class SubscriberMethod {
         this.sticky = sticky;
     }
 
+    /**
+     * Returns the reflective method, resolving it if needed. Callers must handle null, which is returned for
+     * subscriptions of an {@link EventConsumer}: those are called directly and have no method of their own.
+     */
+    // @Nullable
+    Method getMethod() {
+        Method resolved = method;
+        if (resolved == null) {
+            try {
+                resolved = declaringClass.getDeclaredMethod(methodName, eventType);
+            } catch (NoSuchMethodException e) {
+                throw new EventBusException("Could not find subscriber method " + methodName + " in " + declaringClass
+                        + ". Maybe the discovery cache is stale?", e);
+            }
+            method = resolved;
+        }
+        return resolved;
+    }
+
+    /** Calls the method on the subscriber; exceptions thrown by it are wrapped in an InvocationTargetException. */
+    void invoke(Object subscriber, Object event) throws InvocationTargetException, IllegalAccessException {
+        getMethod().invoke(subscriber, event);
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == this) {
@@ -57,8 +93,8 @@ public class SubscriberMethod {
             // Method.toString has more overhead, just take relevant parts of the method
             StringBuilder builder;
             builder = new StringBuilder(64);
-            builder.append(method.getDeclaringClass().getName());
-            builder.append('#').append(method.getName());
+            builder.append(declaringClass.getName());
+            builder.append('#').append(methodName);
             builder.append('(').append(eventType.getName());
             methodString = builder.toString();
         }
@@ -66,6 +102,7 @@ public class SubscriberMethod {
 
     @Override
     public int hashCode() {
-        return method.hashCode();
+        // Same as Method.hashCode(), without requiring the method to be resolved
+        return declaringClass.getName().hashCode() ^ methodName.hashCode();
     }
 }
\ No newline at end of file
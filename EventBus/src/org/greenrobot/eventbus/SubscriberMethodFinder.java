@@ -21,10 +21,10 @@ import org.greenrobot.eventbus.meta.SubscriberInfoIndex;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 class SubscriberMethodFinder {
     /*
@@ -35,56 +35,79 @@ class SubscriberMethodFinder {
     private static final int BRIDGE = 0x40;
     private static final int SYNTHETIC = 0x1000;
 
+    private static final Object NO_INFO = new Object();
+
     private static final int MODIFIERS_IGNORE = Modifier.ABSTRACT | Modifier.STATIC | BRIDGE | SYNTHETIC;
-    private static final Map<Class<?>, List<SubscriberMethod>> METHOD_CACHE = new ConcurrentHashMap<>();
+    private static final ClassCache<List<SubscriberMethod>> METHOD_CACHE = ClassCache.createShared("subscriberMethods");
 
-    private List<SubscriberInfoIndex> subscriberInfoIndexes;
+    /** Immutable copy of the indexes configured at bus creation; null if there are none. */
+    private final SubscriberInfoIndex[] subscriberInfoIndexes;
+    /** Merged view of all indexes: the info found for a class, or {@link #NO_INFO} if no index knows the class. */
+    private final ClassCache<Object> subscriberInfoByClass = ClassCache.create("subscriberInfos");
     private final boolean strictMethodVerification;
     private final boolean ignoreGeneratedIndex;
+    // @Nullable
+    private final DiscoveryCache discoveryCache;
+    // @Nullable
+    private final BusTracer tracer;
 
     private static final int POOL_SIZE = 4;
     private static final FindState[] FIND_STATE_POOL = new FindState[POOL_SIZE];
 
     SubscriberMethodFinder(List<SubscriberInfoIndex> subscriberInfoIndexes, boolean strictMethodVerification,
-                           boolean ignoreGeneratedIndex) {
-        this.subscriberInfoIndexes = subscriberInfoIndexes;
+                           boolean ignoreGeneratedIndex, DiscoveryCache discoveryCache, BusTracer tracer) {
+        this.subscriberInfoIndexes = subscriberInfoIndexes != null && !subscriberInfoIndexes.isEmpty() ?
+                subscriberInfoIndexes.toArray(new SubscriberInfoIndex[subscriberInfoIndexes.size()]) : null;
         this.strictMethodVerification = strictMethodVerification;
         this.ignoreGeneratedIndex = ignoreGeneratedIndex;
+        this.discoveryCache = discoveryCache;
+        this.tracer = tracer;
     }
 
     boolean hasSubscriberMethods(Class<?> subscriberClass) {
-        List<SubscriberMethod> subscriberMethods = METHOD_CACHE.get(subscriberClass);
-        if (subscriberMethods != null) {
-            return !subscriberMethods.isEmpty();
-        }
+        return !lookupSubscriberMethods(subscriberClass).isEmpty();
+    }
 
-        if (ignoreGeneratedIndex) {
-            subscriberMethods = findUsingReflection(subscriberClass);
-        } else {
-            subscriberMethods = findUsingInfo(subscriberClass);
+    List<SubscriberMethod> findSubscriberMethods(Class<?> subscriberClass) {
+        List<SubscriberMethod> subscriberMethods = lookupSubscriberMethods(subscriberClass);
+        if (subscriberMethods.isEmpty()) {
+            throw new EventBusException("Subscriber " + subscriberClass
+                    + " and its super classes have no public methods with the @Subscribe annotation");
         }
-
-        return !subscriberMethods.isEmpty();
+        return subscriberMethods;
     }
 
-    List<SubscriberMethod> findSubscriberMethods(Class<?> subscriberClass) {
+    /**
+     * Returns the (possibly empty) subscriber methods of the given class. Empty results are cached as well, so classes
+     * inspected by the mapped classes scan are never reflected upon twice. Methods persisted in the discovery cache
+     * are restored without reflection, and newly discovered ones are added to it.
+     */
+    private List<SubscriberMethod> lookupSubscriberMethods(Class<?> subscriberClass) {
         List<SubscriberMethod> subscriberMethods = METHOD_CACHE.get(subscriberClass);
         if (subscriberMethods != null) {
             return subscriberMethods;
         }
 
+        if (discoveryCache != null) {
+            subscriberMethods = discoveryCache.restoreSubscriberMethods(subscriberClass);
+            if (subscriberMethods != null) {
+                METHOD_CACHE.put(subscriberClass, subscriberMethods);
+                return subscriberMethods;
+            }
+        }
+
         if (ignoreGeneratedIndex) {
             subscriberMethods = findUsingReflection(subscriberClass);
         } else {
             subscriberMethods = findUsingInfo(subscriberClass);
         }
         if (subscriberMethods.isEmpty()) {
-            throw new EventBusException("Subscriber " + subscriberClass
-                    + " and its super classes have no public methods with the @Subscribe annotation");
-        } else {
-            METHOD_CACHE.put(subscriberClass, subscriberMethods);
-            return subscriberMethods;
+            subscriberMethods = Collections.emptyList();
+        } else if (discoveryCache != null) {
+            discoveryCache.learnSubscriberMethods(subscriberClass, subscriberMethods);
         }
+        METHOD_CACHE.put(subscriberClass, subscriberMethods);
+        return subscriberMethods;
     }
 
     private List<SubscriberMethod> findUsingInfo(Class<?> subscriberClass) {
@@ -95,7 +118,7 @@ class SubscriberMethodFinder {
             if (findState.subscriberInfo != null) {
                 SubscriberMethod[] array = findState.subscriberInfo.getSubscriberMethods();
                 for (SubscriberMethod subscriberMethod : array) {
-                    if (findState.checkAdd(subscriberMethod.method, subscriberMethod.eventType)) {
+                    if (findState.checkAdd(subscriberMethod.getMethod(), subscriberMethod.eventType)) {
                         findState.subscriberMethods.add(subscriberMethod);
                     }
                 }
@@ -142,16 +165,26 @@ class SubscriberMethodFinder {
             }
         }
         if (subscriberInfoIndexes != null) {
-            for (SubscriberInfoIndex index : subscriberInfoIndexes) {
-                SubscriberInfo info = index.getSubscriberInfo(findState.clazz);
-                if (info != null) {
-                    return info;
-                }
+            Object info = subscriberInfoByClass.get(findState.clazz);
+            if (info == null) {
+                info = lookupSubscriberInfo(findState.clazz);
+                subscriberInfoByClass.put(findState.clazz, info);
             }
+            return info != NO_INFO ? (SubscriberInfo) info : null;
         }
         return null;
     }
 
+    private Object lookupSubscriberInfo(Class<?> clazz) {
+        for (SubscriberInfoIndex index : subscriberInfoIndexes) {
+            SubscriberInfo info = index.getSubscriberInfo(clazz);
+            if (info != null) {
+                return info;
+            }
+        }
+        return NO_INFO;
+    }
+
     private List<SubscriberMethod> findUsingReflection(Class<?> subscriberClass) {
         FindState findState = prepareFindState();
         findState.initForSubscriber(subscriberClass);
@@ -163,6 +196,21 @@ class SubscriberMethodFinder {
     }
 
     private void findUsingReflectionInSingleClass(FindState findState) {
+        if (tracer == null) {
+            reflectSingleClass(findState);
+            return;
+        }
+        Object token = tracer.beginSubscriberReflection(findState.clazz);
+        int methodCount = findState.subscriberMethods.size();
+        try {
+            reflectSingleClass(findState);
+            methodCount = findState.subscriberMethods.size() - methodCount;
+        } finally {
+            tracer.endReflection(token, methodCount);
+        }
+    }
+
+    private void reflectSingleClass(FindState findState) {
         Method[] methods;
         try {
             // This is faster than getMethods, especially when subscribers are fat classes like Activities
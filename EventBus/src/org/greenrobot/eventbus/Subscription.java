@@ -16,16 +16,34 @@
 package org.greenrobot.eventbus;
 
 final class Subscription {
-    final Object subscriber;
+    /** Null if registered weakly, see {@link #subscriberKey}. */
+    private final Object subscriber;
+    /** Only set if registered weakly; also the subscriber's key in the registry. */
+    final RegistrationKey subscriberKey;
+    final Class<?> subscriberClass;
     final SubscriberMethod subscriberMethod;
     /**
      * Becomes false as soon as {@link EventBus#unregisterSubscriber(Object)} is called, which is checked by queued event delivery
      * {@link EventBus#invokeSubscriber(PendingPost)} to prevent race conditions.
      */
     volatile boolean active;
+    /**
+     * Whether the subscription was added after {@link EventBus#freeze()}, so it's not in the frozen registry. Only
+     * accessed holding the registration lock of the subscriber.
+     */
+    boolean dynamic;
 
     Subscription(Object subscriber, SubscriberMethod subscriberMethod) {
-        this.subscriber = subscriber;
+        this(subscriber, null, subscriberMethod);
+    }
+
+    /**
+     * @param subscriberKey if not null, the subscriber is only referenced weakly through this key
+     */
+    Subscription(Object subscriber, RegistrationKey subscriberKey, SubscriberMethod subscriberMethod) {
+        this.subscriber = subscriberKey == null ? subscriber : null;
+        this.subscriberKey = subscriberKey;
+        this.subscriberClass = subscriber.getClass();
         this.subscriberMethod = subscriberMethod;
         active = true;
     }
@@ -34,7 +52,10 @@ final class Subscription {
     public boolean equals(Object other) {
         if (other instanceof Subscription) {
             Subscription otherSubscription = (Subscription) other;
-            return subscriber == otherSubscription.subscriber
+            Object subscriber = getSubscriber();
+            // Entries of a collected subscriber are compared by its key
+            boolean sameSubscriber = subscriber != null ? subscriber == otherSubscription.getSubscriber() : subscriberKey == otherSubscription.subscriberKey;
+            return sameSubscriber
                     && subscriberMethod.equals(otherSubscription.subscriberMethod);
         } else {
             return false;
@@ -43,6 +64,23 @@ final class Subscription {
 
     @Override
     public int hashCode() {
-        return subscriber.hashCode() + subscriberMethod.methodString.hashCode();
+        return (subscriberKey != null ? subscriberKey.hashCode() : subscriber.hashCode()) + subscriberMethod.methodString.hashCode();
+    }
+
+    /** Returns the key of the subscriber in the registry: the subscriber itself, or its key if registered weakly. */
+    Object getRegistryKey() {
+        return subscriberKey != null ? subscriberKey : subscriber;
+    }
+
+    /** Returns the subscriber, or null if it was registered weakly and has been garbage collected. */
+    Object getSubscriber() {
+        return subscriberKey != null ? subscriberKey.get() : subscriber;
+    }
+
+    /**
+     * @param subscriberOrKey a subscriber, or the {@link RegistrationKey} of a collected one
+     */
+    boolean isFor(Object subscriberOrKey) {
+        return subscriberOrKey instanceof RegistrationKey ? subscriberKey == subscriberOrKey : getSubscriber() == subscriberOrKey;
     }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus;
+
+/**
+ * Read-only description of a subscription (a subscriber method of a registered subscriber) or of a subscriber class
+ * mapped for the start mechanism, see {@link BusTopology} and {@link DeliveryPlan}. It references classes only, never
+ * the subscriber itself.
+ */
+public final class SubscriptionInfo {
+    private final Class<?> eventType;
+    private final Class<?> subscriberClass;
+    private final Class<?> declaringClass;
+    private final String methodName;
+    private final ThreadMode threadMode;
+    private final ActionMode actionMode;
+    private final int priority;
+    private final boolean sticky;
+    private final boolean weak;
+    private final boolean active;
+
+    SubscriptionInfo(Subscription subscription) {
+        this(subscription.subscriberClass, subscription.subscriberMethod, subscription.subscriberKey != null,
+                subscription.active);
+    }
+
+    SubscriptionInfo(SubscriberClass subscriberClass) {
+        this(subscriberClass.subscriberClass, subscriberClass.subscriberMethod, false, subscriberClass.active);
+    }
+
+    private SubscriptionInfo(Class<?> subscriberClass, SubscriberMethod subscriberMethod, boolean weak,
+                             boolean active) {
+        this.eventType = subscriberMethod.eventType;
+        this.subscriberClass = subscriberClass;
+        this.declaringClass = subscriberMethod.declaringClass;
+        this.methodName = subscriberMethod.methodName;
+        this.threadMode = subscriberMethod.threadMode;
+        this.actionMode = subscriberMethod.actionMode;
+        this.priority = subscriberMethod.priority;
+        this.sticky = subscriberMethod.sticky;
+        this.weak = weak;
+        this.active = active;
+    }
+
+    /** The event type of the subscriber method's parameter. */
+    public Class<?> getEventType() {
+        return eventType;
+    }
+
+    public Class<?> getSubscriberClass() {
+        return subscriberClass;
+    }
+
+    /** The class declaring the subscriber method, which may be a super class of the subscriber class. */
+    public Class<?> getDeclaringClass() {
+        return declaringClass;
+    }
+
+    /** The name of the subscriber method; "accept" for subscriptions made with an {@link EventConsumer}. */
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public ThreadMode getThreadMode() {
+        return threadMode;
+    }
+
+    public ActionMode getActionMode() {
+        return actionMode;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public boolean isSticky() {
+        return sticky;
+    }
+
+    /** Whether the subscriber is only referenced weakly, see {@link EventBusBuilder#weakRegistration(boolean)}. */
+    public boolean isWeak() {
+        return weak;
+    }
+
+    /** False once the subscriber was unregistered, while events already queued for it are dropped. */
+    public boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public String toString() {
+        return subscriberClass.getName() + "." + methodName + "(" + eventType.getName() + ") [threadMode=" +
+                threadMode + ", actionMode=" + actionMode + ", priority=" + priority + ", sticky=" + sticky +
+                (weak ? ", weak" : "") + (active ? "" : ", inactive") + "]";
+    }
+}
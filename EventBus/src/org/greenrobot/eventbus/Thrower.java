@@ -29,4 +29,7 @@ interface Thrower {
      * @param exceptionalEvent        Exceptional event that will be throwed to handlers.
      */
     void enqueue(Handlement handlement, Object exceptionalEvent);
-}
\ No newline at end of file
+
+    /** Number of queued exceptional events not delivered yet, without locking. */
+    int getQueueSize();
+}
@@ -46,6 +46,22 @@ public class AndroidLogger implements Logger {
         this.tag = tag;
     }
 
+    /**
+     * Whether messages of the level are logged for the tag (see {@link Log#isLoggable(String, int)}), checked by
+     * EventBus before formatting its messages. {@link #log(Level, String)} itself logs all levels but OFF.
+     */
+    public boolean isLoggable(Level level) {
+        if (level == Level.OFF) {
+            return false;
+        }
+        try {
+            return Log.isLoggable(tag, mapLevel(level));
+        } catch (IllegalArgumentException e) {
+            // Tag too long for older Android versions
+            return true;
+        }
+    }
+
     public void log(Level level, String msg) {
         if (level != Level.OFF) {
             Log.println(mapLevel(level), tag, msg);
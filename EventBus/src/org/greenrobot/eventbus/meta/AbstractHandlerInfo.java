@@ -27,6 +27,8 @@ public abstract class AbstractHandlerInfo implements HandlerInfo {
     private final Class<?> handlerClass;
     private final Class<? extends HandlerInfo> superHandlerInfoClass;
     private final boolean shouldCheckSuperclass;
+    /** Created once on first use; instances are stateless apart from their cached methods. */
+    private volatile HandlerInfo superHandlerInfo;
 
     protected AbstractHandlerInfo(Class<?> handlerClass, Class<? extends HandlerInfo> superHandlerInfoClass,
                                   boolean shouldCheckSuperclass) {
@@ -45,8 +47,14 @@ public abstract class AbstractHandlerInfo implements HandlerInfo {
         if(superHandlerInfoClass == null) {
             return null;
         }
+        HandlerInfo info = superHandlerInfo;
+        if (info != null) {
+            return info;
+        }
         try {
-            return superHandlerInfoClass.newInstance();
+            info = superHandlerInfoClass.newInstance();
+            superHandlerInfo = info;
+            return info;
         } catch (InstantiationException e) {
             throw new RuntimeException(e);
         } catch (IllegalAccessException e) {
@@ -27,6 +27,8 @@ public abstract class AbstractSubscriberInfo implements SubscriberInfo {
     private final Class<?> subscriberClass;
     private final Class<? extends SubscriberInfo> superSubscriberInfoClass;
     private final boolean shouldCheckSuperclass;
+    /** Created once on first use; instances are stateless apart from their cached methods. */
+    private volatile SubscriberInfo superSubscriberInfo;
 
     protected AbstractSubscriberInfo(Class<?> subscriberClass, Class<? extends SubscriberInfo> superSubscriberInfoClass,
                                      boolean shouldCheckSuperclass) {
@@ -45,8 +47,14 @@ public abstract class AbstractSubscriberInfo implements SubscriberInfo {
         if(superSubscriberInfoClass == null) {
             return null;
         }
+        SubscriberInfo info = superSubscriberInfo;
+        if (info != null) {
+            return info;
+        }
         try {
-            return superSubscriberInfoClass.newInstance();
+            info = superSubscriberInfoClass.newInstance();
+            superSubscriberInfo = info;
+            return info;
         } catch (InstantiationException e) {
             throw new RuntimeException(e);
         } catch (IllegalAccessException e) {
@@ -0,0 +1,28 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus.meta;
+
+/**
+ * Interface for generated indexes which know the type hierarchies of the events and exceptional events used by
+ * indexed subscribers and handlers.
+ */
+public interface EventTypeHierarchyIndex {
+    /**
+     * Returns the given type followed by all its super classes and interfaces, in the order EventBus would find them
+     * by reflection, or null if the type is not indexed.
+     */
+    Class<?>[] getEventTypeHierarchy(Class<?> eventType);
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus.meta;
+
+import org.greenrobot.eventbus.ActionMode;
+import org.greenrobot.eventbus.EventBusException;
+import org.greenrobot.eventbus.ExceptionalActionMode;
+import org.greenrobot.eventbus.ExceptionalThreadMode;
+import org.greenrobot.eventbus.ThreadMode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Base class for indexes generated with the processor option eventBusIndexFormat=resource. Instead of building all
+ * infos in a static initializer, the processor writes a compact binary resource next to the index class, which is
+ * memory-mapped (or read once, if not a plain file) on the first lookup. Infos are decoded per class on lookup, and
+ * not cached here: EventBus caches the results per class already, without keeping classes from being unloaded.
+ * <p/>
+ * Layout (big endian): magic, version, string count, string offsets, then three tables - subscribers, handlers and
+ * event type hierarchies - each a count followed by (class name string, record offset) pairs sorted by class name.
+ * Strings use the {@link java.io.DataOutput#writeUTF(String)} encoding. Method records hold a method count followed
+ * by (method name, event type, thread mode, action mode, priority, sticky) entries; hierarchy records a count followed
+ * by type names. Class names are binary names.
+ */
+public abstract class ResourceInfoIndex implements SubscriberInfoIndex, HandlerInfoIndex, EventTypeHierarchyIndex {
+    public static final int MAGIC = 0x45424958;
+    public static final int VERSION = 1;
+
+    private final Class<?> indexClass;
+    private final String resourceName;
+    private volatile ByteBuffer buffer;
+    private int subscriberTable;
+    private int handlerTable;
+    private int hierarchyTable;
+
+    /**
+     * @param indexClass   the generated class, which the resource is loaded relative to
+     * @param resourceName name of the resource in the package of the index class
+     */
+    protected ResourceInfoIndex(Class<?> indexClass, String resourceName) {
+        this.indexClass = indexClass;
+        this.resourceName = resourceName;
+    }
+
+    @Override
+    public SubscriberInfo getSubscriberInfo(Class<?> subscriberClass) {
+        int record = findRecord(getBuffer(), subscriberTable, subscriberClass.getName());
+        return record != -1 ? decodeSubscriberInfo(subscriberClass, record) : null;
+    }
+
+    @Override
+    public HandlerInfo getHandlerInfo(Class<?> handlerClass) {
+        int record = findRecord(getBuffer(), handlerTable, handlerClass.getName());
+        return record != -1 ? decodeHandlerInfo(handlerClass, record) : null;
+    }
+
+    @Override
+    public Class<?>[] getEventTypeHierarchy(Class<?> eventType) {
+        int record = findRecord(getBuffer(), hierarchyTable, eventType.getName());
+        return record != -1 ? decodeHierarchy(eventType, record) : null;
+    }
+
+    private SubscriberInfo decodeSubscriberInfo(Class<?> subscriberClass, int record) {
+        ByteBuffer buffer = getBuffer();
+        int count = buffer.getInt(record);
+        int position = record + 4;
+        SubscriberMethodInfo[] methodInfos = new SubscriberMethodInfo[count];
+        for (int i = 0; i < count; i++) {
+            methodInfos[i] = new SubscriberMethodInfo(getString(buffer, buffer.getInt(position)),
+                    loadClass(subscriberClass, getString(buffer, buffer.getInt(position + 4))),
+                    ThreadMode.valueOf(getString(buffer, buffer.getInt(position + 8))),
+                    ActionMode.valueOf(getString(buffer, buffer.getInt(position + 12))),
+                    buffer.getInt(position + 16), buffer.get(position + 20) != 0);
+            position += 21;
+        }
+        return new SimpleSubscriberInfo(subscriberClass, true, methodInfos);
+    }
+
+    private HandlerInfo decodeHandlerInfo(Class<?> handlerClass, int record) {
+        ByteBuffer buffer = getBuffer();
+        int count = buffer.getInt(record);
+        int position = record + 4;
+        HandlerMethodInfo[] methodInfos = new HandlerMethodInfo[count];
+        for (int i = 0; i < count; i++) {
+            methodInfos[i] = new HandlerMethodInfo(getString(buffer, buffer.getInt(position)),
+                    loadClass(handlerClass, getString(buffer, buffer.getInt(position + 4))),
+                    ExceptionalThreadMode.valueOf(getString(buffer, buffer.getInt(position + 8))),
+                    ExceptionalActionMode.valueOf(getString(buffer, buffer.getInt(position + 12))),
+                    buffer.getInt(position + 16), buffer.get(position + 20) != 0);
+            position += 21;
+        }
+        return new SimpleHandlerInfo(handlerClass, true, methodInfos);
+    }
+
+    private Class<?>[] decodeHierarchy(Class<?> eventType, int record) {
+        ByteBuffer buffer = getBuffer();
+        int count = buffer.getInt(record);
+        Class<?>[] hierarchy = new Class<?>[count];
+        for (int i = 0; i < count; i++) {
+            hierarchy[i] = loadClass(eventType, getString(buffer, buffer.getInt(record + 4 + 4 * i)));
+        }
+        return hierarchy;
+    }
+
+    private static Class<?> loadClass(Class<?> context, String className) {
+        try {
+            return Class.forName(className, false, context.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new EventBusException("Could not load " + className + " for " + context +
+                    ". Maybe a missing ProGuard rule?", e);
+        }
+    }
+
+    /** Binary search in a table of (class name string, record offset) pairs; returns the record offset or -1. */
+    private static int findRecord(ByteBuffer buffer, int table, String className) {
+        int low = 0;
+        int high = buffer.getInt(table) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = table + 4 + 8 * middle;
+            int comparison = getString(buffer, buffer.getInt(entry)).compareTo(className);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return buffer.getInt(entry + 4);
+            }
+        }
+        return -1;
+    }
+
+    private static String getString(ByteBuffer buffer, int stringIndex) {
+        int offset = buffer.getInt(12 + 4 * stringIndex);
+        int length = buffer.getShort(offset) & 0xffff;
+        int position = offset + 2;
+        int end = position + length;
+        char[] chars = new char[length];
+        int count = 0;
+        while (position < end) {
+            int b = buffer.get(position++) & 0xff;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if ((b & 0xe0) == 0xc0) {
+                chars[count++] = (char) (((b & 0x1f) << 6) | (buffer.get(position++) & 0x3f));
+            } else {
+                int b2 = buffer.get(position++) & 0x3f;
+                chars[count++] = (char) (((b & 0x0f) << 12) | (b2 << 6) | (buffer.get(position++) & 0x3f));
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    private ByteBuffer getBuffer() {
+        ByteBuffer result = buffer;
+        if (result == null) {
+            synchronized (this) {
+                result = buffer;
+                if (result == null) {
+                    result = loadBuffer();
+                    if (result.getInt(0) != MAGIC || result.getInt(4) != VERSION) {
+                        throw new EventBusException("Incompatible index resource " + resourceName +
+                                " for " + indexClass);
+                    }
+                    int stringCount = result.getInt(8);
+                    subscriberTable = 12 + 4 * stringCount;
+                    handlerTable = subscriberTable + 4 + 8 * result.getInt(subscriberTable);
+                    hierarchyTable = handlerTable + 4 + 8 * result.getInt(handlerTable);
+                    // Volatile write publishes the table offsets as well
+                    buffer = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Locates the index resource, relative to the index class by default; returns null if there's none. */
+    protected URL getResourceUrl() {
+        return indexClass.getResource(resourceName);
+    }
+
+    private ByteBuffer loadBuffer() {
+        URL url = getResourceUrl();
+        if (url == null) {
+            throw new EventBusException("Index resource " + resourceName + " not found for " + indexClass);
+        }
+        try {
+            if ("file".equals(url.getProtocol())) {
+                FileInputStream in = new FileInputStream(new File(url.toURI()));
+                try {
+                    FileChannel channel = in.getChannel();
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                } finally {
+                    in.close();
+                }
+            } else {
+                InputStream in = url.openStream();
+                try {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    byte[] chunk = new byte[8192];
+                    int read;
+                    while ((read = in.read(chunk)) != -1) {
+                        out.write(chunk, 0, read);
+                    }
+                    return ByteBuffer.wrap(out.toByteArray());
+                } finally {
+                    in.close();
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new EventBusException("Could not read index resource " + resourceName + " for " + indexClass, e);
+        }
+    }
+}
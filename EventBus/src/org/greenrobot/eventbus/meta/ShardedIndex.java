@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus.meta;
+
+import org.greenrobot.eventbus.ClassCacheFactory;
+import org.greenrobot.eventbus.EventBusException;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Aggregates the index shards generated by EventBus' annotation processor in isolating mode
+ * (option eventBusIndexMode=isolating). Each subscriber or handler class gets its own shard, named after the class
+ * with {@link #SHARD_SUFFIX} appended, in the same package; nested classes are joined with '_'
+ * (e.g. com.example.Outer_Inner_EventBusIndex). Shards are located by this naming convention when a class is first
+ * looked up, so no registry has to be aggregated at build time.
+ * <p/>
+ * Neither looked up classes nor shards are held strongly, so classes of unloadable class loaders (e.g. plugins) don't
+ * leak through an index installed on a long-lived bus.
+ */
+public class ShardedIndex implements SubscriberInfoIndex, HandlerInfoIndex, EventTypeHierarchyIndex {
+    public static final String SHARD_SUFFIX = "_EventBusIndex";
+
+    private static final Object NO_SHARD = new Object();
+
+    private final ClassCacheFactory.Cache<Object> shardsByClass = ClassCacheFactory.create("indexShards");
+    /** Shards are kept alive by the cache entry of their class. */
+    private final List<WeakReference<EventTypeHierarchyIndex>> loadedShards = new CopyOnWriteArrayList<>();
+
+    /** Returns the name of the shard generated for the class with the given binary name. */
+    public static String getShardName(String className) {
+        return className.replace('$', '_') + SHARD_SUFFIX;
+    }
+
+    @Override
+    public SubscriberInfo getSubscriberInfo(Class<?> subscriberClass) {
+        Object shard = getShard(subscriberClass);
+        return shard instanceof SubscriberInfoIndex ?
+                ((SubscriberInfoIndex) shard).getSubscriberInfo(subscriberClass) : null;
+    }
+
+    @Override
+    public HandlerInfo getHandlerInfo(Class<?> handlerClass) {
+        Object shard = getShard(handlerClass);
+        return shard instanceof HandlerInfoIndex ? ((HandlerInfoIndex) shard).getHandlerInfo(handlerClass) : null;
+    }
+
+    /** Only the shards of classes looked up so far are consulted, as event types are not tied to a shard name. */
+    @Override
+    public Class<?>[] getEventTypeHierarchy(Class<?> eventType) {
+        for (WeakReference<EventTypeHierarchyIndex> shardReference : loadedShards) {
+            EventTypeHierarchyIndex shard = shardReference.get();
+            if (shard == null) {
+                loadedShards.remove(shardReference);
+                continue;
+            }
+            Class<?>[] hierarchy = shard.getEventTypeHierarchy(eventType);
+            if (hierarchy != null) {
+                return hierarchy;
+            }
+        }
+        return null;
+    }
+
+    private Object getShard(Class<?> clazz) {
+        Object shard = shardsByClass.get(clazz);
+        if (shard == null) {
+            // Racing threads may load a shard twice; the extra instance is dropped with its weak reference
+            shard = loadShard(clazz);
+            shardsByClass.put(clazz, shard);
+            if (shard instanceof EventTypeHierarchyIndex) {
+                loadedShards.add(new WeakReference<>((EventTypeHierarchyIndex) shard));
+            }
+        }
+        return shard;
+    }
+
+    private Object loadShard(Class<?> clazz) {
+        if (clazz.getClassLoader() == null) {
+            // System classes are never indexed
+            return NO_SHARD;
+        }
+        Class<?> shardClass;
+        try {
+            shardClass = Class.forName(getShardName(clazz.getName()), true, clazz.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return NO_SHARD;
+        }
+        try {
+            return shardClass.newInstance();
+        } catch (InstantiationException e) {
+            throw new EventBusException("Could not create index shard " + shardClass, e);
+        } catch (IllegalAccessException e) {
+            throw new EventBusException("Could not create index shard " + shardClass, e);
+        }
+    }
+}
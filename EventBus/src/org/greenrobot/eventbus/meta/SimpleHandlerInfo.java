@@ -18,11 +18,14 @@ package org.greenrobot.eventbus.meta;
 import org.greenrobot.eventbus.HandlerMethod;
 
 /**
- * Uses {@link HandlerMethodInfo} objects to create {@link HandlerMethod} objects on demand.
+ * Uses {@link HandlerMethodInfo} objects to create {@link HandlerMethod} objects on demand. They are created once and
+ * the returned array is shared, so it must not be modified.
  */
 public class SimpleHandlerInfo extends AbstractHandlerInfo {
 
     private final HandlerMethodInfo[] methodInfos;
+    /** Resolved once on first use; benign races may resolve twice, but always to equal methods. */
+    private volatile HandlerMethod[] methods;
 
     public SimpleHandlerInfo(Class<?> handlerClass, boolean shouldCheckSuperclass, HandlerMethodInfo[] methodInfos) {
         super(handlerClass, null, shouldCheckSuperclass);
@@ -30,7 +33,16 @@ public class SimpleHandlerInfo extends AbstractHandlerInfo {
     }
 
     @Override
-    public synchronized HandlerMethod[] getHandlerMethods() {
+    public HandlerMethod[] getHandlerMethods() {
+        HandlerMethod[] methods = this.methods;
+        if (methods == null) {
+            methods = createHandlerMethods();
+            this.methods = methods;
+        }
+        return methods;
+    }
+
+    private HandlerMethod[] createHandlerMethods() {
         int length = methodInfos.length;
         HandlerMethod[] methods = new HandlerMethod[length];
         for (int i = 0; i < length; i++) {
@@ -18,11 +18,14 @@ package org.greenrobot.eventbus.meta;
 import org.greenrobot.eventbus.SubscriberMethod;
 
 /**
- * Uses {@link SubscriberMethodInfo} objects to create {@link SubscriberMethod} objects on demand.
+ * Uses {@link SubscriberMethodInfo} objects to create {@link SubscriberMethod} objects on demand. They are created once and
+ * the returned array is shared, so it must not be modified.
  */
 public class SimpleSubscriberInfo extends AbstractSubscriberInfo {
 
     private final SubscriberMethodInfo[] methodInfos;
+    /** Resolved once on first use; benign races may resolve twice, but always to equal methods. */
+    private volatile SubscriberMethod[] methods;
 
     public SimpleSubscriberInfo(Class<?> subscriberClass, boolean shouldCheckSuperclass, SubscriberMethodInfo[] methodInfos) {
         super(subscriberClass, null, shouldCheckSuperclass);
@@ -30,7 +33,16 @@ public class SimpleSubscriberInfo extends AbstractSubscriberInfo {
     }
 
     @Override
-    public synchronized SubscriberMethod[] getSubscriberMethods() {
+    public SubscriberMethod[] getSubscriberMethods() {
+        SubscriberMethod[] methods = this.methods;
+        if (methods == null) {
+            methods = createSubscriberMethods();
+            this.methods = methods;
+        }
+        return methods;
+    }
+
+    private SubscriberMethod[] createSubscriberMethods() {
         int length = methodInfos.length;
         SubscriberMethod[] methods = new SubscriberMethod[length];
         for (int i = 0; i < length; i++) {
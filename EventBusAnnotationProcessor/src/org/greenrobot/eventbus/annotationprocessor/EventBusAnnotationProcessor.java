@@ -15,7 +15,7 @@
  */
 package org.greenrobot.eventbus.annotationprocessor;
 
-import static net.ltgt.gradle.incap.IncrementalAnnotationProcessorType.AGGREGATING;
+import static net.ltgt.gradle.incap.IncrementalAnnotationProcessorType.DYNAMIC;
 
 import net.ltgt.gradle.incap.IncrementalAnnotationProcessor;
 
@@ -23,12 +23,20 @@ import org.greenrobot.eventbus.ExceptionalThreadMode;
 import org.greenrobot.eventbus.Handle;
 import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
+import org.greenrobot.eventbus.meta.ResourceInfoIndex;
+import org.greenrobot.eventbus.meta.ShardedIndex;
 
 import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -39,6 +47,7 @@ import javax.annotation.processing.SupportedAnnotationTypes;
 import javax.annotation.processing.SupportedOptions;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.PackageElement;
@@ -49,21 +58,47 @@ import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.type.TypeVariable;
 import javax.tools.Diagnostic;
+import javax.tools.FileObject;
 import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 
 import de.greenrobot.common.ListMap;
 
 /**
- * Is an aggregating processor as it writes a single file, the subscriber index file,
+ * By default an aggregating processor as it writes a single file, the subscriber index file,
  * based on found elements with the @Subscriber annotation.
+ * <p/>
+ * With the option eventBusIndexMode=isolating, it writes one index shard per subscriber or handler class instead (see
+ * {@link ShardedIndex}), so Gradle only reprocesses the classes that changed.
+ * <p/>
+ * With the option eventBusIndexFormat=resource, each index is written as a compact binary resource decoded lazily at
+ * runtime (see {@link ResourceInfoIndex}) instead of a static initializer creating all infos.
+ * <p/>
+ * With the option eventBusStaticBus, it additionally (or instead of the index) writes a static bus for the closed set
+ * of annotated classes, dispatching POSTING-only events by direct calls (see {@link StaticBusWriter}).
  */
 @SupportedAnnotationTypes({"org.greenrobot.eventbus.Subscribe","org.greenrobot.eventbus.Handle"})
-@SupportedOptions(value = {"eventBusIndex", "verbose"})
-@IncrementalAnnotationProcessor(AGGREGATING)
+@SupportedOptions(value = {"eventBusIndex", "eventBusIndexMode", "eventBusIndexFormat", "eventBusStaticBus", "verbose"})
+@IncrementalAnnotationProcessor(DYNAMIC)
 public class EventBusAnnotationProcessor extends AbstractProcessor {
     public static final String OPTION_EVENT_BUS_INDEX = "eventBusIndex";
+    public static final String OPTION_EVENT_BUS_INDEX_MODE = "eventBusIndexMode";
+    public static final String OPTION_EVENT_BUS_INDEX_FORMAT = "eventBusIndexFormat";
+    public static final String OPTION_EVENT_BUS_STATIC_BUS = "eventBusStaticBus";
     public static final String OPTION_VERBOSE = "verbose";
 
+    public static final String INDEX_MODE_AGGREGATING = "aggregating";
+    public static final String INDEX_MODE_ISOLATING = "isolating";
+
+    public static final String INDEX_FORMAT_SOURCE = "source";
+    public static final String INDEX_FORMAT_RESOURCE = "resource";
+
+    /** Extension of the binary index resources, see {@link ResourceInfoIndex}. */
+    private static final String RESOURCE_EXTENSION = ".eventbus";
+
+    /** Options by which a dynamic processor tells Gradle its incremental type. */
+    private static final String GRADLE_OPTION_PREFIX = "org.gradle.annotation.processing.";
+
     /** Found subscriber methods for a class (without superclasses). */
     private final ListMap<TypeElement, ExecutableElement> methodsByClass = new ListMap<>();
     private final ListMap<TypeElement, ExecutableElement> subscriberMethodsByClass = new ListMap<>();
@@ -74,25 +109,45 @@ public class EventBusAnnotationProcessor extends AbstractProcessor {
     private boolean writerRoundDone;
     private int round;
     private boolean verbose;
+    private boolean resourceFormat;
 
     @Override
     public SourceVersion getSupportedSourceVersion() {
         return SourceVersion.latest();
     }
 
+    @Override
+    public Set<String> getSupportedOptions() {
+        Set<String> options = new HashSet<>(super.getSupportedOptions());
+        options.add(GRADLE_OPTION_PREFIX + (isIsolating() ? INDEX_MODE_ISOLATING : INDEX_MODE_AGGREGATING));
+        return options;
+    }
+
+    private boolean isIsolating() {
+        return processingEnv != null &&
+                INDEX_MODE_ISOLATING.equalsIgnoreCase(processingEnv.getOptions().get(OPTION_EVENT_BUS_INDEX_MODE));
+    }
+
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment env) {
         Messager messager = processingEnv.getMessager();
         try {
             String index = processingEnv.getOptions().get(OPTION_EVENT_BUS_INDEX);
-            if (index == null) {
+            String staticBus = processingEnv.getOptions().get(OPTION_EVENT_BUS_STATIC_BUS);
+            boolean isolating = isIsolating();
+            if (index == null && staticBus == null && !isolating) {
                 messager.printMessage(Diagnostic.Kind.ERROR, "No option " + OPTION_EVENT_BUS_INDEX +
                         " passed to annotation processor");
                 return false;
             }
+            if (staticBus != null && isolating) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Option " + OPTION_EVENT_BUS_STATIC_BUS +
+                        " needs all annotated classes and can't be used with isolating index mode");
+                return false;
+            }
             verbose = Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_VERBOSE));
-            int lastPeriod = index.lastIndexOf('.');
-            String indexPackage = lastPeriod != -1 ? index.substring(0, lastPeriod) : null;
+            resourceFormat = INDEX_FORMAT_RESOURCE.equalsIgnoreCase(
+                    processingEnv.getOptions().get(OPTION_EVENT_BUS_INDEX_FORMAT));
 
             round++;
             if (verbose) {
@@ -115,14 +170,31 @@ public class EventBusAnnotationProcessor extends AbstractProcessor {
                         "Unexpected processing state: annotations still available after writing.");
             }
             collectAnnotatedMethods(annotations, env, messager);
-            checkForAnnotatedClassesToSkip(messager, indexPackage);
 
-            if (!methodsByClass.isEmpty()) {
-                createInfoIndexFile(index);
-            } else {
+            if (methodsByClass.isEmpty()) {
                 messager.printMessage(Diagnostic.Kind.WARNING, "No " + generateString(annotations) + " annotations found.");
+            } else if (isolating) {
+                createShardFiles(messager);
+                methodsByClass.clear();
+                subscriberMethodsByClass.clear();
+                handlerMethodsByClass.clear();
+            } else {
+                // Classes skipped for either package are left to reflection by both files
+                if (index != null) {
+                    checkForAnnotatedClassesToSkip(messager, getPackageName(index));
+                }
+                if (staticBus != null) {
+                    checkForAnnotatedClassesToSkip(messager, getPackageName(staticBus));
+                }
+                if (index != null) {
+                    createInfoIndexFile(index, methodsByClass.keySet());
+                }
+                if (staticBus != null) {
+                    createStaticBusFile(staticBus);
+                }
             }
-            writerRoundDone = true;
+            // Shards of later rounds only cover the classes of those rounds
+            writerRoundDone = !isolating;
         } catch (RuntimeException e) {
             // IntelliJ does not handle exceptions nicely, so log and print a message
             e.printStackTrace();
@@ -181,53 +253,62 @@ public class EventBusAnnotationProcessor extends AbstractProcessor {
      */
     private void checkForAnnotatedClassesToSkip(Messager messager, String myPackage) {
         for (TypeElement skipCandidate : methodsByClass.keySet()) {
-            TypeElement annotatedClass = skipCandidate;
-            while (annotatedClass != null) {
-                if (!isVisible(myPackage, annotatedClass)) {
-                    boolean added = classesToSkip.add(skipCandidate);
-                    if (added) {
-                        String msg;
-                        if (annotatedClass.equals(skipCandidate)) {
-                            msg = "Falling back to reflection because class is not public";
-                        } else {
-                            msg = "Falling back to reflection because " + skipCandidate +
-                                    " has a non-public super class";
-                        }
-                        messager.printMessage(Diagnostic.Kind.NOTE, msg, annotatedClass);
+            checkForAnnotatedClassToSkip(skipCandidate, messager, myPackage, true);
+        }
+    }
+
+    /**
+     * @param includeSuperclasses false for index shards, which only describe the class itself; super classes are
+     *                            looked up in their own shards.
+     */
+    private void checkForAnnotatedClassToSkip(TypeElement skipCandidate, Messager messager, String myPackage,
+                                              boolean includeSuperclasses) {
+        TypeElement annotatedClass = skipCandidate;
+        while (annotatedClass != null) {
+            if (!isVisible(myPackage, annotatedClass)) {
+                boolean added = classesToSkip.add(skipCandidate);
+                if (added) {
+                    String msg;
+                    if (annotatedClass.equals(skipCandidate)) {
+                        msg = "Falling back to reflection because class is not public";
+                    } else {
+                        msg = "Falling back to reflection because " + skipCandidate +
+                                " has a non-public super class";
                     }
-                    break;
+                    messager.printMessage(Diagnostic.Kind.NOTE, msg, annotatedClass);
                 }
-                List<ExecutableElement> methods = methodsByClass.get(annotatedClass);
-                if (methods != null) {
-                    for (ExecutableElement method : methods) {
-                        String skipReason = null;
-                        VariableElement param = method.getParameters().get(0);
-                        TypeMirror typeMirror = getParamTypeMirror(param, messager);
-                        if (!(typeMirror instanceof DeclaredType) ||
-                                !(((DeclaredType) typeMirror).asElement() instanceof TypeElement)) {
-                            skipReason = "event type cannot be processed";
-                        }
-                        if (skipReason == null) {
-                            TypeElement eventTypeElement = (TypeElement) ((DeclaredType) typeMirror).asElement();
-                            if (!isVisible(myPackage, eventTypeElement)) {
-                                skipReason = "event type is not public";
-                            }
+                break;
+            }
+            List<ExecutableElement> methods = methodsByClass.get(annotatedClass);
+            if (methods != null) {
+                for (ExecutableElement method : methods) {
+                    String skipReason = null;
+                    VariableElement param = method.getParameters().get(0);
+                    TypeMirror typeMirror = getParamTypeMirror(param, messager);
+                    if (!(typeMirror instanceof DeclaredType) ||
+                            !(((DeclaredType) typeMirror).asElement() instanceof TypeElement)) {
+                        skipReason = "event type cannot be processed";
+                    }
+                    if (skipReason == null) {
+                        TypeElement eventTypeElement = (TypeElement) ((DeclaredType) typeMirror).asElement();
+                        if (!isVisible(myPackage, eventTypeElement)) {
+                            skipReason = "event type is not public";
                         }
-                        if (skipReason != null) {
-                            boolean added = classesToSkip.add(skipCandidate);
-                            if (added) {
-                                String msg = "Falling back to reflection because " + skipReason;
-                                if (!annotatedClass.equals(skipCandidate)) {
-                                    msg += " (found in super class for " + skipCandidate + ")";
-                                }
-                                messager.printMessage(Diagnostic.Kind.NOTE, msg, param);
+                    }
+                    if (skipReason != null) {
+                        boolean added = classesToSkip.add(skipCandidate);
+                        if (added) {
+                            String msg = "Falling back to reflection because " + skipReason;
+                            if (!annotatedClass.equals(skipCandidate)) {
+                                msg += " (found in super class for " + skipCandidate + ")";
                             }
-                            break;
+                            messager.printMessage(Diagnostic.Kind.NOTE, msg, param);
                         }
+                        break;
                     }
                 }
-                annotatedClass = getSuperclass(annotatedClass);
             }
+            annotatedClass = includeSuperclasses ? getSuperclass(annotatedClass) : null;
         }
     }
 
@@ -366,10 +447,38 @@ public class EventBusAnnotationProcessor extends AbstractProcessor {
         }
     }
 
-    private void createInfoIndexFile(String index) {
+    /**
+     * Writes one index shard per annotated class, in the package of the class, see {@link ShardedIndex}.
+     * Each shard only depends on its class, which is what makes the processor isolating.
+     */
+    private void createShardFiles(Messager messager) {
+        for (TypeElement classElement : methodsByClass.keySet()) {
+            String classPackage = getPackageElement(classElement).getQualifiedName().toString();
+            checkForAnnotatedClassToSkip(classElement, messager, classPackage, false);
+            if (classesToSkip.contains(classElement) || !isVisible(classPackage, classElement)) {
+                continue;
+            }
+            createInfoIndexFile(ShardedIndex.getShardName(getBinaryName(classElement)), Collections.singleton(classElement),
+                    getTopLevelType(classElement));
+        }
+    }
+
+    private TypeElement getTopLevelType(TypeElement typeElement) {
+        while (typeElement.getEnclosingElement() instanceof TypeElement) {
+            typeElement = (TypeElement) typeElement.getEnclosingElement();
+        }
+        return typeElement;
+    }
+
+    private void createInfoIndexFile(String index, Collection<TypeElement> classes,
+                                     Element... originatingElements) {
+        if (resourceFormat) {
+            createInfoIndexResource(index, classes, originatingElements);
+            return;
+        }
         BufferedWriter writer = null;
         try {
-            JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(index);
+            JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(index, originatingElements);
             int period = index.lastIndexOf('.');
             String myPackage = period > 0 ? index.substring(0, period) : null;
             String clazz = index.substring(period + 1);
@@ -387,16 +496,21 @@ public class EventBusAnnotationProcessor extends AbstractProcessor {
             writer.write("import org.greenrobot.eventbus.meta.HandlerInfo;\n");
             writer.write("import org.greenrobot.eventbus.meta.HandlerInfoIndex;\n\n");
             writer.write("import org.greenrobot.eventbus.ExceptionalThreadMode;\n\n");
+            writer.write("import org.greenrobot.eventbus.meta.EventTypeHierarchyIndex;\n\n");
             writer.write("import java.util.HashMap;\n");
             writer.write("import java.util.Map;\n\n");
             writer.write("/** This class is generated by EventBus, do not edit. */\n");
-            writer.write("public class " + clazz + " implements SubscriberInfoIndex, HandlerInfoIndex {\n");
+            writer.write("public class " + clazz + " implements SubscriberInfoIndex, HandlerInfoIndex,"
+                    + " EventTypeHierarchyIndex {\n");
             writer.write("    private static final Map<Class<?>, SubscriberInfo> SUBSCRIBER_INDEX;\n\n");
             writer.write("    private static final Map<Class<?>, HandlerInfo> HANDLER_INDEX;\n\n");
+            writer.write("    private static final Map<Class<?>, Class<?>[]> EVENT_TYPE_HIERARCHIES;\n\n");
             writer.write("    static {\n");
             writer.write("        SUBSCRIBER_INDEX = new HashMap<Class<?>, SubscriberInfo>();\n\n");
             writer.write("        HANDLER_INDEX = new HashMap<Class<?>, HandlerInfo>();\n\n");
-            writeIndexLines(writer, myPackage);
+            writer.write("        EVENT_TYPE_HIERARCHIES = new HashMap<Class<?>, Class<?>[]>();\n\n");
+            writeIndexLines(writer, classes, myPackage);
+            writeEventTypeHierarchyLines(writer, classes, myPackage);
             writer.write("    }\n\n");
             writer.write("    private static void putIndex(SubscriberInfo info) {\n");
             writer.write("        SUBSCRIBER_INDEX.put(info.getSubscriberClass(), info);\n");
@@ -404,6 +518,9 @@ public class EventBusAnnotationProcessor extends AbstractProcessor {
             writer.write("    private static void putIndex(HandlerInfo info) {\n");
             writer.write("        HANDLER_INDEX.put(info.getHandlerClass(), info);\n");
             writer.write("    }\n\n");
+            writer.write("    private static void putEventTypeHierarchy(Class<?>... hierarchy) {\n");
+            writer.write("        EVENT_TYPE_HIERARCHIES.put(hierarchy[0], hierarchy);\n");
+            writer.write("    }\n\n");
             writer.write("    @Override\n");
             writer.write("    public SubscriberInfo getSubscriberInfo(Class<?> subscriberClass) {\n");
             writer.write("        SubscriberInfo info = SUBSCRIBER_INDEX.get(subscriberClass);\n");
@@ -422,6 +539,10 @@ public class EventBusAnnotationProcessor extends AbstractProcessor {
             writer.write("            return null;\n");
             writer.write("        }\n");
             writer.write("    }\n");
+            writer.write("    @Override\n");
+            writer.write("    public Class<?>[] getEventTypeHierarchy(Class<?> eventType) {\n");
+            writer.write("        return EVENT_TYPE_HIERARCHIES.get(eventType);\n");
+            writer.write("    }\n");
             writer.write("}\n");
         } catch (IOException e) {
             throw new RuntimeException("Could not write source for " + index, e);
@@ -436,14 +557,230 @@ public class EventBusAnnotationProcessor extends AbstractProcessor {
         }
     }
 
-    private void writeIndexLines(BufferedWriter writer, String myPackage) throws IOException {
-        writeSubscriberIndexLines(writer, myPackage);
-        writeHandlerIndexLines(writer, myPackage);
+    /**
+     * Writes the index as a binary resource and a tiny index class loading it, instead of a class with a static
+     * initializer creating all infos up front.
+     */
+    private void createInfoIndexResource(String index, Collection<TypeElement> classes,
+                                         Element... originatingElements) {
+        int period = index.lastIndexOf('.');
+        String myPackage = period > 0 ? index.substring(0, period) : null;
+        String clazz = index.substring(period + 1);
+        IndexResourceWriter resourceWriter = new IndexResourceWriter();
+        for (TypeElement classElement : classes) {
+            if (classesToSkip.contains(classElement) || !isVisible(myPackage, classElement)) {
+                continue;
+            }
+            String className = getBinaryName(classElement);
+            List<ExecutableElement> subscriberMethods = subscriberMethodsByClass.get(classElement);
+            if (subscriberMethods != null) {
+                for (ExecutableElement method : subscriberMethods) {
+                    Subscribe subscribe = method.getAnnotation(Subscribe.class);
+                    resourceWriter.addSubscriberMethod(className, method.getSimpleName().toString(),
+                            getEventTypeBinaryName(method), subscribe.threadMode().name(),
+                            subscribe.actionMode().name(), subscribe.priority(), subscribe.sticky());
+                }
+            }
+            List<ExecutableElement> handlerMethods = handlerMethodsByClass.get(classElement);
+            if (handlerMethods != null) {
+                for (ExecutableElement method : handlerMethods) {
+                    Handle handle = method.getAnnotation(Handle.class);
+                    resourceWriter.addHandlerMethod(className, method.getSimpleName().toString(),
+                            getEventTypeBinaryName(method), handle.threadMode().name(),
+                            handle.actionMode().name(), handle.priority(), handle.sticky());
+                }
+            }
+        }
+        for (List<TypeElement> hierarchy : collectEventTypeHierarchies(classes, myPackage)) {
+            List<String> classNames = new ArrayList<>(hierarchy.size());
+            for (TypeElement type : hierarchy) {
+                classNames.add(getBinaryName(type));
+            }
+            resourceWriter.addEventTypeHierarchy(classNames);
+        }
+
+        String resourceName = clazz + RESOURCE_EXTENSION;
+        BufferedWriter writer = null;
+        OutputStream out = null;
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT,
+                    myPackage != null ? myPackage : "", resourceName, originatingElements);
+            out = resource.openOutputStream();
+            resourceWriter.write(out);
+
+            JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(index, originatingElements);
+            writer = new BufferedWriter(sourceFile.openWriter());
+            if (myPackage != null) {
+                writer.write("package " + myPackage + ";\n\n");
+            }
+            writer.write("import org.greenrobot.eventbus.meta.ResourceInfoIndex;\n\n");
+            writer.write("/** This class is generated by EventBus, do not edit. */\n");
+            writer.write("public class " + clazz + " extends ResourceInfoIndex {\n");
+            writer.write("    public " + clazz + "() {\n");
+            writer.write("        super(" + clazz + ".class, \"" + resourceName + "\");\n");
+            writer.write("    }\n");
+            writer.write("}\n");
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write index resource for " + index, e);
+        } finally {
+            closeQuietly(out);
+            closeQuietly(writer);
+        }
+    }
+
+    /**
+     * Writes the static bus for all concrete annotated classes visible to it, see {@link StaticBusWriter}. Constructor
+     * arguments are ordered by class name, which is also the registration order.
+     */
+    private void createStaticBusFile(String staticBus) {
+        String myPackage = getPackageName(staticBus);
+        List<TypeElement> receivers = new ArrayList<>();
+        for (TypeElement classElement : methodsByClass.keySet()) {
+            if (!classesToSkip.contains(classElement) && isVisible(myPackage, classElement) &&
+                    classElement.getKind() == ElementKind.CLASS &&
+                    !classElement.getModifiers().contains(Modifier.ABSTRACT)) {
+                receivers.add(classElement);
+            }
+        }
+        Collections.sort(receivers, new Comparator<TypeElement>() {
+            @Override
+            public int compare(TypeElement lhs, TypeElement rhs) {
+                return getBinaryName(lhs).compareTo(getBinaryName(rhs));
+            }
+        });
+
+        StaticBusWriter busWriter = new StaticBusWriter(myPackage, staticBus.substring(staticBus.lastIndexOf('.') + 1));
+        // Subscriber methods of all receivers in registration order, as (receiver index, method)
+        List<Object[]> receiverMethods = new ArrayList<>();
+        for (TypeElement receiver : receivers) {
+            List<ExecutableElement> subscriberMethods = collectSubscriberMethods(receiver);
+            boolean handler = false;
+            for (TypeElement type = receiver; type != null && !handler; type = getSuperclass(type)) {
+                handler = handlerMethodsByClass.containsKey(type);
+            }
+            int receiverIndex = busWriter.addReceiver(getClassString(receiver, myPackage),
+                    !subscriberMethods.isEmpty(), handler);
+            for (ExecutableElement method : subscriberMethods) {
+                receiverMethods.add(new Object[]{receiverIndex, method});
+            }
+        }
+
+        Set<TypeElement> eventTypes = new LinkedHashSet<>();
+        for (Object[] receiverMethod : receiverMethods) {
+            eventTypes.add(getEventTypeElement((ExecutableElement) receiverMethod[1]));
+        }
+        for (TypeElement eventType : eventTypes) {
+            if (eventType.getKind() != ElementKind.CLASS || eventType.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            // Like the bus: per type of the hierarchy, by descending priority, then in registration order
+            List<Object[]> calls = new ArrayList<>();
+            for (TypeElement hierarchyType : getEventTypeHierarchy(eventType)) {
+                List<Object[]> typeCalls = new ArrayList<>();
+                for (Object[] receiverMethod : receiverMethods) {
+                    if (getEventTypeElement((ExecutableElement) receiverMethod[1]).equals(hierarchyType)) {
+                        typeCalls.add(receiverMethod);
+                    }
+                }
+                Collections.sort(typeCalls, new Comparator<Object[]>() {
+                    @Override
+                    public int compare(Object[] lhs, Object[] rhs) {
+                        return Integer.compare(getSubscribe(rhs).priority(), getSubscribe(lhs).priority());
+                    }
+                });
+                calls.addAll(typeCalls);
+            }
+            boolean direct = true;
+            for (Object[] call : calls) {
+                direct &= getSubscribe(call).threadMode() == ThreadMode.POSTING;
+            }
+            if (direct) {
+                String eventClass = getClassString(eventType, myPackage);
+                for (Object[] call : calls) {
+                    busWriter.addDirectCall(eventClass, (Integer) call[0],
+                            ((ExecutableElement) call[1]).getSimpleName().toString());
+                }
+            } else if (verbose) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Static bus leaves " + eventType +
+                        " to the bus, not all of its subscribers use ThreadMode.POSTING");
+            }
+        }
+
+        BufferedWriter writer = null;
+        try {
+            JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(staticBus);
+            writer = new BufferedWriter(sourceFile.openWriter());
+            busWriter.write(writer);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write source for " + staticBus, e);
+        } finally {
+            closeQuietly(writer);
+        }
+    }
+
+    /**
+     * Returns the subscriber methods of the class and its super classes, skipping those overridden by an annotated
+     * method of a sub class, like the bus does.
+     */
+    private List<ExecutableElement> collectSubscriberMethods(TypeElement classElement) {
+        List<ExecutableElement> subscriberMethods = new ArrayList<>();
+        Set<String> signatures = new HashSet<>();
+        for (TypeElement type = classElement; type != null; type = getSuperclass(type)) {
+            List<ExecutableElement> methods = subscriberMethodsByClass.get(type);
+            if (methods != null) {
+                for (ExecutableElement method : methods) {
+                    if (signatures.add(method.getSimpleName() + ">" + getEventTypeBinaryName(method))) {
+                        subscriberMethods.add(method);
+                    }
+                }
+            }
+        }
+        return subscriberMethods;
+    }
+
+    private static Subscribe getSubscribe(Object[] receiverMethod) {
+        return ((ExecutableElement) receiverMethod[1]).getAnnotation(Subscribe.class);
     }
 
-    private void writeSubscriberIndexLines(BufferedWriter writer, String myPackage) throws IOException {
-        for (TypeElement subscriberTypeElement : subscriberMethodsByClass.keySet()) {
-            if (classesToSkip.contains(subscriberTypeElement)) {
+    private static String getPackageName(String className) {
+        int lastPeriod = className.lastIndexOf('.');
+        return lastPeriod != -1 ? className.substring(0, lastPeriod) : null;
+    }
+
+    private String getBinaryName(TypeElement typeElement) {
+        return processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+    }
+
+    private String getEventTypeBinaryName(ExecutableElement method) {
+        return getBinaryName(getEventTypeElement(method));
+    }
+
+    private TypeElement getEventTypeElement(ExecutableElement method) {
+        TypeMirror paramType = getParamTypeMirror(method.getParameters().get(0), null);
+        return (TypeElement) processingEnv.getTypeUtils().asElement(paramType);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                //Silent
+            }
+        }
+    }
+
+    private void writeIndexLines(BufferedWriter writer, Collection<TypeElement> classes, String myPackage)
+            throws IOException {
+        writeSubscriberIndexLines(writer, classes, myPackage);
+        writeHandlerIndexLines(writer, classes, myPackage);
+    }
+
+    private void writeSubscriberIndexLines(BufferedWriter writer, Collection<TypeElement> classes, String myPackage)
+            throws IOException {
+        for (TypeElement subscriberTypeElement : classes) {
+            if (classesToSkip.contains(subscriberTypeElement) ||
+                    !subscriberMethodsByClass.containsKey(subscriberTypeElement)) {
                 continue;
             }
 
@@ -461,9 +798,11 @@ public class EventBusAnnotationProcessor extends AbstractProcessor {
         }
     }
 
-    private void writeHandlerIndexLines(BufferedWriter writer, String myPackage) throws IOException {
-        for (TypeElement handlerTypeElement : handlerMethodsByClass.keySet()) {
-            if (classesToSkip.contains(handlerTypeElement)) {
+    private void writeHandlerIndexLines(BufferedWriter writer, Collection<TypeElement> classes, String myPackage)
+            throws IOException {
+        for (TypeElement handlerTypeElement : classes) {
+            if (classesToSkip.contains(handlerTypeElement) ||
+                    !handlerMethodsByClass.containsKey(handlerTypeElement)) {
                 continue;
             }
 
@@ -481,6 +820,82 @@ public class EventBusAnnotationProcessor extends AbstractProcessor {
         }
     }
 
+    /**
+     * Writes the flattened super classes and interfaces of all indexed event and exceptional event types, in the order
+     * EventBus would find them by reflection. Types with any hierarchy member not visible to the index are left to
+     * reflection.
+     */
+    private void writeEventTypeHierarchyLines(BufferedWriter writer, Collection<TypeElement> classes, String myPackage)
+            throws IOException {
+        for (List<TypeElement> hierarchy : collectEventTypeHierarchies(classes, myPackage)) {
+            TypeElement eventTypeElement = hierarchy.get(0);
+            List<String> parts = new ArrayList<>();
+            for (int i = 0; i < hierarchy.size(); i++) {
+                TypeElement hierarchyType = hierarchy.get(i);
+                if (!isVisible(myPackage, hierarchyType)) {
+                    parts = null;
+                    break;
+                }
+                String linePrefix = i == 0 ? "putEventTypeHierarchy(" : "";
+                String lineEnd = i < hierarchy.size() - 1 ? "," : ");";
+                parts.add(linePrefix + getClassString(hierarchyType, myPackage) + ".class" + lineEnd);
+            }
+            if (parts != null) {
+                writeLine(writer, 2, parts.toArray(new String[parts.size()]));
+            } else {
+                writer.write("        // Event type hierarchy not visible to index: " +
+                        getClassString(eventTypeElement, myPackage) + "\n");
+            }
+        }
+        writer.write("\n");
+    }
+
+    /**
+     * Returns, for all event types of the given (indexed) classes, the type followed by all its super classes and
+     * interfaces, in the order EventBus would find them by reflection.
+     */
+    private List<List<TypeElement>> collectEventTypeHierarchies(Collection<TypeElement> classes, String myPackage) {
+        Set<TypeElement> eventTypeElements = new LinkedHashSet<>();
+        for (TypeElement classElement : classes) {
+            if (classesToSkip.contains(classElement) || !isVisible(myPackage, classElement)) {
+                continue;
+            }
+            for (ExecutableElement method : methodsByClass.get(classElement)) {
+                TypeMirror paramType = getParamTypeMirror(method.getParameters().get(0), null);
+                eventTypeElements.add((TypeElement) processingEnv.getTypeUtils().asElement(paramType));
+            }
+        }
+
+        List<List<TypeElement>> hierarchies = new ArrayList<>();
+        for (TypeElement eventTypeElement : eventTypeElements) {
+            hierarchies.add(getEventTypeHierarchy(eventTypeElement));
+        }
+        return hierarchies;
+    }
+
+    /** Returns the type followed by all its super classes and interfaces, in the order of the bus. */
+    private List<TypeElement> getEventTypeHierarchy(TypeElement eventTypeElement) {
+        List<TypeElement> hierarchy = new ArrayList<>();
+        TypeElement type = eventTypeElement;
+        while (type != null) {
+            hierarchy.add(type);
+            addInterfaces(hierarchy, type);
+            type = type.getSuperclass().getKind() == TypeKind.DECLARED ?
+                    (TypeElement) processingEnv.getTypeUtils().asElement(type.getSuperclass()) : null;
+        }
+        return hierarchy;
+    }
+
+    private void addInterfaces(List<TypeElement> hierarchy, TypeElement type) {
+        for (TypeMirror interfaceType : type.getInterfaces()) {
+            TypeElement interfaceElement = (TypeElement) processingEnv.getTypeUtils().asElement(interfaceType);
+            if (!hierarchy.contains(interfaceElement)) {
+                hierarchy.add(interfaceElement);
+                addInterfaces(hierarchy, interfaceElement);
+            }
+        }
+    }
+
     private boolean isVisible(String myPackage, TypeElement typeElement) {
         Set<Modifier> modifiers = typeElement.getModifiers();
         boolean visible;
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus.annotationprocessor;
+
+import org.greenrobot.eventbus.meta.ResourceInfoIndex;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes the binary index resource read by {@link ResourceInfoIndex}; see there for the layout.
+ */
+final class IndexResourceWriter {
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIndexes = new HashMap<>();
+
+    /** Sorted by binary class name, as the runtime uses binary search. */
+    private final TreeMap<String, List<int[]>> subscriberMethods = new TreeMap<>();
+    private final TreeMap<String, List<int[]>> handlerMethods = new TreeMap<>();
+    private final TreeMap<String, List<String>> hierarchies = new TreeMap<>();
+
+    void addSubscriberMethod(String className, String methodName, String eventType, String threadMode,
+                             String actionMode, int priority, boolean sticky) {
+        addMethod(subscriberMethods, className, methodName, eventType, threadMode, actionMode, priority, sticky);
+    }
+
+    void addHandlerMethod(String className, String methodName, String eventType, String threadMode,
+                          String actionMode, int priority, boolean sticky) {
+        addMethod(handlerMethods, className, methodName, eventType, threadMode, actionMode, priority, sticky);
+    }
+
+    /** @param hierarchy the event type followed by its super classes and interfaces */
+    void addEventTypeHierarchy(List<String> hierarchy) {
+        for (String className : hierarchy) {
+            getStringIndex(className);
+        }
+        hierarchies.put(hierarchy.get(0), hierarchy);
+    }
+
+    private void addMethod(TreeMap<String, List<int[]>> methodsByClass, String className, String methodName,
+                           String eventType, String threadMode, String actionMode, int priority, boolean sticky) {
+        getStringIndex(className);
+        List<int[]> methods = methodsByClass.get(className);
+        if (methods == null) {
+            methods = new ArrayList<>();
+            methodsByClass.put(className, methods);
+        }
+        methods.add(new int[]{getStringIndex(methodName), getStringIndex(eventType), getStringIndex(threadMode),
+                getStringIndex(actionMode), priority, sticky ? 1 : 0});
+    }
+
+    private int getStringIndex(String string) {
+        Integer index = stringIndexes.get(string);
+        if (index == null) {
+            index = strings.size();
+            strings.add(string);
+            stringIndexes.put(string, index);
+        }
+        return index;
+    }
+
+    void write(OutputStream out) throws IOException {
+        int headerSize = 12 + 4 * strings.size() + 3 * 4 +
+                8 * (subscriberMethods.size() + handlerMethods.size() + hierarchies.size());
+
+        ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+        DataOutputStream stringData = new DataOutputStream(stringBytes);
+        int[] stringOffsets = new int[strings.size()];
+        for (int i = 0; i < stringOffsets.length; i++) {
+            stringOffsets[i] = headerSize + stringData.size();
+            stringData.writeUTF(strings.get(i));
+        }
+
+        int recordsStart = headerSize + stringData.size();
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream records = new DataOutputStream(recordBytes);
+        int[] subscriberRecords = writeMethodRecords(records, recordsStart, subscriberMethods);
+        int[] handlerRecords = writeMethodRecords(records, recordsStart, handlerMethods);
+        int[] hierarchyRecords = new int[hierarchies.size()];
+        int i = 0;
+        for (List<String> hierarchy : hierarchies.values()) {
+            hierarchyRecords[i++] = recordsStart + records.size();
+            records.writeInt(hierarchy.size());
+            for (String className : hierarchy) {
+                records.writeInt(getStringIndex(className));
+            }
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(ResourceInfoIndex.MAGIC);
+        data.writeInt(ResourceInfoIndex.VERSION);
+        data.writeInt(stringOffsets.length);
+        for (int offset : stringOffsets) {
+            data.writeInt(offset);
+        }
+        writeTable(data, subscriberMethods.keySet(), subscriberRecords);
+        writeTable(data, handlerMethods.keySet(), handlerRecords);
+        writeTable(data, hierarchies.keySet(), hierarchyRecords);
+        stringBytes.writeTo(data);
+        recordBytes.writeTo(data);
+        data.flush();
+    }
+
+    private int[] writeMethodRecords(DataOutputStream records, int recordsStart,
+                                     TreeMap<String, List<int[]>> methodsByClass) throws IOException {
+        int[] offsets = new int[methodsByClass.size()];
+        int i = 0;
+        for (List<int[]> methods : methodsByClass.values()) {
+            offsets[i++] = recordsStart + records.size();
+            records.writeInt(methods.size());
+            for (int[] method : methods) {
+                for (int j = 0; j < 5; j++) {
+                    records.writeInt(method[j]);
+                }
+                records.writeByte(method[5]);
+            }
+        }
+        return offsets;
+    }
+
+    private void writeTable(DataOutputStream data, Iterable<String> classNames, int[] records) throws IOException {
+        data.writeInt(records.length);
+        int i = 0;
+        for (String className : classNames) {
+            data.writeInt(getStringIndex(className));
+            data.writeInt(records[i++]);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus.annotationprocessor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the source of a static bus for the processor option eventBusStaticBus: an EventBus subclass for a closed set
+ * of subscribers and handlers, which it takes as constructor arguments, registers and freezes. Events of known classes
+ * whose subscribers all use ThreadMode.POSTING are dispatched by plain calls to the subscriber methods, in the order
+ * the bus would use; everything else is left to the bus, as are all events while subscriptions added after freezing
+ * exist.
+ */
+final class StaticBusWriter {
+    private final String packageName;
+    private final String className;
+
+    private final List<String> receiverTypes = new ArrayList<>();
+    private final List<Integer> subscribers = new ArrayList<>();
+    private final List<Integer> handlers = new ArrayList<>();
+    /** Direct calls as (receiver index, method name) by event type, in dispatch order. */
+    private final Map<String, List<Object[]>> callsByEventType = new LinkedHashMap<>();
+
+    /**
+     * @param packageName the package of the bus, or null
+     * @param className   the simple name of the bus
+     */
+    StaticBusWriter(String packageName, String className) {
+        this.packageName = packageName;
+        this.className = className;
+    }
+
+    /** @return the index of the receiver, for {@link #addDirectCall(String, int, String)} */
+    int addReceiver(String type, boolean subscriber, boolean handler) {
+        int receiver = receiverTypes.size();
+        receiverTypes.add(type);
+        if (subscriber) {
+            subscribers.add(receiver);
+        }
+        if (handler) {
+            handlers.add(receiver);
+        }
+        return receiver;
+    }
+
+    /** Adds the next call for events of the given (concrete) class. */
+    void addDirectCall(String eventType, int receiver, String methodName) {
+        List<Object[]> calls = callsByEventType.get(eventType);
+        if (calls == null) {
+            calls = new ArrayList<>();
+            callsByEventType.put(eventType, calls);
+        }
+        calls.add(new Object[]{receiver, methodName});
+    }
+
+    void write(Writer writer) throws IOException {
+        if (packageName != null) {
+            writer.write("package " + packageName + ";\n\n");
+        }
+        writer.write("import org.greenrobot.eventbus.EventBus;\n");
+        writer.write("import org.greenrobot.eventbus.EventBusBuilder;\n\n");
+        writer.write("import java.util.Arrays;\n\n");
+        writer.write("/**\n");
+        writer.write(" * This class is generated by EventBus, do not edit.\n");
+        writer.write(" * <p/>\n");
+        writer.write(" * Bus for a closed set of subscribers and handlers, which is frozen after registering them.\n");
+        writer.write(" * Events of the classes below are delivered by direct calls without a posting queue: events\n");
+        writer.write(" * posted by these subscribers are delivered right away, and delivery can't be canceled. While\n");
+        writer.write(" * there are subscribers registered after freezing, all events are dispatched by the bus.\n");
+        writer.write(" */\n");
+        writer.write("public class " + className + " extends EventBus {\n");
+        for (int i = 0; i < receiverTypes.size(); i++) {
+            writer.write("    private final " + receiverTypes.get(i) + " receiver" + i + ";\n");
+        }
+        writer.write("    private final boolean directDispatch;\n\n");
+
+        writer.write("    public " + className + "(EventBusBuilder builder");
+        for (int i = 0; i < receiverTypes.size(); i++) {
+            writer.write(",\n            " + receiverTypes.get(i) + " receiver" + i);
+        }
+        writer.write(") {\n");
+        writer.write("        super(builder);\n");
+        for (int i = 0; i < receiverTypes.size(); i++) {
+            writer.write("        this.receiver" + i + " = receiver" + i + ";\n");
+        }
+        writeRegistration(writer, "registerAllSubscribers", subscribers);
+        writeRegistration(writer, "registerAllHandlers", handlers);
+        writer.write("        freeze();\n");
+        writer.write("        // The calls below resolve inheritance at compile time\n");
+        writer.write("        directDispatch = isEventInheritance();\n");
+        writer.write("    }\n\n");
+
+        writer.write("    @Override\n");
+        writer.write("    public void post(Object event) {\n");
+        writer.write("        // Subscribers registered after freezing are only known to the bus\n");
+        writer.write("        if (directDispatch && !hasDynamicSubscriptions()) {\n");
+        writer.write("            Class<?> eventClass = event.getClass();\n");
+        int dispatchMethod = 0;
+        for (String eventType : callsByEventType.keySet()) {
+            writer.write("            if (eventClass == " + eventType + ".class) {\n");
+            writer.write("                post" + dispatchMethod++ + "((" + eventType + ") event);\n");
+            writer.write("                return;\n");
+            writer.write("            }\n");
+        }
+        writer.write("        }\n");
+        writer.write("        super.post(event);\n");
+        writer.write("    }\n");
+
+        dispatchMethod = 0;
+        for (Map.Entry<String, List<Object[]>> entry : callsByEventType.entrySet()) {
+            writer.write("\n    private void post" + dispatchMethod++ + "(" + entry.getKey() + " event) {\n");
+            for (Object[] call : entry.getValue()) {
+                String receiver = "receiver" + call[0];
+                writer.write("        try {\n");
+                writer.write("            " + receiver + "." + call[1] + "(event);\n");
+                writer.write("        } catch (Throwable t) {\n");
+                writer.write("            handleDirectSubscriberException(" + receiver + ", event, t);\n");
+                writer.write("        }\n");
+            }
+            writer.write("    }\n");
+        }
+        writer.write("}\n");
+    }
+
+    private void writeRegistration(Writer writer, String method, List<Integer> receivers) throws IOException {
+        if (receivers.isEmpty()) {
+            return;
+        }
+        writer.write("        " + method + "(Arrays.<Object>asList(");
+        for (int i = 0; i < receivers.size(); i++) {
+            writer.write((i > 0 ? ", " : "") + "receiver" + receivers.get(i));
+        }
+        writer.write("));\n");
+    }
+}
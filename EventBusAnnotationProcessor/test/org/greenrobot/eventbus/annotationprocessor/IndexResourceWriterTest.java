@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus.annotationprocessor;
+
+import org.greenrobot.eventbus.ActionMode;
+import org.greenrobot.eventbus.ExceptionalActionMode;
+import org.greenrobot.eventbus.ExceptionalThreadMode;
+import org.greenrobot.eventbus.HandlerMethod;
+import org.greenrobot.eventbus.SubscriberMethod;
+import org.greenrobot.eventbus.ThreadMode;
+import org.greenrobot.eventbus.meta.HandlerInfo;
+import org.greenrobot.eventbus.meta.ResourceInfoIndex;
+import org.greenrobot.eventbus.meta.SubscriberInfo;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Writes index resources with {@link IndexResourceWriter} and reads them back with {@link ResourceInfoIndex}. Method
+ * names and some class names are non-ASCII (two and three byte UTF-8 characters) to cover the string decoding; the
+ * loaded classes keep ASCII names, as non-ASCII class file names depend on the file system encoding.
+ */
+public class IndexResourceWriterTest {
+
+    public static class TestEvent {
+    }
+
+    public interface TestMarker {
+    }
+
+    public static class SubTestEvent extends TestEvent implements TestMarker {
+    }
+
+    public static class TestSubscriber {
+        public void on事Event(TestEvent event) {
+        }
+
+        public void onString(String event) {
+        }
+    }
+
+    public static class TestHandler {
+        public void handleÜbung(IllegalStateException exception) {
+        }
+    }
+
+    public static class NotIndexed {
+    }
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testSubscriberInfoFromMappedFile() throws Exception {
+        ResourceInfoIndex index = createIndex(writeFile(createWriter()).toURI().toURL());
+        assertSubscriberInfo(index.getSubscriberInfo(TestSubscriber.class));
+    }
+
+    @Test
+    public void testSubscriberInfoFromJar() throws Exception {
+        ResourceInfoIndex index = createIndex(writeJar(createWriter()));
+        assertSubscriberInfo(index.getSubscriberInfo(TestSubscriber.class));
+    }
+
+    @Test
+    public void testHandlerInfo() throws Exception {
+        ResourceInfoIndex index = createIndex(writeFile(createWriter()).toURI().toURL());
+        HandlerInfo info = index.getHandlerInfo(TestHandler.class);
+        assertSame(TestHandler.class, info.getHandlerClass());
+        HandlerMethod[] methods = info.getHandlerMethods();
+        assertEquals(1, methods.length);
+        HandlerMethod method = methods[0];
+        assertEquals(new HandlerMethod(TestHandler.class.getMethod("handleÜbung", IllegalStateException.class),
+                IllegalStateException.class, ExceptionalThreadMode.ASYNC, ExceptionalActionMode.LAZY_HANDLE, 3, true),
+                method);
+        assertEquals(ExceptionalThreadMode.ASYNC, getField(method, "threadMode"));
+        assertEquals(ExceptionalActionMode.LAZY_HANDLE, getField(method, "actionMode"));
+        assertEquals(3, getField(method, "priority"));
+        assertEquals(true, getField(method, "sticky"));
+    }
+
+    @Test
+    public void testEventTypeHierarchy() throws Exception {
+        ResourceInfoIndex index = createIndex(writeFile(createWriter()).toURI().toURL());
+        assertArrayEquals(new Class<?>[]{SubTestEvent.class, TestEvent.class, TestMarker.class},
+                index.getEventTypeHierarchy(SubTestEvent.class));
+        assertArrayEquals(new Class<?>[]{TestEvent.class},
+                index.getEventTypeHierarchy(TestEvent.class));
+    }
+
+    @Test
+    public void testNotIndexed() throws Exception {
+        ResourceInfoIndex index = createIndex(writeFile(createWriter()).toURI().toURL());
+        assertNull(index.getSubscriberInfo(NotIndexed.class));
+        assertNull(index.getSubscriberInfo(TestHandler.class));
+        assertNull(index.getHandlerInfo(TestSubscriber.class));
+        assertNull(index.getEventTypeHierarchy(String.class));
+    }
+
+    @Test
+    public void testEmptyIndex() throws Exception {
+        ResourceInfoIndex index = createIndex(writeFile(new IndexResourceWriter()).toURI().toURL());
+        assertNull(index.getSubscriberInfo(TestSubscriber.class));
+        assertNull(index.getHandlerInfo(TestHandler.class));
+        assertNull(index.getEventTypeHierarchy(TestEvent.class));
+    }
+
+    @Test
+    public void testBinarySearch() throws Exception {
+        // Indexed classes sorting before, between and after the other entries, which have non-ASCII names
+        Class<?>[] classes = {TestSubscriber.class, TestHandler.class, NotIndexed.class, String.class};
+        for (int count = 0; count < 40; count++) {
+            IndexResourceWriter writer = new IndexResourceWriter();
+            for (int i = 0; i < count; i++) {
+                String className = "org.greenrobot.eventbus.annotationprocessor.IndexResourceWriterTest$Otherä事" + i;
+                writer.addSubscriberMethod(className, "onEvent", TestEvent.class.getName(), "POSTING",
+                        "EAGER_SUBSCRIBE", 0, false);
+            }
+            for (Class<?> clazz : classes) {
+                writer.addSubscriberMethod(clazz.getName(), "equals", Object.class.getName(), "POSTING",
+                        "EAGER_SUBSCRIBE", 0, false);
+            }
+            ResourceInfoIndex index = createIndex(writeFile(writer).toURI().toURL());
+            for (Class<?> clazz : classes) {
+                assertSame(clazz, index.getSubscriberInfo(clazz).getSubscriberClass());
+            }
+            assertNull(index.getSubscriberInfo(IndexResourceWriterTest.class));
+            assertNull(index.getSubscriberInfo(Integer.class));
+        }
+    }
+
+    private void assertSubscriberInfo(SubscriberInfo info) throws Exception {
+        assertSame(TestSubscriber.class, info.getSubscriberClass());
+        SubscriberMethod[] methods = info.getSubscriberMethods();
+        assertEquals(2, methods.length);
+        SubscriberMethod method = methods[0];
+        assertEquals(new SubscriberMethod(TestSubscriber.class.getMethod("on事Event", TestEvent.class),
+                TestEvent.class, ThreadMode.BACKGROUND, ActionMode.LAZY_SUBSCRIBE, -7, true), method);
+        assertEquals(ThreadMode.BACKGROUND, getField(method, "threadMode"));
+        assertEquals(ActionMode.LAZY_SUBSCRIBE, getField(method, "actionMode"));
+        assertEquals(-7, getField(method, "priority"));
+        assertEquals(true, getField(method, "sticky"));
+
+        method = methods[1];
+        assertEquals(new SubscriberMethod(TestSubscriber.class.getMethod("onString", String.class),
+                String.class, ThreadMode.POSTING, ActionMode.EAGER_SUBSCRIBE, Integer.MAX_VALUE, false), method);
+        assertEquals(Integer.MAX_VALUE, getField(method, "priority"));
+        assertEquals(false, getField(method, "sticky"));
+    }
+
+    private IndexResourceWriter createWriter() {
+        IndexResourceWriter writer = new IndexResourceWriter();
+        writer.addSubscriberMethod(TestSubscriber.class.getName(), "on事Event", TestEvent.class.getName(),
+                "BACKGROUND", "LAZY_SUBSCRIBE", -7, true);
+        writer.addSubscriberMethod(TestSubscriber.class.getName(), "onString", String.class.getName(),
+                "POSTING", "EAGER_SUBSCRIBE", Integer.MAX_VALUE, false);
+        writer.addHandlerMethod(TestHandler.class.getName(), "handleÜbung", IllegalStateException.class.getName(),
+                "ASYNC", "LAZY_HANDLE", 3, true);
+        writer.addEventTypeHierarchy(Arrays.asList(SubTestEvent.class.getName(), TestEvent.class.getName(),
+                TestMarker.class.getName()));
+        writer.addEventTypeHierarchy(Arrays.asList(TestEvent.class.getName()));
+        return writer;
+    }
+
+    private File writeFile(IndexResourceWriter writer) throws IOException {
+        File file = temporaryFolder.newFile();
+        OutputStream out = new FileOutputStream(file);
+        try {
+            writer.write(out);
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    /** Not a file URL, so the resource is read into a heap buffer instead of being mapped. */
+    private URL writeJar(IndexResourceWriter writer) throws IOException {
+        File file = temporaryFolder.newFile("index.jar");
+        JarOutputStream out = new JarOutputStream(new FileOutputStream(file));
+        try {
+            out.putNextEntry(new JarEntry("index.bin"));
+            writer.write(out);
+            out.closeEntry();
+        } finally {
+            out.close();
+        }
+        return new URL("jar:" + file.toURI().toURL() + "!/index.bin");
+    }
+
+    private static ResourceInfoIndex createIndex(final URL url) {
+        return new ResourceInfoIndex(IndexResourceWriterTest.class, "index.bin") {
+            @Override
+            protected URL getResourceUrl() {
+                return url;
+            }
+        };
+    }
+
+    private static Object getField(Object object, String name) throws Exception {
+        Field field = object.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(object);
+    }
+}
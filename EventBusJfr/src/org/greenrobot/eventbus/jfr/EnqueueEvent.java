@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(JfrBusTracer.EVENT_NAME_PREFIX + "Enqueue")
+@Label("Enqueue")
+@Description("An event or exceptional event queued for a poster or thrower")
+@Category({"EventBus"})
+@Enabled(false)
+@StackTrace(false)
+final class EnqueueEvent extends Event {
+    @Label("Event Class")
+    Class<?> eventClass;
+
+    @Label("Receiver Class")
+    Class<?> receiverClass;
+
+    @Label("Thread Mode")
+    String threadMode;
+
+    @Label("Exceptional")
+    @Description("Whether an exceptional event was queued for a handler")
+    boolean exceptional;
+}
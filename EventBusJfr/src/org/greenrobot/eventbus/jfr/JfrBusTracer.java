@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2012-2020 Markus Junginger, greenrobot (http://greenrobot.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.greenrobot.eventbus.jfr;
+
+import org.greenrobot.eventbus.BusTracer;
+import org.greenrobot.eventbus.EventBusBuilder;
+import org.greenrobot.eventbus.ExceptionalThreadMode;
+import org.greenrobot.eventbus.ThreadMode;
+
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+
+/**
+ * {@link BusTracer} emitting JDK Flight Recorder events, so bus activity can be correlated with GC, lock and CPU
+ * profiles of the same recording. Install it with {@link EventBusBuilder#tracer(BusTracer)}.
+ * <p/>
+ * All events (named {@value #EVENT_NAME_PREFIX}*) are disabled by default; enable them in the recording settings,
+ * e.g. with {@link #enableEvents(Recording)} or a custom .jfc file. While they are disabled (or no recording runs),
+ * tracing only checks the state of the event types, without allocating events or taking timestamps.
+ */
+public class JfrBusTracer implements BusTracer {
+    public static final String EVENT_NAME_PREFIX = "org.greenrobot.eventbus.";
+
+    static final String[] EVENT_NAMES = {EVENT_NAME_PREFIX + "Post", EVENT_NAME_PREFIX + "Throw",
+            EVENT_NAME_PREFIX + "SubscriberInvocation", EVENT_NAME_PREFIX + "HandlerInvocation",
+            EVENT_NAME_PREFIX + "Enqueue", EVENT_NAME_PREFIX + "Dequeue", EVENT_NAME_PREFIX + "MappedClassScan",
+            EVENT_NAME_PREFIX + "Reflection"};
+
+    private static final EventType POST = EventType.getEventType(PostEvent.class);
+    private static final EventType THROW = EventType.getEventType(ThrowEvent.class);
+    private static final EventType SUBSCRIBER_INVOCATION = EventType.getEventType(SubscriberInvocationEvent.class);
+    private static final EventType HANDLER_INVOCATION = EventType.getEventType(HandlerInvocationEvent.class);
+    private static final EventType ENQUEUE = EventType.getEventType(EnqueueEvent.class);
+    private static final EventType DEQUEUE = EventType.getEventType(DequeueEvent.class);
+    private static final EventType MAPPED_CLASS_SCAN = EventType.getEventType(MappedClassScanEvent.class);
+    private static final EventType REFLECTION = EventType.getEventType(ReflectionEvent.class);
+
+    /** Enables all EventBus events in the given recording, without stack traces. */
+    public static void enableEvents(Recording recording) {
+        for (String eventName : EVENT_NAMES) {
+            recording.enable(eventName).withoutStackTrace();
+        }
+    }
+
+    @Override
+    public Object beginPost(Class<?> eventClass) {
+        if (!POST.isEnabled()) {
+            return null;
+        }
+        PostEvent event = new PostEvent();
+        event.eventClass = eventClass;
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endPost(Object token) {
+        commit(token);
+    }
+
+    @Override
+    public Object beginThrow(Class<?> exceptionalEventClass) {
+        if (!THROW.isEnabled()) {
+            return null;
+        }
+        ThrowEvent event = new ThrowEvent();
+        event.exceptionalEventClass = exceptionalEventClass;
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endThrow(Object token) {
+        commit(token);
+    }
+
+    @Override
+    public Object beginSubscriberInvocation(Class<?> eventClass, Class<?> subscriberClass, ThreadMode threadMode) {
+        if (!SUBSCRIBER_INVOCATION.isEnabled()) {
+            return null;
+        }
+        SubscriberInvocationEvent event = new SubscriberInvocationEvent();
+        event.eventClass = eventClass;
+        event.subscriberClass = subscriberClass;
+        event.threadMode = threadMode.name();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endSubscriberInvocation(Object token) {
+        commit(token);
+    }
+
+    @Override
+    public Object beginHandlerInvocation(Class<?> exceptionalEventClass, Class<?> handlerClass,
+                                         ExceptionalThreadMode threadMode) {
+        if (!HANDLER_INVOCATION.isEnabled()) {
+            return null;
+        }
+        HandlerInvocationEvent event = new HandlerInvocationEvent();
+        event.exceptionalEventClass = exceptionalEventClass;
+        event.handlerClass = handlerClass;
+        event.threadMode = threadMode.name();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endHandlerInvocation(Object token) {
+        commit(token);
+    }
+
+    @Override
+    public boolean onSubscriberEnqueued(Class<?> eventClass, Class<?> subscriberClass, ThreadMode threadMode) {
+        if (ENQUEUE.isEnabled()) {
+            EnqueueEvent event = new EnqueueEvent();
+            event.eventClass = eventClass;
+            event.receiverClass = subscriberClass;
+            event.threadMode = threadMode.name();
+            event.commit();
+        }
+        return DEQUEUE.isEnabled();
+    }
+
+    @Override
+    public void onSubscriberDequeued(Class<?> eventClass, Class<?> subscriberClass, ThreadMode threadMode,
+                                     long queuedNanos) {
+        if (DEQUEUE.isEnabled()) {
+            DequeueEvent event = new DequeueEvent();
+            event.eventClass = eventClass;
+            event.receiverClass = subscriberClass;
+            event.threadMode = threadMode.name();
+            event.queuedTime = queuedNanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public boolean onHandlerEnqueued(Class<?> exceptionalEventClass, Class<?> handlerClass,
+                                     ExceptionalThreadMode threadMode) {
+        if (ENQUEUE.isEnabled()) {
+            EnqueueEvent event = new EnqueueEvent();
+            event.eventClass = exceptionalEventClass;
+            event.receiverClass = handlerClass;
+            event.threadMode = threadMode.name();
+            event.exceptional = true;
+            event.commit();
+        }
+        return DEQUEUE.isEnabled();
+    }
+
+    @Override
+    public void onHandlerDequeued(Class<?> exceptionalEventClass, Class<?> handlerClass,
+                                  ExceptionalThreadMode threadMode, long queuedNanos) {
+        if (DEQUEUE.isEnabled()) {
+            DequeueEvent event = new DequeueEvent();
+            event.eventClass = exceptionalEventClass;
+            event.receiverClass = handlerClass;
+            event.threadMode = threadMode.name();
+            event.exceptional = true;
+            event.queuedTime = queuedNanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginMappedClassScan() {
+        if (!MAPPED_CLASS_SCAN.isEnabled()) {
+            return null;
+        }
+        MappedClassScanEvent event = new MappedClassScanEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endMappedClassScan(Object token, int classCount) {
+        if (token != null) {
+            MappedClassScanEvent event = (MappedClassScanEvent) token;
+            event.classCount = classCount;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginSubscriberReflection(Class<?> inspectedClass) {
+        return beginReflection(inspectedClass, false);
+    }
+
+    @Override
+    public Object beginHandlerReflection(Class<?> inspectedClass) {
+        return beginReflection(inspectedClass, true);
+    }
+
+    private static Object beginReflection(Class<?> inspectedClass, boolean handler) {
+        if (!REFLECTION.isEnabled()) {
+            return null;
+        }
+        ReflectionEvent event = new ReflectionEvent();
+        event.inspectedClass = inspectedClass;
+        event.handler = handler;
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endReflection(Object token, int methodCount) {
+        if (token != null) {
+            ReflectionEvent event = (ReflectionEvent) token;
+            event.methodCount = methodCount;
+            event.commit();
+        }
+    }
+
+    /** Ends and commits the event; the recording drops it if it is shorter than the configured threshold. */
+    private static void commit(Object token) {
+        if (token != null) {
+            ((Event) token).commit();
+        }
+    }
+}